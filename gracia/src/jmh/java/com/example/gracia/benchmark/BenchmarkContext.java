@@ -0,0 +1,68 @@
+package com.example.gracia.benchmark;
+
+import com.example.gracia.GraciaApplication;
+import com.example.gracia.model.Student;
+import com.example.gracia.service.StudentImportService;
+import org.springframework.boot.Banner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Arranca la aplicacion sin servidor web sobre una base H2 en memoria propia
+ * y la llena con la cantidad de estudiantes pedida.
+ *
+ * Los logs de SQL y de la aplicacion se silencian para que no se midan.
+ */
+final class BenchmarkContext {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+    private static final int SEED_CHUNK = 5_000;
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:bench" + DATABASES.incrementAndGet() + ";DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--spring.jpa.open-in-view=false",
+                "--spring.h2.console.enabled=false",
+                "--springdoc.api-docs.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.example.gracia=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=OFF"));
+        args.addAll(List.of(extraArgs));
+        SpringApplication application = new SpringApplication(GraciaApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        application.setBannerMode(Banner.Mode.OFF);
+        return application.run(args.toArray(new String[0]));
+    }
+
+    /**
+     * Inserta "count" estudiantes con DNI "seed-0".."seed-(count-1)" usando la importacion masiva
+     */
+    static void seed(ConfigurableApplicationContext context, int count) {
+        StudentImportService importService = context.getBean(StudentImportService.class);
+        List<Student> chunk = new ArrayList<>(SEED_CHUNK);
+        for (int i = 0; i < count; i++) {
+            chunk.add(student("seed-" + i, i));
+            if (chunk.size() == SEED_CHUNK) {
+                importService.importStudents(chunk, false);
+                chunk = new ArrayList<>(SEED_CHUNK);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importService.importStudents(chunk, false);
+        }
+    }
+
+    static Student student(String dni, int i) {
+        return new Student(dni, "Nombre" + (i % 997), "Apellido" + (i % 1009), 200 + (i % 40), null);
+    }
+}
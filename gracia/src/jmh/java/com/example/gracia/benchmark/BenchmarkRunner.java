@@ -0,0 +1,35 @@
+package com.example.gracia.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Punto de entrada de los benchmarks JMH
+ *
+ * Uso: mvn -Pbenchmarks test-compile exec:exec [-Djmh.include=StudentJson]
+ * - args[0]  : archivo JSON de resultados (target/jmh-result.json)
+ * - args[1]  : expresion regular de benchmarks a ejecutar (opcional)
+ *
+ * Se agrega el perfilador GC, por lo que el reporte incluye la asignacion
+ * de memoria por operacion (gc.alloc.rate.norm) ademas del throughput.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        String resultFile = args.length > 0 ? args[0] : "jmh-result.json";
+        String include = args.length > 1 && !args[1].isBlank() ? args[1] : "com.example.gracia.benchmark.*Benchmark";
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile);
+        new Runner(options.build()).run();
+    }
+}
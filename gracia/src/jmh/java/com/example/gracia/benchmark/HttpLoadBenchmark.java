@@ -0,0 +1,520 @@
+package com.example.gracia.benchmark;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Prueba de carga HTTP: rendimiento de toda la pila (Tomcat, Hikari, Hibernate, Jackson)
+ *
+ * Por cada perfil de carga arranca la aplicacion (java -jar) sobre una base H2 en memoria
+ * nueva, la llena con "students" estudiantes via POST /bulk y ejecuta la mezcla de
+ * operaciones del perfil a una tasa fija durante "warmup" (no se mide) y "duration".
+ *
+ * Perfiles:
+ * - list-heavy   : paginas, busquedas por ID, filtros, sugerencias y listado resumido
+ * - registration : rafaga de altas (POST) con lecturas por ID y DNI
+ * - churn        : eliminacion logica + restauracion del mismo ID, con lecturas por ID
+ *
+ * La carga es de lazo abierto: la peticion numero k se programa en t0 + k / rate y la
+ * latencia se mide desde ese instante, por lo que incluye la espera cuando el servidor
+ * (o los "concurrency" hilos cliente) no dan abasto. Con rate=0 cada hilo envia
+ * peticiones una tras otra (lazo cerrado, mide el throughput maximo).
+ *
+ * Errores: respuestas distintas de 2xx/3xx y fallas de conexion; 429 y 503 (limites de la
+ * aplicacion) se cuentan ademas como "rejected". El limite de peticiones por cliente se
+ * desactiva porque toda la carga sale de la misma IP.
+ *
+ * Uso: mvn package -DskipTests && mvn -Pbenchmarks test-compile exec:exec@loadtest
+ *      [-Dloadtest.profiles=churn -Dloadtest.rate=100 -Dloadtest.label=vt
+ *       -Dloadtest.jvm-args="-Xmx1g" -Dloadtest.app-args="--spring.threads.virtual.enabled=true"]
+ * Argumentos (nombre=valor): jar, result, label, profiles, students, rate, concurrency,
+ * warmup, duration, jvm-args y app-args (separados por espacios).
+ * Resultados en target/loadtest-result.json (configuracion, throughput, percentiles y
+ * errores por perfil y por operacion); la salida de la aplicacion en target/loadtest-app.log.
+ */
+public final class HttpLoadBenchmark {
+
+    private static final int PORT = 18091;
+    private static final String BASE = "http://localhost:" + PORT + "/v1/api/student";
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(120);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int SEED_CHUNK = 1_000;
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final Map<String, String> config;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final AtomicLong registrations = new AtomicLong();
+    private int students;
+    private long minId;
+
+    private HttpLoadBenchmark(Map<String, String> config) {
+        this.config = config;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> config = new LinkedHashMap<>();
+        config.put("jar", "target/gracia-0.0.1-SNAPSHOT.jar");
+        config.put("result", "target/loadtest-result.json");
+        config.put("label", "default");
+        config.put("profiles", "list-heavy,registration,churn");
+        config.put("students", "10000");
+        config.put("rate", "200");
+        config.put("concurrency", "64");
+        config.put("warmup", "10");
+        config.put("duration", "30");
+        config.put("jvm-args", "");
+        config.put("app-args", "");
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Argumento invalido (se espera nombre=valor): " + arg);
+            }
+            String name = arg.substring(0, separator);
+            if (!config.containsKey(name)) {
+                throw new IllegalArgumentException("Argumento desconocido: " + name);
+            }
+            config.put(name, arg.substring(separator + 1).trim());
+        }
+        new HttpLoadBenchmark(config).run();
+    }
+
+    private void run() throws Exception {
+        Path jar = Path.of(config.get("jar"));
+        if (!Files.exists(jar)) {
+            throw new IllegalStateException("No se encontro " + jar + "; ejecute mvn package primero");
+        }
+        students = Integer.parseInt(config.get("students"));
+        Path resultFile = Path.of(config.get("result"));
+        Path appLog = resultFile.resolveSibling("loadtest-app.log");
+        Files.deleteIfExists(appLog);
+
+        StringBuilder json = new StringBuilder("{");
+        json.append(String.format(Locale.ROOT,
+                "\"label\":%s,\"timestamp\":%s,\"java\":%s,\"os\":%s,\"cpus\":%d,\"config\":{",
+                quote(config.get("label")), quote(Instant.now().toString()), quote(System.getProperty("java.version")),
+                quote(System.getProperty("os.name") + " " + System.getProperty("os.version")),
+                Runtime.getRuntime().availableProcessors()));
+        boolean first = true;
+        for (Map.Entry<String, String> entry : config.entrySet()) {
+            json.append(first ? "" : ",").append(quote(entry.getKey())).append(':').append(quote(entry.getValue()));
+            first = false;
+        }
+        json.append("},\"profiles\":[");
+
+        System.out.printf("%-14s %-14s %9s %8s %8s %8s %8s %8s %8s%n",
+                "perfil", "operacion", "peticiones", "req/s", "errores", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        first = true;
+        for (String name : config.get("profiles").split(",")) {
+            Profile profile = Profile.of(name.trim());
+            Process process = startApplication(jar, appLog);
+            try {
+                seed();
+                json.append(first ? "" : ",").append(execute(profile));
+                first = false;
+            } finally {
+                process.destroy();
+                if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                    process.destroyForcibly().waitFor();
+                }
+            }
+        }
+        json.append("]}");
+        Files.writeString(resultFile, json.toString());
+        System.out.println("Resultados en " + resultFile.toAbsolutePath());
+    }
+
+    /**
+     * Arranca la aplicacion sobre una base H2 nueva y espera a que responda
+     */
+    private Process startApplication(Path jar, Path appLog) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(split(config.get("jvm-args")));
+        command.addAll(List.of("-jar", jar.toAbsolutePath().toString(),
+                "--server.port=" + PORT,
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--logging.level.com.example.gracia=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=OFF",
+                "--student.rate-limit.enabled=false",
+                "--student.snapshot.restore-on-startup="));
+        command.addAll(split(config.get("app-args")));
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(appLog.toFile()))
+                .start();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(BASE + "/page?size=1")).timeout(REQUEST_TIMEOUT).build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("La aplicacion termino al arrancar; ver " + appLog);
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return process;
+                }
+            } catch (ConnectException e) {
+                // Tomcat todavia no escucha en el puerto
+            } catch (IOException e) {
+                // conexion cerrada durante el arranque
+            }
+            Thread.sleep(50);
+        }
+        process.destroyForcibly();
+        throw new IllegalStateException("La aplicacion no respondio en " + STARTUP_TIMEOUT + "; ver " + appLog);
+    }
+
+    /**
+     * Inserta los estudiantes con POST /bulk y toma el primer ID (los IDs quedan consecutivos)
+     */
+    private void seed() throws IOException, InterruptedException {
+        for (int from = 0; from < students; from += SEED_CHUNK) {
+            StringBuilder body = new StringBuilder("[");
+            for (int i = from; i < Math.min(students, from + SEED_CHUNK); i++) {
+                body.append(i == from ? "" : ",").append(studentJson("seed-" + i, i));
+            }
+            body.append(']');
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(BASE + "/bulk"))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("POST /bulk respondio " + response.statusCode() + ": " + response.body());
+            }
+        }
+        String page = client.send(HttpRequest.newBuilder(URI.create(BASE + "/page?size=1")).timeout(REQUEST_TIMEOUT).build(),
+                HttpResponse.BodyHandlers.ofString()).body();
+        int start = page.indexOf("\"id\":") + 5;
+        int end = start;
+        while (end < page.length() && Character.isDigit(page.charAt(end))) {
+            end++;
+        }
+        minId = Long.parseLong(page.substring(start, end));
+    }
+
+    /**
+     * Ejecuta el perfil con "concurrency" hilos y devuelve su reporte en JSON
+     */
+    private String execute(Profile profile) throws InterruptedException {
+        double rate = Double.parseDouble(config.get("rate"));
+        int concurrency = Integer.parseInt(config.get("concurrency"));
+        long warmupNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(config.get("warmup")));
+        long durationNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(config.get("duration")));
+        long intervalNanos = rate > 0 ? (long) (1_000_000_000L / rate) : 0;
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long measureFrom = start + warmupNanos;
+        long end = measureFrom + durationNanos;
+        AtomicLong slots = new AtomicLong();
+
+        List<Map<String, Recorder>> results = new ArrayList<>();
+        List<Thread> workers = new ArrayList<>();
+        for (int w = 0; w < concurrency; w++) {
+            Map<String, Recorder> recorders = new HashMap<>();
+            results.add(recorders);
+            int worker = w;
+            Thread thread = new Thread(() -> {
+                while (true) {
+                    long scheduled = intervalNanos > 0 ? start + slots.getAndIncrement() * intervalNanos
+                            : Math.max(start, System.nanoTime());
+                    if (scheduled >= end) {
+                        return;
+                    }
+                    long wait;
+                    while ((wait = scheduled - System.nanoTime()) > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    profile.run(this, worker, concurrency, new Step(recorders, scheduled, scheduled >= measureFrom));
+                }
+            }, "loadtest-" + w);
+            workers.add(thread);
+            thread.start();
+        }
+        for (Thread thread : workers) {
+            thread.join();
+        }
+
+        Map<String, Recorder> operations = new TreeMap<>();
+        for (Map<String, Recorder> recorders : results) {
+            recorders.forEach((name, recorder) -> operations.computeIfAbsent(name, k -> new Recorder()).merge(recorder));
+        }
+        Recorder total = new Recorder();
+        operations.values().forEach(total::merge);
+        double seconds = durationNanos / 1e9;
+
+        StringBuilder json = new StringBuilder();
+        json.append("{\"profile\":").append(quote(profile.name)).append(',')
+                .append(total.toJson(seconds)).append(",\"operations\":[");
+        boolean first = true;
+        for (Map.Entry<String, Recorder> entry : operations.entrySet()) {
+            json.append(first ? "" : ",").append("{\"operation\":").append(quote(entry.getKey())).append(',')
+                    .append(entry.getValue().toJson(seconds)).append('}');
+            first = false;
+            print(profile.name, entry.getKey(), entry.getValue(), seconds);
+        }
+        print(profile.name, "TOTAL", total, seconds);
+        return json.append("]}").toString();
+    }
+
+    /**
+     * Envia una peticion y registra su latencia desde el instante programado
+     * @return codigo de estado HTTP o 0 si fallo la conexion
+     */
+    private int send(Step step, String operation, HttpRequest.Builder builder) {
+        long begin = System.nanoTime();
+        int status;
+        try {
+            status = client.send(builder.timeout(REQUEST_TIMEOUT).build(), HttpResponse.BodyHandlers.discarding())
+                    .statusCode();
+        } catch (IOException e) {
+            status = 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            status = 0;
+        }
+        long now = System.nanoTime();
+        if (step.measured) {
+            // La primera peticion del paso se mide desde el instante programado; las siguientes desde su envio
+            step.recorders.computeIfAbsent(operation, k -> new Recorder())
+                    .record(now - Math.min(begin, step.scheduled), status);
+        }
+        step.scheduled = Long.MAX_VALUE;
+        return status;
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(URI.create(BASE + path)).GET();
+    }
+
+    private long randomId() {
+        return minId + ThreadLocalRandom.current().nextInt(students);
+    }
+
+    /**
+     * ID aleatorio que solo usa este hilo (id % concurrency == worker), para que las
+     * eliminaciones y restauraciones de distintos hilos no se pisen
+     */
+    private long ownedId(int worker, int concurrency) {
+        int owned = (students - worker + concurrency - 1) / concurrency;
+        long id = minId + worker + (long) ThreadLocalRandom.current().nextInt(Math.max(1, owned)) * concurrency;
+        return Math.min(id, minId + students - 1);
+    }
+
+    private static String studentJson(String dni, int i) {
+        return String.format(Locale.ROOT, "{\"dni\":%s,\"firstName\":\"Nombre%d\",\"lastName\":\"Apellido%d\",\"promotion\":%d}",
+                quote(dni), i % 997, i % 1009, 200 + i % 40);
+    }
+
+    private static void print(String profile, String operation, Recorder recorder, double seconds) {
+        System.out.printf(Locale.ROOT, "%-14s %-14s %9d %8.1f %8d %8.2f %8.2f %8.2f %8.2f%n", profile, operation,
+                recorder.count, recorder.count / seconds, recorder.errors,
+                recorder.percentile(50) / 1e6, recorder.percentile(99) / 1e6, recorder.percentile(99.9) / 1e6,
+                recorder.percentile(100) / 1e6);
+    }
+
+    private static List<String> split(String value) {
+        return value.isBlank() ? List.of() : Arrays.asList(value.trim().split("\\s+"));
+    }
+
+    private static String quote(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    /**
+     * Mezcla de operaciones de un perfil (pesos relativos)
+     */
+    private enum Profile {
+        LIST_HEAVY("list-heavy", new int[] {35, 30, 15, 15, 5}) {
+            @Override
+            void run(HttpLoadBenchmark test, int operation, int worker, int concurrency, Step step) {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                switch (operation) {
+                    case 0 -> test.send(step, "page", test.get("/page?size=50&after=" + (test.randomId() - 1)));
+                    case 1 -> test.send(step, "get-by-id", test.get("/" + test.randomId()));
+                    case 2 -> test.send(step, "search", test.get("/search?promotion=" + (200 + random.nextInt(40))
+                            + "&size=20&page=" + random.nextInt(5)));
+                    case 3 -> test.send(step, "suggest", test.get("/suggest?limit=10&q=nombre" + random.nextInt(997)));
+                    default -> test.send(step, "list-summary", test.get("?fields=summary"));
+                }
+            }
+        },
+        REGISTRATION("registration", new int[] {80, 10, 10}) {
+            @Override
+            void run(HttpLoadBenchmark test, int operation, int worker, int concurrency, Step step) {
+                switch (operation) {
+                    case 0 -> {
+                        long n = test.registrations.incrementAndGet();
+                        test.send(step, "create", HttpRequest.newBuilder(URI.create(BASE))
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString(studentJson("reg-" + n, (int) n))));
+                    }
+                    case 1 -> test.send(step, "get-by-id", test.get("/" + test.randomId()));
+                    default -> test.send(step, "get-by-dni",
+                            test.get("/dni/seed-" + ThreadLocalRandom.current().nextInt(test.students)));
+                }
+            }
+        },
+        CHURN("churn", new int[] {80, 20}) {
+            @Override
+            void run(HttpLoadBenchmark test, int operation, int worker, int concurrency, Step step) {
+                if (operation == 0) {
+                    long id = test.ownedId(worker, concurrency);
+                    if (test.send(step, "delete", HttpRequest.newBuilder(URI.create(BASE + "/" + id)).DELETE()) == 204) {
+                        test.send(step, "restore", HttpRequest.newBuilder(URI.create(BASE + "/" + id + "/restore"))
+                                .method("PATCH", HttpRequest.BodyPublishers.noBody()));
+                    }
+                } else {
+                    test.send(step, "get-by-id", test.get("/" + test.randomId()));
+                }
+            }
+        };
+
+        private final String name;
+        private final int[] weights;
+        private final int totalWeight;
+
+        Profile(String name, int[] weights) {
+            this.name = name;
+            this.weights = weights;
+            this.totalWeight = Arrays.stream(weights).sum();
+        }
+
+        static Profile of(String name) {
+            for (Profile profile : values()) {
+                if (profile.name.equals(name)) {
+                    return profile;
+                }
+            }
+            throw new IllegalArgumentException("Perfil desconocido: " + name);
+        }
+
+        void run(HttpLoadBenchmark test, int worker, int concurrency, Step step) {
+            int pick = ThreadLocalRandom.current().nextInt(totalWeight);
+            int operation = 0;
+            while (pick >= weights[operation]) {
+                pick -= weights[operation++];
+            }
+            run(test, operation, worker, concurrency, step);
+        }
+
+        abstract void run(HttpLoadBenchmark test, int operation, int worker, int concurrency, Step step);
+    }
+
+    /**
+     * Una ejecucion programada de una operacion del perfil (puede enviar varias peticiones)
+     */
+    private static final class Step {
+        private final Map<String, Recorder> recorders;
+        private final boolean measured;
+        private long scheduled;
+
+        private Step(Map<String, Recorder> recorders, long scheduled, boolean measured) {
+            this.recorders = recorders;
+            this.scheduled = scheduled;
+            this.measured = measured;
+        }
+    }
+
+    /**
+     * Latencias (ns) y codigos de estado de una operacion; cada hilo usa los suyos
+     */
+    private static final class Recorder {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+        private long rejected;
+        private final Map<Integer, Long> statuses = new TreeMap<>();
+        private boolean sorted;
+
+        void record(long nanos, int status) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            sorted = false;
+            statuses.merge(status, 1L, Long::sum);
+            if (status < 200 || status >= 400) {
+                errors++;
+            }
+            if (status == 429 || status == 503) {
+                rejected++;
+            }
+        }
+
+        void merge(Recorder other) {
+            if (count + other.count > latencies.length) {
+                latencies = Arrays.copyOf(latencies, count + other.count);
+            }
+            System.arraycopy(other.latencies, 0, latencies, count, other.count);
+            count += other.count;
+            sorted = false;
+            errors += other.errors;
+            rejected += other.rejected;
+            other.statuses.forEach((status, n) -> statuses.merge(status, n, Long::sum));
+        }
+
+        /**
+         * @param percentile 0-100 (100 es el maximo)
+         * @return latencia en ns (metodo nearest-rank)
+         */
+        long percentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            if (!sorted) {
+                Arrays.sort(latencies, 0, count);
+                sorted = true;
+            }
+            int rank = (int) Math.ceil(percentile / 100 * count);
+            return latencies[Math.min(count, Math.max(1, rank)) - 1];
+        }
+
+        String toJson(double seconds) {
+            double sum = 0;
+            for (int i = 0; i < count; i++) {
+                sum += latencies[i];
+            }
+            StringBuilder json = new StringBuilder(String.format(Locale.ROOT,
+                    "\"requests\":%d,\"throughput\":%.2f,\"errors\":%d,\"rejected\":%d,\"errorRate\":%.5f,"
+                            + "\"latencyMs\":{\"mean\":%.3f",
+                    count, count / seconds, errors, rejected, count == 0 ? 0.0 : (double) errors / count,
+                    count == 0 ? 0.0 : sum / count / 1e6));
+            for (double percentile : PERCENTILES) {
+                json.append(String.format(Locale.ROOT, ",\"p%s\":%.3f",
+                        percentile == (long) percentile ? String.valueOf((long) percentile) : String.valueOf(percentile),
+                        percentile(percentile) / 1e6));
+            }
+            json.append(String.format(Locale.ROOT, ",\"max\":%.3f},\"statuses\":{", percentile(100) / 1e6));
+            boolean first = true;
+            for (Map.Entry<Integer, Long> entry : statuses.entrySet()) {
+                json.append(first ? "" : ",").append('"').append(entry.getKey()).append("\":").append(entry.getValue());
+                first = false;
+            }
+            return json.append('}').toString();
+        }
+    }
+}
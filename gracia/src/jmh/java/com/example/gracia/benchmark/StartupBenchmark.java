@@ -0,0 +1,144 @@
+package com.example.gracia.benchmark;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de arranque: tiempo hasta la primera peticion atendida
+ *
+ * Arranca la aplicacion varias veces en cada modo y mide desde el inicio del
+ * proceso hasta la primera respuesta 200 de GET /v1/api/student/page?size=1
+ * (incluye JVM, contexto de Spring, Hibernate, pool de conexiones y Tomcat).
+ *
+ * Modos (solo se ejecutan si existen los archivos necesarios):
+ * - jar          : java -jar (perfil por defecto, con springdoc y consola H2)
+ * - jar-prod     : java -jar con el perfil prod
+ * - cds-aot-prod : jar extraido + archivo CDS + AOT (requiere mvn -Pstartup package)
+ *
+ * Uso: mvn -Pstartup package -DskipTests && mvn -Pbenchmarks test-compile exec:exec@startup
+ * - args[0] : directorio target
+ * - args[1] : archivo JSON de resultados (target/startup-result.json)
+ * - args[2] : arranques por modo (opcional, 5 por defecto)
+ */
+public final class StartupBenchmark {
+
+    private static final int PORT = 18090;
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(120);
+    private static final String JAR_NAME = "gracia-0.0.1-SNAPSHOT.jar";
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path target = Path.of(args.length > 0 ? args[0] : "target");
+        Path resultFile = Path.of(args.length > 1 ? args[1] : "startup-result.json");
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+
+        List<Mode> modes = new ArrayList<>();
+        Path jar = target.resolve(JAR_NAME);
+        if (Files.exists(jar)) {
+            modes.add(new Mode("jar", target, List.of(java, "-jar", JAR_NAME)));
+            modes.add(new Mode("jar-prod", target, List.of(java, "-Dspring.profiles.active=prod", "-jar", JAR_NAME)));
+        }
+        Path extracted = target.resolve("extracted");
+        if (Files.exists(extracted.resolve("application.jsa"))) {
+            modes.add(new Mode("cds-aot-prod", extracted, List.of(java, "-XX:SharedArchiveFile=application.jsa",
+                    "-Dspring.aot.enabled=true", "-Dspring.profiles.active=prod", "-jar", JAR_NAME)));
+        }
+        if (modes.isEmpty()) {
+            throw new IllegalStateException("No se encontro " + jar + "; ejecute mvn package primero");
+        }
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        StringBuilder json = new StringBuilder("[");
+        System.out.printf("%-14s %8s %8s %8s  (ms hasta la primera peticion, %d arranques)%n",
+                "modo", "min", "mediana", "max", runs);
+        for (Mode mode : modes) {
+            measure(mode, client); // arranque de calentamiento (cache de disco del sistema operativo)
+            long[] millis = new long[runs];
+            for (int i = 0; i < runs; i++) {
+                millis[i] = measure(mode, client);
+            }
+            long[] sorted = millis.clone();
+            Arrays.sort(sorted);
+            long median = sorted[sorted.length / 2];
+            System.out.printf("%-14s %8d %8d %8d%n", mode.name, sorted[0], median, sorted[sorted.length - 1]);
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            json.append(String.format(Locale.ROOT,
+                    "{\"mode\":\"%s\",\"runs\":%s,\"minMs\":%d,\"medianMs\":%d,\"maxMs\":%d}",
+                    mode.name, Arrays.toString(millis), sorted[0], median, sorted[sorted.length - 1]));
+        }
+        json.append(']');
+        Files.writeString(resultFile, json.toString());
+        System.out.println("Resultados en " + resultFile.toAbsolutePath());
+    }
+
+    /**
+     * Arranca la aplicacion, espera la primera respuesta 200 y detiene el proceso
+     * @return milisegundos desde el inicio del proceso hasta la primera respuesta
+     */
+    private static long measure(Mode mode, HttpClient client) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(mode.command);
+        command.add("--server.port=" + PORT);
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + PORT + "/v1/api/student/page?size=1"))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(mode.directory.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            long deadline = start + STARTUP_TIMEOUT.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("La aplicacion termino al arrancar en modo " + mode.name);
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return (System.nanoTime() - start) / 1_000_000;
+                    }
+                } catch (ConnectException e) {
+                    // Tomcat todavia no escucha en el puerto
+                } catch (IOException e) {
+                    // conexion cerrada durante el arranque
+                }
+                Thread.sleep(10);
+            }
+            throw new IllegalStateException("La aplicacion no respondio en " + STARTUP_TIMEOUT + " (modo " + mode.name + ")");
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static final class Mode {
+        private final String name;
+        private final Path directory;
+        private final List<String> command;
+
+        private Mode(String name, Path directory, List<String> command) {
+            this.name = name;
+            this.directory = directory;
+            this.command = command;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.gracia.benchmark;
+
+import com.example.gracia.model.Student;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de serializar/deserializar Student con Jackson (el mismo motor que usan los endpoints)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class StudentJsonBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    private JsonMapper mapper;
+    private Student student;
+    private List<Student> page;
+    private byte[] studentJson;
+
+    @Setup
+    public void setUp() {
+        mapper = JsonMapper.builder().build();
+        LocalDateTime now = LocalDateTime.of(2025, 12, 13, 10, 30);
+        student = sample(1, now);
+        page = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            page.add(sample(i + 1, now.plusMinutes(i)));
+        }
+        studentJson = mapper.writeValueAsBytes(student);
+    }
+
+    @Benchmark
+    public byte[] serializeStudent() {
+        return mapper.writeValueAsBytes(student);
+    }
+
+    @Benchmark
+    public byte[] serializePageOf100() {
+        return mapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public Student deserializeStudent() {
+        return mapper.readValue(studentJson, Student.class);
+    }
+
+    private static Student sample(long id, LocalDateTime date) {
+        Student student = new Student(String.valueOf(10_000_000 + id), "Gracia", "Garcia", 232, date);
+        student.setId(id);
+        return student;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.gracia.benchmark;
+
+import com.example.gracia.model.Student;
+import com.example.gracia.service.StudentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rendimiento de StudentService sobre H2 embebida con distintos tamanos de tabla
+ *
+ * - createStudent     : INSERT de un estudiante nuevo (la tabla crece durante la medicion)
+ * - getStudentById    : lectura por ID aleatorio (con y sin cache)
+ * - getAllStudents    : listado completo de activos
+ * - softDeleteRestore : ciclo eliminacion logica + restauracion del mismo ID
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class StudentServiceBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int tableSize;
+
+    @Param({"true", "false"})
+    public boolean cacheEnabled;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private StudentService studentService;
+    private long minId;
+    private long maxId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("--student.cache.enabled=" + cacheEnabled);
+        BenchmarkContext.seed(context, tableSize);
+        studentService = context.getBean(StudentService.class);
+        List<Student> first = studentService.getStudentsPage(null, 1, true);
+        minId = first.get(0).getId();
+        maxId = minId + tableSize - 1;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Student createStudent() {
+        long n = sequence.incrementAndGet();
+        return studentService.createStudent(BenchmarkContext.student("bench-" + n, (int) n));
+    }
+
+    @Benchmark
+    public Optional<Student> getStudentById() {
+        return studentService.getStudentById(randomId());
+    }
+
+    @Benchmark
+    public List<Student> getAllStudents() {
+        return studentService.getAllStudents();
+    }
+
+    @Benchmark
+    public Optional<Student> softDeleteRestore() {
+        long id = randomId();
+        studentService.deleteStudent(id);
+        return studentService.restoreStudent(id);
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(minId, maxId + 1);
+    }
+}
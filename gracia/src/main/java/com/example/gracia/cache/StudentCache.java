@@ -0,0 +1,230 @@
+package com.example.gracia.cache;
+
+import com.example.gracia.config.ReadYourWrites;
+import com.example.gracia.dto.StudentCacheStats;
+import com.example.gracia.event.StudentChangeEvent;
+import com.example.gracia.model.Student;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * CACHE DE LECTURA DE ESTUDIANTES (EN MEMORIA)
+ *
+ * Mantiene dos caches acotadas (Caffeine) delante de StudentRepository:
+ * - por ID  : estudiantes, usada por StudentService.getStudentById
+ * - por DNI : solo el ID del estudiante con ese DNI; los datos se leen de la cache por ID
+ *
+ * Ambas expulsan entradas por tamano maximo y por tiempo de vida (TTL).
+ * Se mantienen consistentes escuchando StudentChangeEvent: cada mutacion
+ * refresca la entrada del estudiante y elimina el DNI anterior si cambio.
+ *
+ * Cada cache se llena solo con su propio loader (Caffeine.get), nunca con un valor
+ * leido para la otra: asi una invalidacion que llega durante la carga descarta el
+ * valor cargado en lugar de quedar pisada por una copia vieja. Como la cache por DNI
+ * guarda el ID, un cambio de estado (que no trae el DNI) solo invalida la entrada por ID.
+ *
+ * Con replicas de lectura, una replica atrasada podria devolver la version anterior de
+ * un estudiante recien modificado y la cache la guardaria durante todo el TTL. Por eso
+ * los IDs y DNI modificados en los ultimos "student.datasource.replicas.read-your-writes-window"
+ * se cargan desde la base principal (ReadYourWrites); el resto sigue leyendose de las replicas.
+ *
+ * Se guardan copias de las entidades para que el estado cacheado no
+ * dependa de ningun contexto de persistencia.
+ *
+ * Como MeterBinder publica en Micrometer los contadores de cada cache
+ * (cache.gets, cache.evictions, cache.size con tag cache=students.byId / students.byDni).
+ */
+@Component
+public class StudentCache implements MeterBinder {
+
+    private final boolean enabled;
+    private final Cache<Long, Student> byId;
+    private final Cache<String, Long> byDni;
+    /** IDs (Long) y DNI (String) modificados hace menos que el atraso de las replicas; null sin replicas */
+    private final Cache<Object, Boolean> recentlyChanged;
+
+    public StudentCache(@Value("${student.cache.enabled:true}") boolean enabled,
+                        @Value("${student.cache.maximum-size:10000}") long maximumSize,
+                        @Value("${student.cache.ttl:10m}") Duration ttl,
+                        @Value("${student.datasource.replicas.enabled:false}") boolean replicas,
+                        @Value("${student.datasource.replicas.read-your-writes-window:5s}") Duration replicaLag) {
+        this.enabled = enabled;
+        this.recentlyChanged = replicas && !replicaLag.isZero()
+                ? Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(replicaLag).build()
+                : null;
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.byDni = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Obtiene un estudiante por ID, cargandolo con loader si no esta en cache
+     * @param id ID del estudiante
+     * @param loader funcion que consulta la base de datos (puede devolver null)
+     * @return el estudiante o null si no existe (los "no encontrado" no se cachean)
+     */
+    public Student getById(Long id, Function<Long, Student> loader) {
+        if (!enabled) {
+            return loader.apply(id);
+        }
+        return byId.get(id, key -> copy(load(loader, key)));
+    }
+
+    /**
+     * Obtiene un estudiante por DNI, cargandolo con loader si no esta en cache
+     * @param dni DNI del estudiante
+     * @param loader funcion que consulta la base de datos por DNI (puede devolver null)
+     * @param idLoader funcion que consulta la base de datos por ID (carga la cache por ID)
+     * @return el estudiante o null si no existe (los "no encontrado" no se cachean)
+     */
+    public Student getByDni(String dni, Function<String, Student> loader, Function<Long, Student> idLoader) {
+        if (!enabled) {
+            return loader.apply(dni);
+        }
+        Student[] loaded = new Student[1];
+        Long id = byDni.get(dni, key -> {
+            loaded[0] = load(loader, key);
+            return loaded[0] == null ? null : loaded[0].getId();
+        });
+        if (id == null) {
+            return null;
+        }
+        Student cached = byId.getIfPresent(id);
+        if (cached != null && dni.equals(cached.getDni())) {
+            return cached;
+        }
+        if (loaded[0] != null) {
+            // Recien leido por DNI: se devuelve sin guardarlo en la cache por ID
+            return copy(loaded[0]);
+        }
+        Student student = getById(id, idLoader);
+        if (student == null || !dni.equals(student.getDni())) {
+            // El DNI cambio de estudiante o el estudiante ya no existe
+            byDni.asMap().remove(dni, id);
+            return load(loader, dni);
+        }
+        return student;
+    }
+
+    /**
+     * @param id ID del estudiante
+     * @return el estudiante cacheado o null si no esta en cache (no consulta la base de datos)
+     */
+    public Student peekById(Long id) {
+        return enabled ? byId.getIfPresent(id) : null;
+    }
+
+    /**
+     * @param dni DNI del estudiante
+     * @return el estudiante cacheado o null si no esta en cache (no consulta la base de datos)
+     */
+    public Student peekByDni(String dni) {
+        Long id = enabled ? byDni.getIfPresent(dni) : null;
+        Student student = id == null ? null : byId.getIfPresent(id);
+        return student != null && dni.equals(student.getDni()) ? student : null;
+    }
+
+    /**
+     * Mantiene la cache sincronizada con cada mutacion confirmada
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentChange(StudentChangeEvent event) {
+        if (!enabled) {
+            return;
+        }
+        Student student = event.getStudent();
+        markChanged(event.getId());
+        markChanged(event.getPreviousDni());
+        markChanged(student != null ? student.getDni() : null);
+        if (event.getPreviousDni() != null) {
+            byDni.invalidate(event.getPreviousDni());
+        }
+        if (event.isRemoval()) {
+            Student cached = byId.getIfPresent(event.getId());
+            if (cached != null) {
+                markChanged(cached.getDni());
+                byDni.invalidate(cached.getDni());
+            }
+            byId.invalidate(event.getId());
+            return;
+        }
+        if (student == null) {
+            // Cambio de estado sin entidad: el DNI sigue siendo del mismo ID
+            byId.invalidate(event.getId());
+            return;
+        }
+        Student snapshot = copy(student);
+        byId.put(snapshot.getId(), snapshot);
+        byDni.put(snapshot.getDni(), snapshot.getId());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, byId, "students.byId");
+        CaffeineCacheMetrics.monitor(registry, byDni, "students.byDni");
+    }
+
+    /**
+     * Vacia ambas caches
+     */
+    public void clear() {
+        byId.invalidateAll();
+        byDni.invalidateAll();
+    }
+
+    /**
+     * @return contadores combinados de aciertos, fallos y expulsiones de ambas caches
+     */
+    public StudentCacheStats stats() {
+        CacheStats stats = byId.stats().plus(byDni.stats());
+        return new StudentCacheStats(enabled, byId.estimatedSize(), byDni.estimatedSize(),
+                stats.hitCount(), stats.missCount(), stats.evictionCount(), stats.hitRate());
+    }
+
+    /**
+     * Ejecuta un loader; si la clave cambio hace poco, con sus lecturas en la base principal
+     */
+    private <K> Student load(Function<K, Student> loader, K key) {
+        if (recentlyChanged == null || recentlyChanged.getIfPresent(key) == null) {
+            return loader.apply(key);
+        }
+        Student[] loaded = new Student[1];
+        ReadYourWrites.runOnPrimary(() -> loaded[0] = loader.apply(key));
+        return loaded[0];
+    }
+
+    private void markChanged(Object key) {
+        if (recentlyChanged != null && key != null) {
+            recentlyChanged.put(key, Boolean.TRUE);
+        }
+    }
+
+    private static Student copy(Student source) {
+        if (source == null) {
+            return null;
+        }
+        Student copy = new Student(source.getDni(), source.getFirstName(), source.getLastName(),
+                source.getPromotion(), source.getDate());
+        copy.setId(source.getId());
+        copy.setActive(source.getActive());
+        copy.setVersion(source.getVersion());
+        return copy;
+    }
+}
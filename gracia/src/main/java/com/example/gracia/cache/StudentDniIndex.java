@@ -0,0 +1,137 @@
+package com.example.gracia.cache;
+
+import com.example.gracia.config.ReadYourWrites;
+import com.example.gracia.event.StudentChangeEvent;
+import com.example.gracia.model.Student;
+import com.example.gracia.repository.StudentRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * INDICE EN MEMORIA DE DNI REGISTRADOS
+ *
+ * Mapa DNI -> ID de todos los estudiantes (incluyendo eliminados logicamente,
+ * porque la restriccion unique de la columna dni tambien los incluye).
+ * Permite rechazar un DNI duplicado sin consultar la base de datos y sin
+ * esperar a que falle el INSERT.
+ *
+ * - Se carga completo antes de que la aplicacion empiece a recibir peticiones
+ * - Se mantiene con StudentChangeEvent, despues de cada commit
+ *
+ * Entre el commit de un estudiante y la actualizacion del indice hay una ventana
+ * muy corta: la restriccion unique sigue siendo la garantia final y
+ * StudentService la traduce tambien a DuplicateDniException.
+ */
+@Component
+public class StudentDniIndex implements SmartInitializingSingleton, MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentDniIndex.class);
+
+    private final boolean enabled;
+    private final Map<String, Long> idsByDni = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    public StudentDniIndex(@Value("${student.dni-index.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Carga todos los DNI con una sola consulta de dos columnas antes de recibir peticiones
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        reload();
+    }
+
+    /**
+     * Vuelve a cargar el indice desde la base de datos (por ejemplo, despues de restaurar un snapshot).
+     * Mientras se carga, ownerOf devuelve null y la restriccion unique es la unica verificacion.
+     */
+    public synchronized void reload() {
+        if (!enabled) {
+            return;
+        }
+        ready = false;
+        idsByDni.clear();
+        long start = System.nanoTime();
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        // Con replicas de lectura el indice se carga desde la base principal (sin retraso de replicacion)
+        ReadYourWrites.runOnPrimary(() -> template.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = studentRepository.streamDniAndId()) {
+                rows.forEach(row -> idsByDni.put((String) row[0], (Long) row[1]));
+            }
+        }));
+        ready = true;
+        logger.info("Indice DNI: {} DNI cargados en {} ms", idsByDni.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * @return true si el indice esta habilitado y cargado; si no, las consultas
+     *         deben resolverse contra la base de datos
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @param dni DNI a buscar
+     * @return ID del estudiante que usa el DNI, o null si no esta registrado (o el indice no esta listo)
+     */
+    public Long ownerOf(String dni) {
+        return ready && dni != null ? idsByDni.get(dni) : null;
+    }
+
+    /**
+     * @param dni DNI a buscar
+     * @return true si el DNI ya esta registrado segun el indice
+     */
+    public boolean contains(String dni) {
+        return ownerOf(dni) != null;
+    }
+
+    /**
+     * Mantiene el indice sincronizado con cada mutacion confirmada
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentChange(StudentChangeEvent event) {
+        if (!enabled) {
+            return;
+        }
+        // DNI cambiado, eliminado o archivado: se quita por clave, solo si sigue siendo de este ID
+        if (event.getPreviousDni() != null) {
+            idsByDni.remove(event.getPreviousDni(), event.getId());
+        }
+        Student student = event.getStudent();
+        if (student != null && student.getDni() != null) {
+            idsByDni.put(student.getDni(), student.getId());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("student.dni.index.size", idsByDni, Map::size)
+                .description("DNI registrados en el indice en memoria")
+                .register(registry);
+    }
+}
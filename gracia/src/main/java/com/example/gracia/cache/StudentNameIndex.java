@@ -0,0 +1,499 @@
+package com.example.gracia.cache;
+
+import com.example.gracia.config.ReadYourWrites;
+import com.example.gracia.event.StudentChangeEvent;
+import com.example.gracia.model.Student;
+import com.example.gracia.repository.StudentRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * INDICE EN MEMORIA DE TRIGRAMAS (BUSQUEDA APROXIMADA POR NOMBRE Y DNI)
+ *
+ * Cada estudiante se indexa por los trigramas de sus nombres, apellidos y DNI
+ * (en minusculas, sin acentos, cada palabra con un espacio antes y despues:
+ * "garcia" -> " ga", "gar", "arc", "rci", "cia", "ia "). Una busqueda cuenta, con las
+ * listas de trigramas de la consulta, cuantos comparte cada estudiante y devuelve
+ * los de mayor puntaje, sin recorrer la tabla ni usar LIKE '%x%'.
+ *
+ * - La ultima palabra de la consulta se toma como prefijo (busqueda mientras se escribe)
+ * - Tolera errores de tipeo: basta con compartir "student.name-index.min-coverage" de los trigramas
+ * - Puntaje: proporcion de trigramas de la consulta encontrados (80%), palabras de la
+ *   consulta con las que empieza alguna palabra del estudiante (10%, ordena primero
+ *   los prefijos exactos, por ejemplo de DNI) y textos mas cortos (10%)
+ *
+ * Estructura: cada estudiante ocupa una posicion (slot) en arreglos paralelos y cada
+ * trigrama tiene una lista de slots. Un cambio ocupa un slot nuevo y deja el anterior
+ * vacio; cuando los slots vacios superan a los vigentes se reconstruyen las listas.
+ *
+ * - Se carga completo antes de que la aplicacion empiece a recibir peticiones
+ * - Se mantiene con StudentChangeEvent, despues de cada commit
+ */
+@Component
+public class StudentNameIndex implements SmartInitializingSingleton, MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentNameIndex.class);
+
+    /** Simbolos indexados: espacio, a-z y 0-9 */
+    private static final int ALPHABET = 37;
+    private static final int MAX_QUERY_LENGTH = 64;
+    private static final int MIN_COMPACT_SLOTS = 10_000;
+    /** Arreglos de trabajo de cada hilo para contar trigramas compartidos (se reutilizan entre busquedas) */
+    private static final ThreadLocal<Candidates> SCRATCH = ThreadLocal.withInitial(Candidates::new);
+
+    private final boolean enabled;
+    private final double minCoverage;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> slotById = new HashMap<>();
+    private final IntList[] postings = new IntList[ALPHABET * ALPHABET * ALPHABET];
+    private long[] ids = new long[1024];
+    private int[] gramCounts = new int[1024];
+    private String[] texts = new String[1024];
+    private boolean[] active = new boolean[1024];
+    private int slots;
+    private volatile boolean ready;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    public StudentNameIndex(@Value("${student.name-index.enabled:true}") boolean enabled,
+                            @Value("${student.name-index.min-coverage:0.4}") double minCoverage) {
+        this.enabled = enabled;
+        this.minCoverage = minCoverage;
+    }
+
+    /**
+     * Carga nombres y DNI con una sola consulta antes de recibir peticiones
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        reload();
+    }
+
+    /**
+     * Vuelve a cargar el indice desde la base de datos (por ejemplo, despues de restaurar un snapshot).
+     * Mientras se carga, isReady devuelve false.
+     */
+    public void reload() {
+        if (!enabled) {
+            return;
+        }
+        ready = false;
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            clear();
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+            template.setReadOnly(true);
+            ReadYourWrites.runOnPrimary(() -> template.executeWithoutResult(status -> {
+                try (Stream<Object[]> rows = studentRepository.streamNameIndexRows()) {
+                    rows.forEach(row -> add((Long) row[0], (String) row[1], (String) row[2], (String) row[3],
+                            (Boolean) row[4]));
+                }
+            }));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+        logger.info("Indice de nombres: {} estudiantes indexados en {} ms", slotById.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * @return true si el indice esta habilitado y cargado
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Busca estudiantes por nombre, apellido o DNI aproximados
+     * @param query texto buscado (se usan los primeros 64 caracteres)
+     * @param limit cantidad maxima de resultados
+     * @param includeInactive true para incluir estudiantes eliminados logicamente
+     * @return coincidencias de mayor a menor puntaje (vacia si la consulta no tiene al menos 2 caracteres utiles)
+     */
+    public List<Match> search(String query, int limit, boolean includeInactive) {
+        String normalized = normalize(query.length() > MAX_QUERY_LENGTH ? query.substring(0, MAX_QUERY_LENGTH) : query);
+        int[] queryGrams = trigrams(normalized, true);
+        if (queryGrams.length == 0 || limit <= 0) {
+            return List.of();
+        }
+        String[] words = normalized.trim().split(" +");
+        for (int i = 0; i < words.length; i++) {
+            words[i] = " " + words[i];
+        }
+        int minMatches = Math.max(1, (int) Math.ceil(queryGrams.length * minCoverage));
+        PriorityQueue<Match> top = new PriorityQueue<>(limit + 1, Match.BY_SCORE);
+        lock.readLock().lock();
+        try {
+            Candidates candidates = candidates(queryGrams, minMatches);
+            double minScore = 0;
+            for (int c = 0; c < candidates.size; c++) {
+                int slot = candidates.slots[c];
+                int matches = candidates.counts[c];
+                if (matches < minMatches || gramCounts[slot] == 0 || (!includeInactive && !active[slot])) {
+                    continue;
+                }
+                double score = 0.8 * matches / queryGrams.length + 0.1 * matches / gramCounts[slot];
+                // La parte de prefijos suma como maximo 0.1: si ni asi entra, no se calcula
+                if (top.size() == limit && score + 0.1 < minScore) {
+                    continue;
+                }
+                score += 0.1 * prefixRatio(texts[slot], words);
+                if (top.size() < limit) {
+                    top.add(new Match(ids[slot], score));
+                } else if (score > minScore || (score == minScore && ids[slot] < top.peek().getId())) {
+                    top.poll();
+                    top.add(new Match(ids[slot], score));
+                } else {
+                    continue;
+                }
+                minScore = top.peek().getScore();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Match> result = new ArrayList<>(top);
+        result.sort(Match.BY_SCORE.reversed());
+        return result;
+    }
+
+    /**
+     * Cuenta los trigramas compartidos solo para los slots que pueden llegar a minMatches, empezando por
+     * los trigramas mas raros: un slot con minMatches de los n trigramas aparece en al menos una de las
+     * n - minMatches + 1 listas mas cortas. Esas listas forman los candidatos; las demas (las mas largas)
+     * solo se consultan con busqueda binaria, y un candidato que ya no puede llegar a minMatches se descarta.
+     * Usa los arreglos del hilo (sin asignar memoria por tecla). Se llama con el lock de lectura tomado.
+     * @return candidatos ordenados por slot y su cantidad de trigramas compartidos
+     */
+    private Candidates candidates(int[] queryGrams, int minMatches) {
+        IntList[] lists = new IntList[queryGrams.length];
+        int found = 0;
+        for (int gram : queryGrams) {
+            IntList posting = postings[gram];
+            if (posting != null && posting.size > 0) {
+                lists[found++] = posting;
+            }
+        }
+        Candidates candidates = SCRATCH.get();
+        candidates.size = 0;
+        // Trigramas sin lista no suman: con los restantes tiene que alcanzar minMatches
+        int seeds = found - minMatches + 1;
+        if (seeds <= 0) {
+            return candidates;
+        }
+        Arrays.sort(lists, 0, found, Comparator.comparingInt(list -> list.size));
+        int total = 0;
+        for (int i = 0; i < seeds; i++) {
+            total += lists[i].size;
+        }
+        candidates.ensureCapacity(total);
+        for (int i = 0; i < seeds; i++) {
+            System.arraycopy(lists[i].values, 0, candidates.slots, candidates.size, lists[i].size);
+            candidates.size += lists[i].size;
+        }
+        Arrays.sort(candidates.slots, 0, candidates.size);
+        int distinct = 0;
+        for (int i = 0; i < candidates.size; i++) {
+            if (distinct > 0 && candidates.slots[distinct - 1] == candidates.slots[i]) {
+                candidates.counts[distinct - 1]++;
+            } else {
+                candidates.slots[distinct] = candidates.slots[i];
+                candidates.counts[distinct++] = 1;
+            }
+        }
+        candidates.size = distinct;
+        for (int i = seeds; i < found && candidates.size > 0; i++) {
+            IntList posting = lists[i];
+            int remaining = found - i - 1;
+            int from = 0;
+            int kept = 0;
+            for (int c = 0; c < candidates.size; c++) {
+                int slot = candidates.slots[c];
+                int count = candidates.counts[c];
+                // Los candidatos estan ordenados: la busqueda sigue desde la posicion anterior
+                int at = Arrays.binarySearch(posting.values, from, posting.size, slot);
+                if (at >= 0) {
+                    count++;
+                    from = at + 1;
+                } else {
+                    from = -at - 1;
+                }
+                if (count + remaining >= minMatches) {
+                    candidates.slots[kept] = slot;
+                    candidates.counts[kept++] = count;
+                }
+            }
+            candidates.size = kept;
+        }
+        return candidates;
+    }
+
+    /**
+     * Mantiene el indice sincronizado con cada mutacion confirmada
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentChange(StudentChangeEvent event) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Student student = event.getStudent();
+            if (student != null) {
+                remove(event.getId());
+                add(student.getId(), student.getDni(), student.getFirstName(), student.getLastName(),
+                        Boolean.TRUE.equals(student.getActive()));
+            } else if (event.isRemoval()) {
+                remove(event.getId());
+            } else {
+                // UPDATE directo (eliminacion logica o restauracion): solo cambia el estado
+                Integer slot = slotById.get(event.getId());
+                if (slot != null) {
+                    active[slot] = event.getType() == StudentChangeEvent.Type.RESTORED;
+                }
+            }
+            if (slots - slotById.size() > Math.max(slotById.size(), MIN_COMPACT_SLOTS)) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("student.name_index.size", this, index -> index.slotById.size())
+                .description("Estudiantes en el indice de nombres")
+                .register(registry);
+    }
+
+    private void add(Long id, String dni, String firstName, String lastName, boolean isActive) {
+        String text = " " + normalize(firstName + " " + lastName + " " + dni).trim().replaceAll(" +", " ");
+        int[] studentGrams = trigrams(text, false);
+        if (slots == ids.length) {
+            int capacity = slots * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            gramCounts = Arrays.copyOf(gramCounts, capacity);
+            texts = Arrays.copyOf(texts, capacity);
+            active = Arrays.copyOf(active, capacity);
+        }
+        int slot = slots++;
+        ids[slot] = id;
+        gramCounts[slot] = studentGrams.length;
+        texts[slot] = text;
+        active[slot] = isActive;
+        slotById.put(id, slot);
+        index(slot, studentGrams);
+    }
+
+    private void remove(Long id) {
+        Integer slot = slotById.remove(id);
+        if (slot != null) {
+            gramCounts[slot] = 0;
+            texts[slot] = null;
+        }
+    }
+
+    private void index(int slot, int[] studentGrams) {
+        for (int gram : studentGrams) {
+            IntList posting = postings[gram];
+            if (posting == null) {
+                posting = new IntList(4);
+                postings[gram] = posting;
+            }
+            posting.add(slot);
+        }
+    }
+
+    /**
+     * Reubica los estudiantes vigentes en slots consecutivos y reconstruye las listas de trigramas
+     */
+    private void compact() {
+        long start = System.nanoTime();
+        int live = 0;
+        Arrays.fill(postings, null);
+        for (int slot = 0; slot < slots; slot++) {
+            if (texts[slot] == null) {
+                continue;
+            }
+            ids[live] = ids[slot];
+            gramCounts[live] = gramCounts[slot];
+            texts[live] = texts[slot];
+            active[live] = active[slot];
+            slotById.put(ids[live], live);
+            index(live, trigrams(texts[live], false));
+            live++;
+        }
+        Arrays.fill(gramCounts, live, slots, 0);
+        Arrays.fill(texts, live, slots, null);
+        slots = live;
+        logger.info("Indice de nombres: {} estudiantes reindexados en {} ms", live, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void clear() {
+        slotById.clear();
+        Arrays.fill(postings, null);
+        Arrays.fill(gramCounts, 0);
+        Arrays.fill(texts, null);
+        slots = 0;
+    }
+
+    /**
+     * @param text texto normalizado del estudiante (palabras separadas por un espacio, con uno al inicio)
+     * @param queryWords palabras de la consulta, cada una con un espacio al inicio
+     * @return proporcion de palabras de la consulta con las que empieza alguna palabra del texto
+     */
+    private static double prefixRatio(String text, String[] queryWords) {
+        int found = 0;
+        for (String word : queryWords) {
+            if (text.contains(word)) {
+                found++;
+            }
+        }
+        return (double) found / queryWords.length;
+    }
+
+    /**
+     * Minusculas sin acentos; todo lo que no sea letra o digito pasa a ser espacio
+     */
+    static String normalize(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder normalized = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = Character.toLowerCase(decomposed.charAt(i));
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                normalized.append(c);
+            } else if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                normalized.append(' ');
+            }
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Trigramas distintos del texto normalizado, con cada palabra rodeada de espacios
+     * @param prefix true para no cerrar la ultima palabra (se busca como prefijo)
+     */
+    static int[] trigrams(String normalized, boolean prefix) {
+        String[] words = normalized.trim().split(" +");
+        int[] codes = new int[normalized.length() + 2 * words.length];
+        int count = 0;
+        for (int w = 0; w < words.length; w++) {
+            String word = words[w];
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = " " + word + (prefix && w == words.length - 1 ? "" : " ");
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                codes[count++] = (symbol(padded.charAt(i)) * ALPHABET + symbol(padded.charAt(i + 1))) * ALPHABET
+                        + symbol(padded.charAt(i + 2));
+            }
+        }
+        int[] sorted = Arrays.copyOf(codes, count);
+        Arrays.sort(sorted);
+        int distinct = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[distinct++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, distinct);
+    }
+
+    private static int symbol(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 1;
+        }
+        if (c >= '0' && c <= '9') {
+            return c - '0' + 27;
+        }
+        return 0;
+    }
+
+    /**
+     * Estudiante encontrado y su puntaje (0 a 1)
+     */
+    public static final class Match {
+
+        /** Menor puntaje primero; a igual puntaje, mayor ID primero (gana el ID menor) */
+        static final Comparator<Match> BY_SCORE = Comparator.comparingDouble(Match::getScore)
+                .thenComparing(Match::getId, Comparator.reverseOrder());
+
+        private final long id;
+        private final double score;
+
+        Match(long id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+
+    /**
+     * Slots candidatos de una busqueda y la cantidad de trigramas de la consulta que comparte cada uno
+     */
+    private static final class Candidates {
+        private int[] slots = new int[256];
+        private int[] counts = new int[256];
+        private int size;
+
+        void ensureCapacity(int capacity) {
+            if (slots.length < capacity) {
+                slots = new int[Math.max(capacity, slots.length * 2)];
+                counts = new int[slots.length];
+            }
+        }
+    }
+
+    /**
+     * Lista creciente de enteros sin boxing (listas de slots por trigrama)
+     */
+    private static final class IntList {
+        private int[] values;
+        private int size;
+
+        IntList(int capacity) {
+            this.values = new int[capacity];
+        }
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
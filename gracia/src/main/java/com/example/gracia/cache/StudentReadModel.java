@@ -0,0 +1,496 @@
+package com.example.gracia.cache;
+
+import com.example.gracia.config.ReadYourWrites;
+import com.example.gracia.event.StudentChangeEvent;
+import com.example.gracia.model.Student;
+import com.example.gracia.repository.StudentRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * MODELO DE LECTURA EN MEMORIA (LISTADOS COMPLETOS)
+ *
+ * Copia inmutable de todos los estudiantes guardada por columnas (arreglos de
+ * primitivos y de String ordenados por ID), sin entidades. GET / y /all se
+ * responden desde aqui, sin consultar la base de datos:
+ * - el ETag es el numero de version (que solo crece) precedido por un identificador de
+ *   esta instancia, para que no se repita despues de un reinicio
+ * - el JSON de cada listado se serializa una sola vez por version y se reutiliza
+ *
+ * Actualizacion (copy-on-write):
+ * - cada StudentChangeEvent confirmado se anota en un mapa de cambios pendientes
+ * - un hilo de fondo combina la version publicada con los pendientes en una sola pasada
+ *   "student.read-model.merge-delay" despues del primer cambio; los cambios que llegan en
+ *   ese intervalo (por ejemplo, una importacion masiva) generan una sola reconstruccion
+ *   y ninguna peticion paga la combinacion
+ * - las peticiones que deben ver sus propias escrituras (ReadYourWrites) combinan en el
+ *   momento; con merge-delay=0 lo hace siempre la primera lectura despues de un cambio
+ * - los lectores solo leen un campo volatile (sin bloqueos)
+ *
+ * Una recarga (reload) conserva los cambios que llegan mientras se leen las filas y los
+ * vuelve a aplicar sobre la carga nueva.
+ *
+ * Se activa con student.read-model.enabled=true.
+ */
+@Component
+public class StudentReadModel implements SmartInitializingSingleton, MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentReadModel.class);
+
+    /** Identifica esta instancia en el ETag: la numeracion de versiones empieza de nuevo al reiniciar */
+    private static final String INSTANCE = Long.toString(System.currentTimeMillis(), 36);
+
+    /** Marca de estudiante eliminado fisicamente en los cambios pendientes */
+    private static final Row DELETED = new Row(0, 0, null, null, null, 0, null, false);
+
+    private final boolean enabled;
+    private final long mergeDelayMillis;
+    private final ScheduledExecutorService merger;
+    private final Map<Long, Change> pending = new TreeMap<>();
+    private boolean mergeScheduled;
+    private volatile long writeVersion;
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public StudentReadModel(@Value("${student.read-model.enabled:false}") boolean enabled,
+                            @Value("${student.read-model.merge-delay:50ms}") Duration mergeDelay) {
+        this.enabled = enabled;
+        this.mergeDelayMillis = mergeDelay.toMillis();
+        this.merger = enabled && mergeDelayMillis > 0 ? Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "student-read-model");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    /**
+     * Carga todos los estudiantes antes de recibir peticiones
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        reload();
+    }
+
+    /**
+     * @return true si los listados deben responderse desde el modelo de lectura
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Vuelve a cargar el modelo desde la base de datos (por ejemplo, despues de restaurar un snapshot)
+     */
+    public void reload() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        long loadedVersion;
+        synchronized (pending) {
+            loadedVersion = writeVersion;
+        }
+        List<Row> rows = new ArrayList<>();
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        ReadYourWrites.runOnPrimary(() -> template.executeWithoutResult(status -> {
+            try (Stream<Student> students = studentRepository.streamAll()) {
+                students.forEach(student -> {
+                    rows.add(Row.of(student));
+                    entityManager.detach(student);
+                });
+            }
+        }));
+        synchronized (pending) {
+            // Los cambios anotados antes de empezar ya estan en las filas leidas; los posteriores
+            // pueden no estarlo y se vuelven a aplicar (cada uno es la fila completa, aplicarlo otra vez no cambia nada)
+            pending.values().removeIf(change -> change.stamp <= loadedVersion);
+            long version = ++writeVersion;
+            Snapshot loaded = Snapshot.build(version, rows);
+            snapshot = pending.isEmpty() ? loaded : loaded.merge(version, pending);
+            pending.clear();
+        }
+        logger.info("Modelo de lectura: {} estudiantes cargados en {} ms", rows.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * @return version vigente; si hay cambios pendientes se publica primero una nueva version
+     */
+    public Snapshot current() {
+        Snapshot current = snapshot;
+        if (current.version == writeVersion || (merger != null && !ReadYourWrites.isPrimaryRequired())) {
+            return current;
+        }
+        synchronized (pending) {
+            publish();
+            return snapshot;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (merger != null) {
+            merger.shutdownNow();
+        }
+    }
+
+    /**
+     * Publica una version con los cambios pendientes (con el bloqueo de pending tomado)
+     */
+    private void publish() {
+        if (snapshot.version != writeVersion) {
+            snapshot = snapshot.merge(writeVersion, pending);
+            pending.clear();
+        }
+    }
+
+    private void mergeScheduled() {
+        synchronized (pending) {
+            mergeScheduled = false;
+            publish();
+        }
+    }
+
+    /**
+     * Anota cada mutacion confirmada; se aplica en la siguiente combinacion
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentChange(StudentChangeEvent event) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (pending) {
+            Student student = event.getStudent();
+            Row row;
+            if (student != null) {
+                row = Row.of(student);
+            } else if (event.isRemoval()) {
+                row = DELETED;
+            } else {
+                // UPDATE directo (eliminacion logica o restauracion): cambia estado, fecha y version
+                Change change = pending.get(event.getId());
+                Row previous = change != null ? change.row : snapshot.row(event.getId());
+                if (previous == null || previous == DELETED) {
+                    return;
+                }
+                boolean active = event.getType() == StudentChangeEvent.Type.RESTORED;
+                LocalDateTime date = event.getChangedAt() != null ? event.getChangedAt() : LocalDateTime.now();
+                row = previous.withState(active, date);
+            }
+            long version = ++writeVersion;
+            pending.put(event.getId(), new Change(row, version));
+            if (merger != null && !mergeScheduled) {
+                mergeScheduled = true;
+                merger.schedule(this::mergeScheduled, mergeDelayMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("student.read_model.size", this, model -> model.snapshot.size)
+                .description("Estudiantes en la version publicada del modelo de lectura")
+                .register(registry);
+        Gauge.builder("student.read_model.version", this, model -> model.snapshot.version)
+                .description("Version publicada del modelo de lectura")
+                .register(registry);
+    }
+
+    /**
+     * @param includeInactive true para el listado completo, false para solo activos
+     * @return JSON del listado en la version vigente (se serializa una vez por version)
+     */
+    public byte[] json(boolean includeInactive) {
+        return current().json(includeInactive, objectMapper);
+    }
+
+    /**
+     * Fila de un estudiante (solo para cambios pendientes y la carga inicial)
+     */
+    private record Row(long id, long version, String dni, String firstName, String lastName,
+                       int promotion, LocalDateTime date, boolean active) {
+
+        static Row of(Student student) {
+            LocalDateTime date = student.getDate() != null ? toColumnPrecision(student.getDate()) : null;
+            return new Row(student.getId(), student.getVersion() != null ? student.getVersion() : 0,
+                    student.getDni(), student.getFirstName(), student.getLastName(),
+                    student.getPromotion() != null ? student.getPromotion() : 0, date,
+                    Boolean.TRUE.equals(student.getActive()));
+        }
+
+        Row withState(boolean active, LocalDateTime date) {
+            return new Row(id, version + 1, dni, firstName, lastName, promotion, toColumnPrecision(date), active);
+        }
+
+        /**
+         * La columna date guarda microsegundos y la base de datos redondea los nanosegundos
+         */
+        static LocalDateTime toColumnPrecision(LocalDateTime date) {
+            return date.plusNanos(500).truncatedTo(ChronoUnit.MICROS);
+        }
+    }
+
+    /**
+     * Cambio pendiente: fila nueva (o DELETED) y writeVersion en que se anoto
+     */
+    private record Change(Row row, long stamp) {
+    }
+
+    /**
+     * Version inmutable del modelo: una columna por campo, ordenadas por ID
+     */
+    public static final class Snapshot {
+
+        static final Snapshot EMPTY = build(0, List.of());
+
+        private final long version;
+        private final int size;
+        private final long[] ids;
+        private final long[] versions;
+        private final String[] dnis;
+        private final String[] firstNames;
+        private final String[] lastNames;
+        private final int[] promotions;
+        private final long[] dateSeconds;
+        private final int[] dateNanos;
+        private final boolean[] active;
+        private final String etag;
+        private volatile byte[] jsonActive;
+        private volatile byte[] jsonAll;
+
+        private Snapshot(long version, int size) {
+            this.version = version;
+            this.size = size;
+            this.ids = new long[size];
+            this.versions = new long[size];
+            this.dnis = new String[size];
+            this.firstNames = new String[size];
+            this.lastNames = new String[size];
+            this.promotions = new int[size];
+            this.dateSeconds = new long[size];
+            this.dateNanos = new int[size];
+            this.active = new boolean[size];
+            this.etag = null;
+        }
+
+        private Snapshot(Snapshot columns) {
+            this.version = columns.version;
+            this.size = columns.size;
+            this.ids = columns.ids;
+            this.versions = columns.versions;
+            this.dnis = columns.dnis;
+            this.firstNames = columns.firstNames;
+            this.lastNames = columns.lastNames;
+            this.promotions = columns.promotions;
+            this.dateSeconds = columns.dateSeconds;
+            this.dateNanos = columns.dateNanos;
+            this.active = columns.active;
+            this.etag = "W/\"m" + INSTANCE + "-" + version + "\"";
+        }
+
+        static Snapshot build(long version, List<Row> rows) {
+            List<Row> sorted = new ArrayList<>(rows);
+            sorted.sort((a, b) -> Long.compare(a.id, b.id));
+            Snapshot columns = new Snapshot(version, sorted.size());
+            for (int i = 0; i < sorted.size(); i++) {
+                columns.set(i, sorted.get(i));
+            }
+            return new Snapshot(columns);
+        }
+
+        /**
+         * Combina esta version con los cambios pendientes (ordenados por ID) en una sola pasada
+         */
+        Snapshot merge(long newVersion, Map<Long, Change> changes) {
+            int newSize = size;
+            for (Map.Entry<Long, Change> change : changes.entrySet()) {
+                boolean exists = Arrays.binarySearch(ids, 0, size, change.getKey()) >= 0;
+                if (change.getValue().row == DELETED) {
+                    newSize -= exists ? 1 : 0;
+                } else {
+                    newSize += exists ? 0 : 1;
+                }
+            }
+            Snapshot columns = new Snapshot(newVersion, newSize);
+            int written = 0;
+            int i = 0;
+            for (Map.Entry<Long, Change> change : changes.entrySet()) {
+                long id = change.getKey();
+                while (i < size && ids[i] < id) {
+                    columns.copy(written++, this, i++);
+                }
+                if (i < size && ids[i] == id) {
+                    i++;
+                }
+                Row row = change.getValue().row;
+                if (row != DELETED) {
+                    columns.set(written++, row);
+                }
+            }
+            while (i < size) {
+                columns.copy(written++, this, i++);
+            }
+            return new Snapshot(columns);
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /**
+         * @param includeInactive true para el listado completo, false para solo activos
+         * @return ETag debil del listado; cambia con cada version (ambos listados comparten el valor)
+         */
+        public String etag(boolean includeInactive) {
+            return etag;
+        }
+
+        /**
+         * Crea estudiantes (no gestionados por JPA) para los formatos que no son JSON
+         * @param includeInactive true para incluir estudiantes inactivos
+         * @return estudiantes ordenados por ID
+         */
+        public List<Student> toStudents(boolean includeInactive) {
+            List<Student> students = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                if (includeInactive || active[i]) {
+                    Student student = new Student(dnis[i], firstNames[i], lastNames[i], promotions[i], date(i));
+                    student.setId(ids[i]);
+                    student.setVersion(versions[i]);
+                    student.setActive(active[i]);
+                    students.add(student);
+                }
+            }
+            return students;
+        }
+
+        byte[] json(boolean includeInactive, ObjectMapper objectMapper) {
+            byte[] json = includeInactive ? jsonAll : jsonActive;
+            if (json == null) {
+                json = serialize(includeInactive, objectMapper);
+                if (includeInactive) {
+                    jsonAll = json;
+                } else {
+                    jsonActive = json;
+                }
+            }
+            return json;
+        }
+
+        /**
+         * Escribe el listado con los mismos campos y en el mismo orden que la entidad Student
+         */
+        private byte[] serialize(boolean includeInactive, ObjectMapper objectMapper) {
+            ByteArrayOutputStream output = new ByteArrayOutputStream(Math.max(2, size * 160));
+            try (JsonGenerator generator = objectMapper.createGenerator(output)) {
+                generator.writeStartArray();
+                for (int i = 0; i < size; i++) {
+                    if (!includeInactive && !active[i]) {
+                        continue;
+                    }
+                    generator.writeStartObject();
+                    generator.writeStringProperty("dni", dnis[i]);
+                    generator.writeStringProperty("firstName", firstNames[i]);
+                    generator.writeStringProperty("lastName", lastNames[i]);
+                    generator.writeNumberProperty("promotion", promotions[i]);
+                    LocalDateTime date = date(i);
+                    if (date != null) {
+                        generator.writeStringProperty("date", DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(date));
+                    } else {
+                        generator.writeNullProperty("date");
+                    }
+                    generator.writeBooleanProperty("active", active[i]);
+                    generator.writeNumberProperty("id", ids[i]);
+                    generator.writeNumberProperty("version", versions[i]);
+                    generator.writeEndObject();
+                }
+                generator.writeEndArray();
+            }
+            return output.toByteArray();
+        }
+
+        Row row(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return null;
+            }
+            return new Row(ids[index], versions[index], dnis[index], firstNames[index], lastNames[index],
+                    promotions[index], date(index), active[index]);
+        }
+
+        private LocalDateTime date(int i) {
+            return dateSeconds[i] == Long.MIN_VALUE ? null
+                    : LocalDateTime.ofEpochSecond(dateSeconds[i], dateNanos[i], ZoneOffset.UTC);
+        }
+
+        private void set(int i, Row row) {
+            ids[i] = row.id;
+            versions[i] = row.version;
+            dnis[i] = row.dni;
+            firstNames[i] = row.firstName;
+            lastNames[i] = row.lastName;
+            promotions[i] = row.promotion;
+            dateSeconds[i] = row.date != null ? row.date.toEpochSecond(ZoneOffset.UTC) : Long.MIN_VALUE;
+            dateNanos[i] = row.date != null ? row.date.getNano() : 0;
+            active[i] = row.active;
+        }
+
+        private void copy(int i, Snapshot source, int j) {
+            ids[i] = source.ids[j];
+            versions[i] = source.versions[j];
+            dnis[i] = source.dnis[j];
+            firstNames[i] = source.firstNames[j];
+            lastNames[i] = source.lastNames[j];
+            promotions[i] = source.promotions[j];
+            dateSeconds[i] = source.dateSeconds[j];
+            dateNanos[i] = source.dateNanos[j];
+            active[i] = source.active[j];
+        }
+    }
+}
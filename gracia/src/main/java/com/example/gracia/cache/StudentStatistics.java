@@ -0,0 +1,178 @@
+package com.example.gracia.cache;
+
+import com.example.gracia.config.ReadYourWrites;
+import com.example.gracia.dto.StudentStats;
+import com.example.gracia.event.StudentChangeEvent;
+import com.example.gracia.model.Student;
+import com.example.gracia.repository.StudentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * ESTADISTICAS DE ESTUDIANTES EN MEMORIA
+ *
+ * Mantiene los conteos por estado (activo/inactivo), por promocion y por dia
+ * del campo date, para responder GET /stats sin recorrer la tabla.
+ *
+ * - Se cargan antes de que la aplicacion empiece a recibir peticiones con una consulta
+ *   GROUP BY (promocion, activo, dia): una fila por grupo, no una por estudiante
+ * - Se actualizan con StudentChangeEvent, despues de cada commit: el evento trae el
+ *   estado anterior (StudentChangeEvent.State) para restar del grupo anterior y el
+ *   estudiante (o la fecha de la sentencia UPDATE) para sumar al nuevo; no se guarda
+ *   nada por ID
+ * - Un evento que deberia traer el estado anterior y no lo trae provoca un recuento completo
+ *
+ * Los estudiantes sin fecha cuentan por estado y promocion, pero no por dia.
+ * La respuesta se arma una sola vez por cambio y se reutiliza en cada lectura.
+ */
+@Component
+public class StudentStatistics implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentStatistics.class);
+
+    /** Conteos por promocion: [inactivos, activos] */
+    private final Map<Integer, long[]> byPromotion = new HashMap<>();
+    private final Map<LocalDate, long[]> byDay = new HashMap<>();
+    private long active;
+    private long inactive;
+    private volatile StudentStats snapshot;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Carga los conteos con una sola consulta agrupada antes de recibir peticiones
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        reload();
+    }
+
+    /**
+     * Vuelve a calcular los conteos desde la base de datos (por ejemplo, despues de restaurar un snapshot)
+     */
+    public synchronized void reload() {
+        long start = System.nanoTime();
+        byPromotion.clear();
+        byDay.clear();
+        active = 0;
+        inactive = 0;
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        List<Object[]> groups = new ArrayList<>();
+        ReadYourWrites.runOnPrimary(() -> groups.addAll(template.execute(status -> studentRepository.countByPromotionActiveAndDay())));
+        for (Object[] group : groups) {
+            count((Integer) group[0], Boolean.TRUE.equals(group[1]), (LocalDate) group[2], (Long) group[3]);
+        }
+        snapshot = null;
+        logger.info("Estadisticas: {} estudiantes contados ({} grupos) en {} ms", active + inactive, groups.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * @return conteos vigentes; se reutiliza la misma instancia hasta el siguiente cambio
+     */
+    public StudentStats stats() {
+        StudentStats current = snapshot;
+        if (current == null) {
+            current = buildSnapshot();
+        }
+        return current;
+    }
+
+    /**
+     * Mantiene los conteos sincronizados con cada mutacion confirmada
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onStudentChange(StudentChangeEvent event) {
+        StudentChangeEvent.State previous = event.getPrevious();
+        Student student = event.getStudent();
+        boolean needsPrevious = event.getType() == StudentChangeEvent.Type.UPDATED
+                || event.getType() == StudentChangeEvent.Type.SOFT_DELETED
+                || (event.getType() == StudentChangeEvent.Type.RESTORED && student == null);
+        if (previous == null && needsPrevious) {
+            logger.warn("Estadisticas: Evento {} sin estado anterior para ID: {}, se recuentan todos", event.getType(), event.getId());
+            reload();
+            return;
+        }
+        if (previous != null) {
+            count(previous, -1);
+        }
+        if (student != null) {
+            count(StudentChangeEvent.State.of(student), 1);
+        } else if (previous != null && !event.isRemoval()) {
+            // UPDATE directo (eliminacion logica o restauracion): cambia el estado y la fecha
+            boolean nowActive = event.getType() == StudentChangeEvent.Type.RESTORED;
+            LocalDateTime date = event.getChangedAt() != null ? event.getChangedAt() : LocalDateTime.now();
+            count(new StudentChangeEvent.State(previous.promotion(), date, nowActive), 1);
+        }
+        snapshot = null;
+    }
+
+    private synchronized StudentStats buildSnapshot() {
+        if (snapshot != null) {
+            return snapshot;
+        }
+        Map<Integer, Long> activeByPromotion = new TreeMap<>();
+        Map<Integer, Long> inactiveByPromotion = new TreeMap<>();
+        byPromotion.forEach((promotion, counts) -> {
+            if (counts[1] > 0) {
+                activeByPromotion.put(promotion, counts[1]);
+            }
+            if (counts[0] > 0) {
+                inactiveByPromotion.put(promotion, counts[0]);
+            }
+        });
+        Map<LocalDate, Long> days = new TreeMap<>();
+        byDay.forEach((day, count) -> days.put(day, count[0]));
+        StudentStats stats = new StudentStats(active, inactive,
+                Collections.unmodifiableMap(activeByPromotion),
+                Collections.unmodifiableMap(inactiveByPromotion),
+                Collections.unmodifiableMap(days));
+        snapshot = stats;
+        return stats;
+    }
+
+    private void count(StudentChangeEvent.State state, long delta) {
+        count(state.promotion(), state.active(), state.date() != null ? state.date().toLocalDate() : null, delta);
+    }
+
+    private void count(Integer promotion, boolean isActive, LocalDate day, long delta) {
+        int key = promotion != null ? promotion : 0;
+        long[] counts = byPromotion.computeIfAbsent(key, k -> new long[2]);
+        counts[isActive ? 1 : 0] += delta;
+        if (counts[0] == 0 && counts[1] == 0) {
+            byPromotion.remove(key);
+        }
+        if (day != null) {
+            long[] dayCount = byDay.computeIfAbsent(day, k -> new long[1]);
+            dayCount[0] += delta;
+            if (dayCount[0] == 0) {
+                byDay.remove(day);
+            }
+        }
+        if (isActive) {
+            active += delta;
+        } else {
+            inactive += delta;
+        }
+    }
+}
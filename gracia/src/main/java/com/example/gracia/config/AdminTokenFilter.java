@@ -0,0 +1,97 @@
+package com.example.gracia.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Protege las operaciones de administracion (restaurar un snapshot, archivar, trazar un estudiante)
+ *
+ * Las rutas de "student.admin.paths" ("METODO /ruta" o "/ruta" para cualquier metodo)
+ * exigen el encabezado "student.admin.token-header" con el valor de "student.admin.token".
+ * Sin token configurado (el valor por defecto) esas rutas quedan deshabilitadas y
+ * responden 403; con un token incorrecto o sin encabezado responden 401.
+ * El token se compara en tiempo constante.
+ *
+ * Se ejecuta antes que RateLimitFilter: una peticion rechazada aqui no consume presupuesto.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 200)
+public class AdminTokenFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminTokenFilter.class);
+
+    private final String tokenHeader;
+    private final byte[] token;
+    private final List<Route> routes = new ArrayList<>();
+
+    public AdminTokenFilter(@Value("${student.admin.token-header:X-Admin-Token}") String tokenHeader,
+                            @Value("${student.admin.token:}") String token,
+                            @Value("${student.admin.paths:}") List<String> paths) {
+        this.tokenHeader = tokenHeader;
+        this.token = token.isBlank() ? null : token.getBytes(StandardCharsets.UTF_8);
+        PathPatternParser parser = new PathPatternParser();
+        for (String entry : paths) {
+            String value = entry.trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+            int space = value.indexOf(' ');
+            String method = space > 0 ? value.substring(0, space) : null;
+            routes.add(new Route(method, parser.parse(value.substring(space + 1).trim())));
+        }
+        logger.info("Admin: {} rutas protegidas ({})", routes.size(), this.token == null ? "deshabilitadas, sin token" : "con token");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI());
+        for (Route route : routes) {
+            if ((route.method == null || route.method.equals(request.getMethod())) && route.pattern.matches(path)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (token == null) {
+            logger.warn("Admin: Operacion deshabilitada (sin student.admin.token) - {} {}", request.getMethod(), request.getRequestURI());
+            response.setStatus(HttpStatus.FORBIDDEN.value());
+            return;
+        }
+        String sent = request.getHeader(tokenHeader);
+        if (sent == null || !MessageDigest.isEqual(token, sent.getBytes(StandardCharsets.UTF_8))) {
+            logger.warn("Admin: Token invalido - {} {}", request.getMethod(), request.getRequestURI());
+            response.setStatus(HttpStatus.UNAUTHORIZED.value());
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    /**
+     * Ruta protegida: metodo HTTP opcional y patron de la ruta
+     */
+    private record Route(String method, PathPattern pattern) {
+    }
+}
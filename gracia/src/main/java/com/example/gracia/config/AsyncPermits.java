@@ -0,0 +1,74 @@
+package com.example.gracia.config;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Devuelve el permiso de un filtro cuando la peticion termina de verdad
+ *
+ * Las respuestas asincronas (StreamingResponseBody de /stream, /export/csv y /snapshot,
+ * SseEmitter) salen de chain.doFilter en cuanto el controlador devuelve, y el trabajo
+ * sigue en otro hilo. Liberar el permiso en ese momento dejaria entrar mas peticiones
+ * que el limite; en ese caso se libera al completar, fallar o vencer la peticion.
+ */
+final class AsyncPermits {
+
+    private AsyncPermits() {
+    }
+
+    /**
+     * Libera el permiso ahora, o al terminar la peticion si paso a modo asincrono.
+     * Llamar en el finally que rodea a chain.doFilter.
+     */
+    static void release(HttpServletRequest request, Semaphore permits) {
+        if (request.isAsyncStarted()) {
+            request.getAsyncContext().addListener(new ReleaseListener(permits));
+        } else {
+            permits.release();
+        }
+    }
+
+    /**
+     * Libera el permiso una sola vez, aunque lleguen onTimeout/onError y luego onComplete
+     */
+    private static final class ReleaseListener implements AsyncListener {
+
+        private final Semaphore permits;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        ReleaseListener(Semaphore permits) {
+            this.permits = permits;
+        }
+
+        private void releaseOnce() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            releaseOnce();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            releaseOnce();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            releaseOnce();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Un nuevo startAsync descarta los listeners anteriores: seguir escuchando el nuevo contexto
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.gracia.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limite de peticiones concurrentes hacia la API de estudiantes
+ *
+ * Con hilos virtuales (spring.threads.virtual.enabled=true) Tomcat ya no tiene
+ * un maximo de hilos: cada peticion recibe su propio hilo virtual. Sin un limite,
+ * una rafaga de peticiones esperaria en el pool de conexiones de Hikari hasta
+ * agotar su connection-timeout. Este filtro deja pasar como maximo
+ * "student.concurrency.max-concurrent" peticiones a la vez (por defecto el tamano
+ * del pool); el resto espera un permiso hasta "acquire-timeout" y luego recibe 503.
+ *
+ * Las respuestas asincronas (/stream, /export/csv, /snapshot) conservan su permiso hasta
+ * terminar (AsyncPermits). La suscripcion SSE (/events) no usa conexiones de la base
+ * mientras espera eventos y puede durar horas, asi que no pasa por este limite.
+ *
+ * Se activa por defecto junto con los hilos virtuales.
+ * Publica los permisos libres en el gauge student.concurrency.available.
+ */
+@Component
+@ConditionalOnProperty(name = "student.concurrency.limit-enabled", havingValue = "true")
+public class ConcurrencyLimitFilter extends OncePerRequestFilter implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+
+    private static final String EVENTS_PATH = "/v1/api/student/events";
+
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+
+    public ConcurrencyLimitFilter(@Value("${student.concurrency.max-concurrent}") int maxConcurrent,
+                                  @Value("${student.concurrency.acquire-timeout:2s}") Duration acquireTimeout) {
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        logger.info("Concurrencia: Limite de {} peticiones simultaneas (espera maxima {})", maxConcurrent, acquireTimeout);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return !uri.startsWith("/v1/api/") || uri.equals(EVENTS_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            logger.warn("Concurrencia: Peticion rechazada por saturacion - {} {}", request.getMethod(), request.getRequestURI());
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            AsyncPermits.release(request, permits);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("student.concurrency.available", permits, Semaphore::availablePermits)
+                .description("Peticiones adicionales que pueden entrar sin esperar")
+                .register(registry);
+    }
+
+    /**
+     * @return permisos libres en este momento (peticiones adicionales que pueden entrar sin esperar)
+     */
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+}
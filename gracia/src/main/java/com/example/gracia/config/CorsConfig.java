@@ -1,36 +1,48 @@
 package com.example.gracia.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
 
 import java.util.Arrays;
+import java.util.List;
 
 /**
  * Configuracion de CORS para permitir peticiones desde el frontend
+ * Se ejecuta antes que los limites de peticiones para que las respuestas 429/503
+ * tambien lleven los encabezados CORS y el navegador pueda leer Retry-After.
  */
 @Configuration
 public class CorsConfig {
 
     @Bean
-    public CorsFilter corsFilter() {
+    public FilterRegistrationBean<CorsFilter> corsFilter(@Value("${student.cors.allowed-origins:*}") List<String> allowedOrigins) {
         CorsConfiguration config = new CorsConfiguration();
         
-        // Permitir peticiones desde cualquier origen (para desarrollo)
+        // Origenes permitidos: "*" para desarrollo; en produccion, la lista de dominios del frontend
         config.setAllowCredentials(true);
-        config.addAllowedOriginPattern("*");
+        allowedOrigins.forEach(origin -> config.addAllowedOriginPattern(origin.trim()));
         
         // Permitir todos los headers
         config.addAllowedHeader("*");
         
+        // Headers de respuesta que el frontend puede leer
+        config.setExposedHeaders(Arrays.asList(HttpHeaders.ETAG, HttpHeaders.LOCATION, HttpHeaders.RETRY_AFTER));
+        
         // Permitir todos los metodos HTTP
         config.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS"));
         
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", config);
         
-        return new CorsFilter(source);
+        FilterRegistrationBean<CorsFilter> registration = new FilterRegistrationBean<>(new CorsFilter(source));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
     }
 }
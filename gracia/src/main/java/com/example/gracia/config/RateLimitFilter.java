@@ -0,0 +1,240 @@
+package com.example.gracia.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limite de peticiones por cliente (token bucket) y descarte por sobrecarga
+ *
+ * Cada cliente (su API key si esta en "student.rate-limit.api-keys", si no su IP) tiene
+ * dos presupuestos:
+ * - barato : lecturas por ID/DNI, paginas, GET / (ETag y modelo de lectura), escrituras individuales
+ * - caro   : /all, /stream, exportaciones, importaciones y snapshots
+ *            ("student.rate-limit.expensive-paths")
+ * Si el cliente agoto su presupuesto recibe 429 con Retry-After (segundos hasta el
+ * siguiente token). Ademas, como maximo "student.rate-limit.expensive.max-concurrent"
+ * peticiones caras se atienden a la vez entre todos los clientes; las demas reciben
+ * 503 con Retry-After de inmediato, sin esperar en cola.
+ *
+ * Cada bucket es un AtomicLong con el algoritmo GCRA (equivalente a un token bucket):
+ * guarda el instante teorico de la proxima peticion y se actualiza con un solo CAS.
+ * Los buckets viven en una cache Caffeine (concurrente y por segmentos) acotada por
+ * cantidad de clientes y que expira los clientes inactivos.
+ *
+ * Una API key desconocida se trata como si no hubiera encabezado: inventar claves no da
+ * presupuestos nuevos ni llena la cache de clientes. La IP es request.getRemoteAddr();
+ * detras de un proxy inverso depende de server.forward-headers-strategy (ver
+ * application.properties), o todos los clientes compartirian el bucket del proxy.
+ * Las peticiones caras asincronas (/stream, /export/csv, /snapshot) ocupan su permiso
+ * hasta que la respuesta termina (AsyncPermits).
+ *
+ * Se ejecuta antes que ConcurrencyLimitFilter para no ocupar permisos con peticiones
+ * que se van a rechazar. Metricas: student.rate_limit.rejected y student.rate_limit.clients.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 100)
+@ConditionalOnProperty(name = "student.rate-limit.enabled", havingValue = "true")
+public class RateLimitFilter extends OncePerRequestFilter implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private final String apiKeyHeader;
+    private final Set<String> apiKeys;
+    private final Budget cheap;
+    private final Budget expensive;
+    private final Semaphore expensiveInFlight;
+    private final List<Route> expensiveRoutes = new ArrayList<>();
+    private final Cache<String, Buckets> clients;
+    private volatile MeterRegistry registry;
+
+    public RateLimitFilter(@Value("${student.rate-limit.api-key-header:X-API-Key}") String apiKeyHeader,
+                           @Value("${student.rate-limit.api-keys:}") List<String> apiKeys,
+                           @Value("${student.rate-limit.cheap.rate:100}") double cheapRate,
+                           @Value("${student.rate-limit.cheap.burst:200}") int cheapBurst,
+                           @Value("${student.rate-limit.expensive.rate:2}") double expensiveRate,
+                           @Value("${student.rate-limit.expensive.burst:5}") int expensiveBurst,
+                           @Value("${student.rate-limit.expensive.max-concurrent:4}") int expensiveMaxConcurrent,
+                           @Value("${student.rate-limit.expensive-paths}") List<String> expensivePaths,
+                           @Value("${student.rate-limit.max-clients:100000}") long maxClients,
+                           @Value("${student.rate-limit.idle-timeout:10m}") Duration idleTimeout) {
+        this.apiKeyHeader = apiKeyHeader;
+        this.apiKeys = new HashSet<>();
+        for (String key : apiKeys) {
+            if (!key.isBlank()) {
+                this.apiKeys.add(key.trim());
+            }
+        }
+        this.cheap = new Budget("cheap", cheapRate, cheapBurst);
+        this.expensive = new Budget("expensive", expensiveRate, expensiveBurst);
+        this.expensiveInFlight = new Semaphore(expensiveMaxConcurrent);
+        PathPatternParser parser = new PathPatternParser();
+        for (String entry : expensivePaths) {
+            String value = entry.trim();
+            int space = value.indexOf(' ');
+            String method = space > 0 ? value.substring(0, space) : null;
+            expensiveRoutes.add(new Route(method, parser.parse(value.substring(space + 1).trim())));
+        }
+        this.clients = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(idleTimeout)
+                .build();
+        logger.info("Limite: {}/s (rafaga {}) baratas, {}/s (rafaga {}) caras por cliente, {} caras simultaneas, {} API keys",
+                cheapRate, cheapBurst, expensiveRate, expensiveBurst, expensiveMaxConcurrent, this.apiKeys.size());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/v1/api/") || "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean isExpensive = isExpensive(request);
+        Budget budget = isExpensive ? expensive : cheap;
+        Buckets buckets = clients.get(clientKey(request), key -> new Buckets());
+        long waitNanos = budget.tryConsume(isExpensive ? buckets.expensive : buckets.cheap, System.nanoTime());
+        if (waitNanos > 0) {
+            reject(request, response, HttpStatus.TOO_MANY_REQUESTS, budget.name, "client", waitNanos);
+            return;
+        }
+        if (!isExpensive) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (!expensiveInFlight.tryAcquire()) {
+            reject(request, response, HttpStatus.SERVICE_UNAVAILABLE, budget.name, "overload", TimeUnit.SECONDS.toNanos(1));
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            AsyncPermits.release(request, expensiveInFlight);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+        Gauge.builder("student.rate_limit.clients", clients, Cache::estimatedSize)
+                .description("Clientes con presupuesto de peticiones en memoria")
+                .register(registry);
+    }
+
+    private boolean isExpensive(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI());
+        for (Route route : expensiveRoutes) {
+            if ((route.method == null || route.method.equals(request.getMethod())) && route.pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return "key:" y la API key si esta configurada; si no (sin encabezado o clave desconocida) "ip:" y la IP
+     */
+    String clientKey(HttpServletRequest request) {
+        String apiKey = request.getHeader(apiKeyHeader);
+        if (apiKey != null && apiKeys.contains(apiKey.trim())) {
+            return "key:" + apiKey.trim();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    /**
+     * @return peticiones caras que pueden entrar ahora sin recibir 503
+     */
+    int availableExpensivePermits() {
+        return expensiveInFlight.availablePermits();
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, HttpStatus status,
+                        String budget, String reason, long waitNanos) {
+        long retryAfter = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+        logger.warn("Limite: Peticion rechazada ({} {}) - {} {}", budget, reason, request.getMethod(), request.getRequestURI());
+        MeterRegistry meters = registry;
+        if (meters != null) {
+            meters.counter("student.rate_limit.rejected", "class", budget, "reason", reason).increment();
+        }
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+    }
+
+    /**
+     * Ruta cara: metodo HTTP opcional y patron de la ruta
+     */
+    private record Route(String method, PathPattern pattern) {
+    }
+
+    /**
+     * Buckets de un cliente; cada uno guarda el instante teorico (nanoTime) de su proxima peticion
+     */
+    private static final class Buckets {
+        final AtomicLong cheap = new AtomicLong(Long.MIN_VALUE);
+        final AtomicLong expensive = new AtomicLong(Long.MIN_VALUE);
+    }
+
+    /**
+     * Presupuesto compartido por todos los buckets de una clase (tasa y rafaga)
+     */
+    private static final class Budget {
+        final String name;
+        final long intervalNanos;
+        final long toleranceNanos;
+
+        Budget(String name, double ratePerSecond, int burst) {
+            this.name = name;
+            this.intervalNanos = (long) (1_000_000_000L / ratePerSecond);
+            this.toleranceNanos = intervalNanos * (Math.max(1, burst) - 1);
+        }
+
+        /**
+         * Consume un token con CAS (GCRA)
+         * @return 0 si se consumio, o los nanosegundos hasta que haya un token disponible
+         */
+        long tryConsume(AtomicLong bucket, long now) {
+            while (true) {
+                long stored = bucket.get();
+                long arrival = stored == Long.MIN_VALUE || stored - now < 0 ? now : stored;
+                long wait = arrival - now - toleranceNanos;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (bucket.compareAndSet(stored, arrival + intervalNanos)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
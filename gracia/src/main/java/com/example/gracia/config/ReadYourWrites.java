@@ -0,0 +1,50 @@
+package com.example.gracia.config;
+
+/**
+ * Lectura de las propias escrituras (read-your-writes) con replicas de lectura
+ *
+ * Marca el hilo de la peticion actual para que sus lecturas vayan a la base
+ * principal en lugar de a una replica (que puede no tener todavia el cambio).
+ * ReadYourWritesFilter lo activa y lo limpia en cada peticion.
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    /**
+     * Envia las lecturas restantes del hilo actual a la base principal
+     */
+    public static void usePrimary() {
+        PRIMARY.set(Boolean.TRUE);
+    }
+
+    /**
+     * @return true si las lecturas del hilo actual deben ir a la base principal
+     */
+    public static boolean isPrimaryRequired() {
+        return PRIMARY.get() != null;
+    }
+
+    /**
+     * Ejecuta una tarea con sus lecturas en la base principal, restaurando despues el estado del hilo
+     * @param task tarea a ejecutar (por ejemplo, cargar un indice que debe ser exacto)
+     */
+    public static void runOnPrimary(Runnable task) {
+        boolean previous = isPrimaryRequired();
+        usePrimary();
+        try {
+            task.run();
+        } finally {
+            if (!previous) {
+                clear();
+            }
+        }
+    }
+
+    public static void clear() {
+        PRIMARY.remove();
+    }
+}
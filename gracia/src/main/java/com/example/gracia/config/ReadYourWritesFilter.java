@@ -0,0 +1,106 @@
+package com.example.gracia.config;
+
+import com.example.gracia.event.StudentChangeEvent;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Read-your-writes con replicas de lectura
+ *
+ * Las lecturas de una peticion van a la base principal cuando:
+ * - la misma peticion ya modifico un estudiante (StudentChangeEvent publicado en el hilo
+ *   de la peticion; los cambios de hilos de fondo no marcan su hilo)
+ * - el cliente envia "X-Read-Your-Writes: true"
+ * - el cliente envia la cookie student-rw, que se entrega en cada POST/PUT/PATCH/DELETE
+ *   y vence a los "student.datasource.replicas.read-your-writes-window"
+ *   (el tiempo que se espera que tarde la replicacion)
+ *
+ * Solo existe con student.datasource.replicas.enabled=true.
+ */
+@Component
+@ConditionalOnProperty(name = "student.datasource.replicas.enabled", havingValue = "true")
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Read-Your-Writes";
+    public static final String COOKIE = "student-rw";
+
+    private final Duration window;
+
+    public ReadYourWritesFilter(@Value("${student.datasource.replicas.read-your-writes-window:5s}") Duration window) {
+        this.window = window;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/v1/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if ("true".equalsIgnoreCase(request.getHeader(HEADER)) || hasRecentWrite(request)) {
+            ReadYourWrites.usePrimary();
+        }
+        if (isWrite(request) && !window.isZero()) {
+            Cookie cookie = new Cookie(COOKIE, Long.toString(System.currentTimeMillis() + window.toMillis()));
+            cookie.setPath("/v1/api/");
+            cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+            cookie.setHttpOnly(true);
+            response.addCookie(cookie);
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadYourWrites.clear();
+        }
+    }
+
+    /**
+     * Despues de una mutacion, las lecturas restantes de la misma peticion van a la base principal.
+     * Solo en el hilo de una peticion: en los hilos de fondo (escritura diferida, archivado)
+     * nadie limpiaria la marca y ese hilo leeria siempre de la base principal, asi que ahi
+     * se limpia por si otra ruta la dejo puesta.
+     */
+    @EventListener
+    public void onStudentChange(StudentChangeEvent event) {
+        if (RequestContextHolder.getRequestAttributes() != null) {
+            ReadYourWrites.usePrimary();
+        } else {
+            ReadYourWrites.clear();
+        }
+    }
+
+    private static boolean isWrite(HttpServletRequest request) {
+        String method = request.getMethod();
+        return "POST".equals(method) || "PUT".equals(method) || "PATCH".equals(method) || "DELETE".equals(method);
+    }
+
+    private static boolean hasRecentWrite(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue()) > System.currentTimeMillis();
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
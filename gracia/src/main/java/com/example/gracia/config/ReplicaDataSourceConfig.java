@@ -0,0 +1,100 @@
+package com.example.gracia.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Enrutamiento de lecturas a replicas
+ *
+ * Reemplaza el DataSource de Spring Boot por un LazyConnectionDataSourceProxy:
+ * - Transacciones de escritura  -> pool principal (spring.datasource.*)
+ * - Transacciones readOnly=true -> ReplicaPoolDataSource (student.datasource.replicas.urls)
+ *
+ * El proxy entrega la conexion real recien en la primera consulta, cuando la
+ * transaccion ya marco la conexion como de solo lectura; por eso los metodos
+ * @Transactional(readOnly = true) de StudentService (y las lecturas de los
+ * repositorios) van a las replicas y todo lo demas a la base principal.
+ *
+ * Las replicas copian la configuracion de Hikari del pool principal.
+ * Cada pool publica sus metricas hikaricp.* con su nombre (primary, replica-1, ...).
+ *
+ * Se activa con student.datasource.replicas.enabled=true.
+ */
+@Configuration
+@ConditionalOnProperty(name = "student.datasource.replicas.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaDataSourceConfig.class);
+
+    /**
+     * Pool principal, configurado con spring.datasource.* y spring.datasource.hikari.*
+     */
+    @Bean(defaultCandidate = false)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    /**
+     * Replicas de lectura, una por URL
+     */
+    @Bean(defaultCandidate = false)
+    public ReplicaPoolDataSource replicaDataSource(@Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+                                                   MeterRegistry meterRegistry,
+                                                   @Value("${student.datasource.replicas.urls}") List<String> urls,
+                                                   @Value("${student.datasource.replicas.username:}") String username,
+                                                   @Value("${student.datasource.replicas.password:}") String password,
+                                                   @Value("${student.datasource.replicas.strategy:round-robin}") String strategy) {
+        if (urls.isEmpty()) {
+            throw new IllegalStateException("student.datasource.replicas.urls no puede estar vacio");
+        }
+        primaryDataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : urls) {
+            HikariConfig config = new HikariConfig();
+            primaryDataSource.copyStateTo(config);
+            config.setJdbcUrl(url.trim());
+            if (!username.isEmpty()) {
+                config.setUsername(username);
+                config.setPassword(password);
+            }
+            config.setPoolName("replica-" + (replicas.size() + 1));
+            config.setReadOnly(true);
+            replicas.add(new HikariDataSource(config));
+        }
+        ReplicaPoolDataSource.Strategy selection =
+            ReplicaPoolDataSource.Strategy.valueOf(strategy.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        logger.info("Replicas: {} replicas de lectura ({})", replicas.size(), selection);
+        return new ReplicaPoolDataSource(primaryDataSource, replicas, selection);
+    }
+
+    /**
+     * DataSource que usan JPA y JdbcTemplate
+     */
+    @Bean
+    public DataSource dataSource(@Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") ReplicaPoolDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primaryDataSource);
+        proxy.setReadOnlyDataSource(replicaDataSource);
+        return proxy;
+    }
+}
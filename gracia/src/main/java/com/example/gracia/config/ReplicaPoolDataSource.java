@@ -0,0 +1,75 @@
+package com.example.gracia.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Conjunto de replicas de lectura
+ *
+ * Cada conexion se toma de una replica elegida por la estrategia configurada:
+ * - round-robin  : por turnos
+ * - least-loaded : la replica con menos conexiones en uso
+ * Si el hilo actual pidio read-your-writes (ReadYourWrites) se usa la base principal.
+ */
+public class ReplicaPoolDataSource extends AbstractDataSource {
+
+    /**
+     * Estrategia de seleccion de replica
+     */
+    public enum Strategy {
+        ROUND_ROBIN,
+        LEAST_LOADED
+    }
+
+    private final DataSource primary;
+    private final List<HikariDataSource> replicas;
+    private final Strategy strategy;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaPoolDataSource(DataSource primary, List<HikariDataSource> replicas, Strategy strategy) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.strategy = strategy;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return select().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return select().getConnection(username, password);
+    }
+
+    public List<HikariDataSource> getReplicas() {
+        return replicas;
+    }
+
+    private DataSource select() {
+        if (ReadYourWrites.isPrimaryRequired()) {
+            return primary;
+        }
+        if (strategy == Strategy.LEAST_LOADED) {
+            HikariDataSource selected = replicas.get(0);
+            int lowest = Integer.MAX_VALUE;
+            for (HikariDataSource replica : replicas) {
+                HikariPoolMXBean pool = replica.getHikariPoolMXBean();
+                int active = pool == null ? 0 : pool.getActiveConnections();
+                if (active < lowest) {
+                    lowest = active;
+                    selected = replica;
+                }
+            }
+            return selected;
+        }
+        return replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+    }
+}
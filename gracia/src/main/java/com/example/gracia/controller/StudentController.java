@@ -1,19 +1,71 @@
 package com.example.gracia.controller;
 
+import com.example.gracia.cache.StudentCache;
+import com.example.gracia.cache.StudentStatistics;
+import com.example.gracia.dto.StudentBatchResult;
+import com.example.gracia.dto.StudentCacheStats;
+import com.example.gracia.dto.StudentImportReport;
+import com.example.gracia.dto.StudentLookupResult;
+import com.example.gracia.dto.StudentMatch;
+import com.example.gracia.dto.StudentPage;
+import com.example.gracia.dto.StudentSearchCriteria;
+import com.example.gracia.dto.StudentSearchResult;
+import com.example.gracia.dto.StudentStats;
+import com.example.gracia.dto.StudentWriteStatus;
+import com.example.gracia.exception.DuplicateDniException;
+import com.example.gracia.exception.StudentVersionConflictException;
+import com.example.gracia.logging.StudentTracing;
 import com.example.gracia.model.Student;
+import com.example.gracia.service.StudentArchiveService;
+import com.example.gracia.service.StudentCsvExportService;
+import com.example.gracia.service.StudentEventStreamService;
+import com.example.gracia.service.StudentImportService;
 import com.example.gracia.service.StudentService;
+import com.example.gracia.service.StudentSnapshotService;
+import com.example.gracia.service.StudentWriteBehindService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.ObjectMapper;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * Controlador REST para manejar las operaciones CRUD de Student
@@ -24,40 +76,166 @@ import java.util.List;
 @Tag(name = "Student", description = "API para gestion de estudiantes - Operaciones CRUD completas")
 public class StudentController {
 
+    /** Tipo de contenido para JSON delimitado por saltos de linea (un estudiante por linea) */
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    /** Formato binario Smile para los listados (Accept: application/x-jackson-smile) */
+    private static final MediaType APPLICATION_SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    /** Tipo de contenido de la exportacion CSV */
+    public static final String TEXT_CSV_VALUE = "text/csv;charset=UTF-8";
+
+    /** Campos por los que se permite ordenar la busqueda */
+    private static final Set<String> SORTABLE_FIELDS = Set.of("id", "dni", "firstName", "lastName", "promotion", "date");
+
     @Autowired
     private StudentService studentService;
 
+    @Autowired
+    private StudentImportService studentImportService;
+
+    @Autowired
+    private StudentCache studentCache;
+
+    @Autowired
+    private StudentTracing studentTracing;
+
+    @Autowired
+    private StudentEventStreamService studentEventStreamService;
+
+    @Autowired
+    private StudentSnapshotService studentSnapshotService;
+
+    @Autowired
+    private StudentArchiveService studentArchiveService;
+
+    @Autowired
+    private StudentCsvExportService studentCsvExportService;
+
+    @Autowired
+    private StudentStatistics studentStatistics;
+
+    /** Solo existe con student.write-behind.enabled=true */
+    @Autowired(required = false)
+    private StudentWriteBehindService studentWriteBehindService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
      * GET - Obtiene todos los estudiantes
-     * @return lista de estudiantes
+     * Si el cliente envia If-None-Match con el ETag vigente responde 304 sin leer las filas.
+     * @param fields campos a devolver (vacio para el estudiante completo)
+     * @return lista de estudiantes, 304 si no cambio
      */
     @Operation(summary = "Obtener todos los estudiantes", 
-               description = "Retorna una lista completa de todos los estudiantes registrados en el sistema")
+               description = "Retorna una lista completa de todos los estudiantes registrados en el sistema. "
+                       + "Con fields= solo se leen y devuelven los campos pedidos. "
+                       + "Soporta If-None-Match con el ETag de la respuesta anterior. "
+                       + "Con Accept: application/cbor o application/x-jackson-smile responde en formato binario")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Lista de estudiantes obtenida exitosamente")
+        @ApiResponse(responseCode = "200", description = "Lista de estudiantes obtenida exitosamente",
+                     content = @Content(array = @ArraySchema(schema = @Schema(implementation = Student.class)))),
+        @ApiResponse(responseCode = "304", description = "La lista no cambio desde el ETag enviado"),
+        @ApiResponse(responseCode = "400", description = "Campo no permitido en fields")
     })
     @GetMapping
-    public ResponseEntity<List<Student>> getAllStudents() {
-        List<Student> students = studentService.getAllStudents();
-        return ResponseEntity.ok(students);
+    public ResponseEntity<?> getAllStudents(
+            @Parameter(description = "Campos a devolver: \"summary\" (id, dni, fullName) o una lista separada por comas "
+                    + "de id, dni, firstName, lastName, promotion, date, active, version. Vacio devuelve el estudiante completo",
+                    example = "summary")
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        return listStudents(false, fields, request);
     }
 
     /**
      * GET - Obtiene un estudiante por su ID
+     * La respuesta incluye el ETag con la version del estudiante.
      * @param id el ID del estudiante
-     * @return el estudiante si existe, 404 si no
+     * @return el estudiante si existe, 304 si no cambio desde If-None-Match, 404 si no existe
      */
     @Operation(summary = "Obtener estudiante por ID", 
-               description = "Busca y retorna un estudiante especifico por su identificador unico")
+               description = "Busca y retorna un estudiante especifico por su identificador unico "
+                       + "(tambien los archivados, como inactivos). "
+                       + "Soporta If-None-Match con el ETag de la respuesta anterior")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Estudiante encontrado"),
+        @ApiResponse(responseCode = "304", description = "El estudiante no cambio desde el ETag enviado"),
         @ApiResponse(responseCode = "404", description = "Estudiante no encontrado")
     })
     @GetMapping("/{id}")
     public ResponseEntity<Student> getStudentById(
             @Parameter(description = "ID del estudiante a buscar", required = true)
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            WebRequest request) {
         return studentService.getStudentById(id)
+                .map(student -> {
+                    String etag = etagOf(student);
+                    if (request.checkNotModified(etag)) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).<Student>build();
+                    }
+                    return ResponseEntity.ok().eTag(etag).body(student);
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * GET - Obtiene varios estudiantes por ID y/o DNI en una sola llamada
+     * Los IDs que no estan en cache se resuelven junto con las demas busquedas por ID
+     * en curso (WHERE id IN (...)); los DNI con una sola consulta WHERE dni IN (...).
+     * @param ids IDs de los estudiantes
+     * @param dnis DNI de los estudiantes
+     * @return estudiantes encontrados y los IDs/DNI inexistentes
+     */
+    @Operation(summary = "Obtener varios estudiantes",
+               description = "Busca varios estudiantes por ID (ids=1,2,3) y/o DNI (dnis=...) con consultas agrupadas. "
+                       + "Se permiten como maximo " + StudentService.MAX_PAGE_SIZE + " IDs y "
+                       + StudentService.MAX_PAGE_SIZE + " DNI")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Busqueda realizada exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Sin IDs ni DNI, o demasiados valores")
+    })
+    @GetMapping("/batch")
+    public ResponseEntity<StudentLookupResult> getStudents(
+            @Parameter(description = "IDs separados por coma")
+            @RequestParam(required = false) List<Long> ids,
+            @Parameter(description = "DNI separados por coma")
+            @RequestParam(required = false) List<String> dnis) {
+        Set<Long> requestedIds = ids == null ? Set.of() : new LinkedHashSet<>(ids);
+        Set<String> requestedDnis = dnis == null ? Set.of() : new LinkedHashSet<>(dnis);
+        if (requestedIds.isEmpty() && requestedDnis.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            Map<Long, Student> byId = requestedIds.isEmpty() ? Map.of() : studentService.getStudentsByIds(requestedIds);
+            Map<String, Student> byDni = requestedDnis.isEmpty() ? Map.of() : studentService.getStudentsByDnis(requestedDnis);
+            Map<Long, Student> students = new LinkedHashMap<>(byId);
+            byDni.values().forEach(student -> students.putIfAbsent(student.getId(), student));
+            List<Long> missingIds = requestedIds.stream().filter(id -> !byId.containsKey(id)).toList();
+            List<String> missingDnis = requestedDnis.stream().filter(dni -> !byDni.containsKey(dni)).toList();
+            return ResponseEntity.ok(new StudentLookupResult(new ArrayList<>(students.values()), missingIds, missingDnis));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * GET - Obtiene un estudiante por su DNI
+     * @param dni el DNI del estudiante
+     * @return el estudiante si existe, 404 si no
+     */
+    @Operation(summary = "Obtener estudiante por DNI", 
+               description = "Busca y retorna un estudiante especifico por su Documento Nacional de Identidad")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Estudiante encontrado"),
+        @ApiResponse(responseCode = "404", description = "Estudiante no encontrado")
+    })
+    @GetMapping("/dni/{dni}")
+    public ResponseEntity<Student> getStudentByDni(
+            @Parameter(description = "DNI del estudiante a buscar", required = true)
+            @PathVariable String dni) {
+        return studentService.getStudentByDni(dni)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -65,44 +243,151 @@ public class StudentController {
     /**
      * POST - Crea un nuevo estudiante
      * @param student los datos del estudiante a crear
-     * @return el estudiante creado con status 201
+     * @return el estudiante creado con status 201, 409 si el DNI ya esta registrado
      */
     @Operation(summary = "Crear nuevo estudiante", 
                description = "Registra un nuevo estudiante en el sistema. La fecha se genera automaticamente.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "201", description = "Estudiante creado exitosamente"),
-        @ApiResponse(responseCode = "400", description = "Datos invalidos en la solicitud")
+        @ApiResponse(responseCode = "400", description = "Datos invalidos en la solicitud"),
+        @ApiResponse(responseCode = "409", description = "El DNI ya esta registrado")
     })
     @PostMapping
     public ResponseEntity<Student> createStudent(
             @Parameter(description = "Datos del estudiante a crear", required = true)
             @Valid @RequestBody Student student) {
-        Student createdStudent = studentService.createStudent(student);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdStudent);
+        try {
+            Student createdStudent = studentService.createStudent(student);
+            return ResponseEntity.status(HttpStatus.CREATED).body(createdStudent);
+        } catch (DuplicateDniException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    /**
+     * POST - Acepta el alta de un estudiante en modo write-behind
+     * El estudiante se guarda en segundo plano junto con otras escrituras (commit agrupado).
+     * @param student los datos del estudiante a crear
+     * @return 202 con el identificador de seguimiento, 503 si la cola esta llena,
+     *         404 si el modo write-behind no esta habilitado
+     */
+    @Operation(summary = "Crear estudiante (write-behind)",
+               description = "Acepta el alta en una cola y responde de inmediato. El estado se consulta en "
+                       + "GET /writes/{trackingId}. Requiere student.write-behind.enabled=true")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Escritura aceptada"),
+        @ApiResponse(responseCode = "400", description = "Datos invalidos en la solicitud"),
+        @ApiResponse(responseCode = "404", description = "El modo write-behind no esta habilitado"),
+        @ApiResponse(responseCode = "503", description = "La cola de escrituras esta llena")
+    })
+    @PostMapping("/async")
+    public ResponseEntity<StudentWriteStatus> createStudentAsync(
+            @Parameter(description = "Datos del estudiante a crear", required = true)
+            @Valid @RequestBody Student student) {
+        if (studentWriteBehindService == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return accepted(studentWriteBehindService.submitCreate(student));
+    }
+
+    /**
+     * PUT - Acepta la modificacion de un estudiante en modo write-behind
+     * @param id el ID del estudiante a actualizar
+     * @param student los nuevos datos del estudiante
+     * @return 202 con el identificador de seguimiento, 503 si la cola esta llena,
+     *         404 si el modo write-behind no esta habilitado
+     */
+    @Operation(summary = "Actualizar estudiante (write-behind)",
+               description = "Acepta la modificacion en una cola y responde de inmediato. El estado se consulta en "
+                       + "GET /writes/{trackingId}. Requiere student.write-behind.enabled=true")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Escritura aceptada"),
+        @ApiResponse(responseCode = "400", description = "Datos invalidos en la solicitud"),
+        @ApiResponse(responseCode = "404", description = "El modo write-behind no esta habilitado"),
+        @ApiResponse(responseCode = "503", description = "La cola de escrituras esta llena")
+    })
+    @PutMapping("/{id}/async")
+    public ResponseEntity<StudentWriteStatus> updateStudentAsync(
+            @Parameter(description = "ID del estudiante a actualizar", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "Nuevos datos del estudiante", required = true)
+            @Valid @RequestBody Student student) {
+        if (studentWriteBehindService == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return accepted(studentWriteBehindService.submitUpdate(id, student));
+    }
+
+    /**
+     * GET - Consulta el estado de una escritura write-behind
+     * @param trackingId identificador devuelto al aceptar la escritura
+     * @return estado de la escritura, 404 si no existe o ya vencio
+     */
+    @Operation(summary = "Estado de una escritura (write-behind)",
+               description = "PENDING mientras esta en la cola, COMMITTED cuando su transaccion se confirmo "
+                       + "y REJECTED si no se pudo guardar")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Estado obtenido exitosamente"),
+        @ApiResponse(responseCode = "404", description = "Escritura no encontrada o modo write-behind deshabilitado")
+    })
+    @GetMapping("/writes/{trackingId}")
+    public ResponseEntity<StudentWriteStatus> getWriteStatus(
+            @Parameter(description = "Identificador de seguimiento", required = true)
+            @PathVariable String trackingId) {
+        if (studentWriteBehindService == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return studentWriteBehindService.getStatus(trackingId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     /**
      * PUT - Actualiza un estudiante existente
+     * Con If-Match solo se actualiza si el estudiante sigue en la version indicada.
      * @param id el ID del estudiante a actualizar
      * @param student los nuevos datos del estudiante
-     * @return el estudiante actualizado si existe, 404 si no
+     * @param ifMatch ETag leido previamente (opcional)
+     * @return el estudiante actualizado si existe, 404 si no, 412 si cambio desde If-Match,
+     *         409 si el DNI pertenece a otro estudiante o si otro cliente lo modifico al mismo tiempo
      */
     @Operation(summary = "Actualizar estudiante", 
-               description = "Modifica los datos de un estudiante existente. La fecha se actualiza automaticamente.")
+               description = "Modifica los datos de un estudiante existente. La fecha se actualiza automaticamente. "
+                       + "Envie If-Match con el ETag leido para evitar sobrescribir cambios de otro cliente")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Estudiante actualizado exitosamente"),
         @ApiResponse(responseCode = "404", description = "Estudiante no encontrado"),
-        @ApiResponse(responseCode = "400", description = "Datos invalidos en la solicitud")
+        @ApiResponse(responseCode = "400", description = "Datos invalidos en la solicitud"),
+        @ApiResponse(responseCode = "409", description = "DNI ya registrado por otro estudiante o modificacion concurrente"),
+        @ApiResponse(responseCode = "412", description = "El estudiante cambio desde el ETag enviado en If-Match")
     })
     @PutMapping("/{id}")
     public ResponseEntity<Student> updateStudent(
             @Parameter(description = "ID del estudiante a actualizar", required = true)
             @PathVariable Long id,
             @Parameter(description = "Nuevos datos del estudiante", required = true)
-            @Valid @RequestBody Student student) {
-        return studentService.updateStudent(id, student)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+            @Valid @RequestBody Student student,
+            @Parameter(description = "ETag del estudiante leido previamente (\"*\" para cualquier version)")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion;
+        try {
+            expectedVersion = parseVersion(ifMatch);
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return studentService.updateStudent(id, student, expectedVersion)
+                    .map(updated -> ResponseEntity.ok().eTag(etagOf(updated)).body(updated))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (DuplicateDniException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (StudentVersionConflictException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                    .eTag("\"" + e.getCurrentVersion() + "\"")
+                    .build();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT).build();
+        }
     }
 
     /**
@@ -129,35 +414,564 @@ public class StudentController {
     /**
      * PATCH - Restaura un estudiante eliminado logicamente
      * @param id el ID del estudiante a restaurar
-     * @return el estudiante restaurado si existe, 404 si no
+     * @return el estudiante restaurado si existe, 404 si no, 409 si su DNI ya no esta libre
      */
     @Operation(summary = "Restaurar estudiante", 
-               description = "Reactiva un estudiante que fue eliminado logicamente")
+               description = "Reactiva un estudiante que fue eliminado logicamente, aunque ya haya sido archivado")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Estudiante restaurado exitosamente"),
-        @ApiResponse(responseCode = "404", description = "Estudiante no encontrado")
+        @ApiResponse(responseCode = "404", description = "Estudiante no encontrado"),
+        @ApiResponse(responseCode = "409", description = "El estudiante estaba archivado y su DNI ya fue registrado por otro")
     })
     @PatchMapping("/{id}/restore")
     public ResponseEntity<Student> restoreStudent(
             @Parameter(description = "ID del estudiante a restaurar", required = true)
             @PathVariable Long id) {
-        return studentService.restoreStudent(id)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+        try {
+            return studentService.restoreStudent(id)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (DuplicateDniException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+    
+    /**
+     * POST - Elimina logicamente varios estudiantes a la vez
+     * @param ids IDs de los estudiantes a eliminar
+     * @return cantidad solicitada y los IDs que cambiaron a inactivos
+     */
+    @Operation(summary = "Eliminar estudiantes por lote (logico)", 
+               description = "Marca como inactivos todos los estudiantes indicados con sentencias UPDATE agrupadas")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Lote procesado exitosamente")
+    })
+    @PostMapping("/batch/delete")
+    public ResponseEntity<StudentBatchResult> deleteStudents(
+            @Parameter(description = "IDs de los estudiantes a eliminar", required = true)
+            @RequestBody List<Long> ids) {
+        return ResponseEntity.ok(new StudentBatchResult(ids.size(), studentService.deleteStudents(ids)));
+    }
+
+    /**
+     * POST - Restaura varios estudiantes eliminados logicamente
+     * @param ids IDs de los estudiantes a restaurar
+     * @return cantidad solicitada y los IDs que volvieron a estar activos
+     */
+    @Operation(summary = "Restaurar estudiantes por lote", 
+               description = "Reactiva todos los estudiantes indicados con sentencias UPDATE agrupadas")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Lote procesado exitosamente")
+    })
+    @PostMapping("/batch/restore")
+    public ResponseEntity<StudentBatchResult> restoreStudents(
+            @Parameter(description = "IDs de los estudiantes a restaurar", required = true)
+            @RequestBody List<Long> ids) {
+        return ResponseEntity.ok(new StudentBatchResult(ids.size(), studentService.restoreStudents(ids)));
     }
     
     /**
      * GET - Obtiene todos los estudiantes incluyendo inactivos
-     * @return lista de todos los estudiantes
+     * Si el cliente envia If-None-Match con el ETag vigente responde 304 sin leer las filas.
+     * @param fields campos a devolver (vacio para el estudiante completo)
+     * @return lista de todos los estudiantes, 304 si no cambio
      */
     @Operation(summary = "Obtener todos los estudiantes (incluyendo inactivos)", 
-               description = "Retorna una lista completa de todos los estudiantes, activos e inactivos")
+               description = "Retorna una lista completa de todos los estudiantes, activos e inactivos. "
+                       + "Con fields= solo se leen y devuelven los campos pedidos. "
+                       + "Soporta If-None-Match con el ETag de la respuesta anterior. "
+                       + "Con Accept: application/cbor o application/x-jackson-smile responde en formato binario")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Lista completa obtenida exitosamente")
+        @ApiResponse(responseCode = "200", description = "Lista completa obtenida exitosamente",
+                     content = @Content(array = @ArraySchema(schema = @Schema(implementation = Student.class)))),
+        @ApiResponse(responseCode = "304", description = "La lista no cambio desde el ETag enviado"),
+        @ApiResponse(responseCode = "400", description = "Campo no permitido en fields")
     })
     @GetMapping("/all")
-    public ResponseEntity<List<Student>> getAllStudentsIncludingInactive() {
-        List<Student> students = studentService.getAllStudentsIncludingInactive();
-        return ResponseEntity.ok(students);
+    public ResponseEntity<?> getAllStudentsIncludingInactive(
+            @Parameter(description = "Campos a devolver: \"summary\" (id, dni, fullName) o una lista separada por comas "
+                    + "de id, dni, firstName, lastName, promotion, date, active, version. Vacio devuelve el estudiante completo",
+                    example = "summary")
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        return listStudents(true, fields, request);
+    }
+
+    /**
+     * GET - Obtiene una pagina de estudiantes usando paginacion por cursor
+     * @param after ultimo ID recibido (vacio para la primera pagina)
+     * @param size tamano de la pagina
+     * @param includeInactive true para incluir estudiantes inactivos
+     * @return pagina de estudiantes con el cursor de la siguiente pagina
+     */
+    @Operation(summary = "Obtener estudiantes paginados (cursor)", 
+               description = "Retorna una pagina de estudiantes ordenada por ID. Para la siguiente pagina envie el valor nextCursor en el parametro after")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Pagina de estudiantes obtenida exitosamente")
+    })
+    @GetMapping("/page")
+    public ResponseEntity<StudentPage> getStudentsPage(
+            @Parameter(description = "Ultimo ID de la pagina anterior (omitir para la primera pagina)")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Tamano de la pagina (maximo " + StudentService.MAX_PAGE_SIZE + ")")
+            @RequestParam(defaultValue = "" + StudentService.DEFAULT_PAGE_SIZE) int size,
+            @Parameter(description = "Incluir estudiantes eliminados logicamente")
+            @RequestParam(defaultValue = "false") boolean includeInactive) {
+        int pageSize = StudentService.clampPageSize(size);
+        List<Student> students = studentService.getStudentsPage(after, pageSize, includeInactive);
+        return ResponseEntity.ok(new StudentPage(students, pageSize));
+    }
+
+    /**
+     * GET - Busca estudiantes con filtros, paginacion y orden
+     * @return pagina de estudiantes que cumplen los filtros, 400 si el campo de orden no es valido
+     */
+    @Operation(summary = "Buscar estudiantes", 
+               description = "Filtra por promocion, estado, prefijo de nombre/apellido y rango de fechas [from, to). "
+                       + "Los filtros omitidos no se aplican")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Busqueda realizada exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Parametros de busqueda invalidos")
+    })
+    @GetMapping("/search")
+    public ResponseEntity<StudentSearchResult> searchStudents(
+            @Parameter(description = "Numero de promocion")
+            @RequestParam(required = false) Integer promotion,
+            @Parameter(description = "Estado (omitir para activos e inactivos)")
+            @RequestParam(required = false) Boolean active,
+            @Parameter(description = "Prefijo del nombre")
+            @RequestParam(required = false) String firstName,
+            @Parameter(description = "Prefijo del apellido")
+            @RequestParam(required = false) String lastName,
+            @Parameter(description = "Fecha minima (inclusive), formato ISO: 2025-01-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Fecha maxima (exclusiva), formato ISO: 2025-12-31T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Numero de pagina (empieza en 0)")
+            @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Tamano de la pagina (maximo " + StudentService.MAX_PAGE_SIZE + ")")
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Campo de orden: id, dni, firstName, lastName, promotion o date")
+            @RequestParam(defaultValue = "id") String sort,
+            @Parameter(description = "Direccion del orden: asc o desc")
+            @RequestParam(defaultValue = "asc") String direction) {
+        if (!SORTABLE_FIELDS.contains(sort) || page < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        StudentSearchCriteria criteria = new StudentSearchCriteria();
+        criteria.setPromotion(promotion);
+        criteria.setActive(active);
+        criteria.setFirstNamePrefix(firstName);
+        criteria.setLastNamePrefix(lastName);
+        criteria.setFrom(from);
+        criteria.setTo(to);
+        Sort order = Sort.by(Sort.Direction.fromOptionalString(direction).orElse(Sort.Direction.ASC), sort);
+        if (!"id".equals(sort)) {
+            order = order.and(Sort.by("id"));
+        }
+        PageRequest pageRequest = PageRequest.of(page, StudentService.clampPageSize(size), order);
+        return ResponseEntity.ok(new StudentSearchResult(studentService.searchStudents(criteria, pageRequest)));
+    }
+
+    /**
+     * GET - Busca estudiantes por nombre, apellido o DNI aproximados (busqueda mientras se escribe)
+     * Se resuelve con un indice de trigramas en memoria, sin LIKE '%x%' sobre la tabla.
+     * @param q texto buscado (minimo 2 caracteres utiles; la ultima palabra se toma como prefijo)
+     * @param limit cantidad maxima de resultados
+     * @param includeInactive true para incluir estudiantes eliminados logicamente
+     * @return coincidencias de mayor a menor puntaje, 503 si el indice no esta disponible
+     */
+    @Operation(summary = "Busqueda aproximada de estudiantes",
+               description = "Busca por nombre, apellido o DNI tolerando errores de tipeo y palabras incompletas "
+                       + "(la ultima palabra se toma como prefijo). Ignora mayusculas y acentos. "
+                       + "Devuelve los mejores resultados ordenados por puntaje")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Busqueda realizada exitosamente"),
+        @ApiResponse(responseCode = "503", description = "El indice de nombres no esta habilitado o se esta cargando")
+    })
+    @GetMapping("/suggest")
+    public ResponseEntity<List<StudentMatch>> suggestStudents(
+            @Parameter(description = "Texto buscado (nombre, apellido o DNI)", required = true, example = "garsia ana")
+            @RequestParam String q,
+            @Parameter(description = "Cantidad maxima de resultados (maximo " + StudentService.MAX_SUGGESTIONS + ")")
+            @RequestParam(defaultValue = "10") int limit,
+            @Parameter(description = "Incluir estudiantes eliminados logicamente")
+            @RequestParam(defaultValue = "false") boolean includeInactive) {
+        if (!studentService.isSuggestAvailable()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok(studentService.suggestStudents(q, limit, includeInactive));
+    }
+
+    /**
+     * GET - Transmite todos los estudiantes en formato NDJSON
+     * Los registros se leen con un cursor y se escriben a medida que llegan,
+     * sin construir la lista completa en memoria.
+     * @param includeInactive true para incluir estudiantes inactivos
+     * @return flujo NDJSON con un estudiante por linea
+     */
+    @Operation(summary = "Transmitir estudiantes (NDJSON)", 
+               description = "Transmite los estudiantes como JSON delimitado por saltos de linea, leyendo la base de datos con un cursor")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Flujo de estudiantes iniciado")
+    })
+    @GetMapping(value = "/stream", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamStudents(
+            @Parameter(description = "Incluir estudiantes eliminados logicamente")
+            @RequestParam(defaultValue = "false") boolean includeInactive) {
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = new BufferedOutputStream(outputStream, 16 * 1024);
+            studentService.streamStudents(includeInactive, student -> {
+                try {
+                    out.write(objectMapper.writeValueAsBytes(student));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            out.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                .body(body);
+    }
+
+    /**
+     * GET - Exporta los estudiantes en CSV
+     * Las filas se escriben a medida que se leen de la base de datos.
+     * @param includeInactive true para incluir estudiantes inactivos
+     * @return archivo students.csv
+     */
+    @Operation(summary = "Exportar estudiantes (CSV)",
+               description = "Descarga los estudiantes en CSV (UTF-8) con cabecera id,dni,firstName,lastName,promotion,date,active, "
+                       + "leyendo la base de datos con un cursor. El archivo se puede importar con POST /bulk/csv. "
+                       + "Con Accept-Encoding: gzip la respuesta se comprime")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Exportacion iniciada")
+    })
+    @GetMapping(value = "/export/csv", produces = TEXT_CSV_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportStudentsCsv(
+            @Parameter(description = "Incluir estudiantes eliminados logicamente")
+            @RequestParam(defaultValue = "false") boolean includeInactive) {
+        StreamingResponseBody body = outputStream -> studentCsvExportService.export(outputStream, includeInactive);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"students.csv\"")
+                .contentType(MediaType.parseMediaType(TEXT_CSV_VALUE))
+                .body(body);
+    }
+
+    /**
+     * POST - Importa estudiantes de forma masiva desde un arreglo JSON
+     * @param students estudiantes a importar
+     * @param upsert true para actualizar los DNI ya registrados
+     * @return reporte con el resultado de cada fila
+     */
+    @Operation(summary = "Importar estudiantes (JSON)", 
+               description = "Crea (o actualiza con upsert=true) muchos estudiantes en una sola peticion. "
+                       + "Las filas invalidas se rechazan individualmente sin afectar a las demas")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Importacion procesada; revise el estado de cada fila")
+    })
+    @PostMapping("/bulk")
+    public ResponseEntity<StudentImportReport> importStudents(
+            @Parameter(description = "Estudiantes a importar", required = true)
+            @RequestBody List<Student> students,
+            @Parameter(description = "Actualizar los estudiantes cuyo DNI ya existe en lugar de rechazarlos")
+            @RequestParam(defaultValue = "false") boolean upsert) {
+        return ResponseEntity.ok(studentImportService.importStudents(students, upsert));
+    }
+
+    /**
+     * POST - Importa estudiantes de forma masiva desde un archivo CSV
+     * @param file archivo CSV con cabecera dni,firstName,lastName,promotion
+     * @param upsert true para actualizar los DNI ya registrados
+     * @return reporte con el resultado de cada fila, 400 si la cabecera es invalida
+     */
+    @Operation(summary = "Importar estudiantes (CSV)", 
+               description = "Importa un archivo CSV en UTF-8 con cabecera dni,firstName,lastName,promotion")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Importacion procesada; revise el estado de cada fila"),
+        @ApiResponse(responseCode = "400", description = "Archivo vacio o cabecera invalida")
+    })
+    @PostMapping(value = "/bulk/csv", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<StudentImportReport> importStudentsCsv(
+            @Parameter(description = "Archivo CSV a importar", required = true)
+            @RequestParam("file") MultipartFile file,
+            @Parameter(description = "Actualizar los estudiantes cuyo DNI ya existe en lugar de rechazarlos")
+            @RequestParam(defaultValue = "false") boolean upsert) throws IOException {
+        try {
+            return ResponseEntity.ok(studentImportService.importCsv(file.getInputStream(), upsert));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * GET - Suscribe al stream de cambios de estudiantes (Server-Sent Events)
+     * Reemplaza el sondeo periodico de GET /all: solo se envian los cambios.
+     * @param since ultimo id de evento recibido (opcional)
+     * @param lastEventId encabezado que EventSource envia al reconectarse (opcional)
+     * @return stream SSE, 503 si se alcanzo el maximo de suscriptores
+     */
+    @Operation(summary = "Stream de cambios de estudiantes (SSE)",
+               description = "Envia cada cambio confirmado como un evento SSE con id = epoca-secuencia y "
+                       + "nombre = tipo (CREATED, UPDATED, SOFT_DELETED, RESTORED, HARD_DELETED, ARCHIVED). "
+                       + "Para reanudar use since= o el encabezado Last-Event-ID. Si los cambios pedidos ya no "
+                       + "estan en el buffer, o el id es de antes de un reinicio, se envia un evento reset y "
+                       + "el cliente debe recargar el listado")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Stream de eventos abierto"),
+        @ApiResponse(responseCode = "503", description = "Se alcanzo el maximo de suscriptores")
+    })
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamChanges(
+            @Parameter(description = "Ultimo id de evento recibido; vacio para recibir solo cambios nuevos, 0 para todo el buffer")
+            @RequestParam(required = false) String since,
+            @Parameter(hidden = true)
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        SseEmitter emitter = studentEventStreamService.subscribe(lastEventId != null ? lastEventId : since);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
+    /**
+     * GET - Exporta todos los estudiantes en un snapshot binario comprimido
+     * @return archivo students.snap
+     */
+    @Operation(summary = "Exportar snapshot",
+               description = "Descarga todos los estudiantes (incluyendo inactivos y archivados) en un archivo binario comprimido "
+                       + "que se puede restaurar con POST /snapshot")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Snapshot generado exitosamente")
+    })
+    @GetMapping(value = "/snapshot", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportSnapshot() {
+        StreamingResponseBody body = studentSnapshotService::export;
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"students.snap\"")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(body);
+    }
+
+    /**
+     * POST - Reemplaza todos los estudiantes por el contenido de un snapshot
+     * @param snapshot archivo generado por GET /snapshot
+     * @return cantidad de estudiantes restaurados, 400 si el archivo no es valido
+     */
+    @Operation(summary = "Restaurar snapshot",
+               description = "Reemplaza la tabla completa de estudiantes (y los archivados) por el contenido del snapshot, "
+                       + "conservando los IDs. Enviar el archivo como cuerpo application/octet-stream "
+                       + "y el token de administracion en X-Admin-Token")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Snapshot restaurado exitosamente"),
+        @ApiResponse(responseCode = "400", description = "El archivo no es un snapshot valido"),
+        @ApiResponse(responseCode = "401", description = "Falta el token de administracion o no es valido"),
+        @ApiResponse(responseCode = "403", description = "Restauracion deshabilitada (sin student.admin.token)")
+    })
+    @PostMapping(value = "/snapshot", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<Map<String, Long>> restoreSnapshot(
+            @Parameter(description = "Snapshot generado por GET /snapshot", required = true)
+            @RequestBody InputStreamResource snapshot) {
+        try (InputStream input = snapshot.getInputStream()) {
+            return ResponseEntity.ok(Map.of("restored", studentSnapshotService.restore(input)));
+        } catch (IllegalArgumentException | IOException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * POST - Archiva ahora los estudiantes inactivos por mas de student.archive.inactive-after
+     * (el mismo proceso que se ejecuta cada student.archive.interval)
+     * @return cantidad de estudiantes archivados
+     */
+    @Operation(summary = "Archivar estudiantes inactivos",
+               description = "Mueve a la tabla de archivo los estudiantes eliminados logicamente hace mas de "
+                       + "student.archive.inactive-after. Siguen disponibles en GET /{id} y PATCH /{id}/restore, "
+                       + "pero dejan de aparecer en los listados y su DNI se libera. "
+                       + "Requiere el token de administracion en X-Admin-Token")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Archivado completado"),
+        @ApiResponse(responseCode = "401", description = "Falta el token de administracion o no es valido"),
+        @ApiResponse(responseCode = "403", description = "Operacion deshabilitada (sin student.admin.token)")
+    })
+    @PostMapping("/archive")
+    public ResponseEntity<Map<String, Long>> archiveStudents() {
+        return ResponseEntity.ok(Map.of("archived", studentArchiveService.archive()));
+    }
+
+    /**
+     * GET - Obtiene los conteos de estudiantes por estado, promocion y dia
+     * Se responden desde memoria, sin consultar la base de datos.
+     * @return totales de activos/inactivos, conteos por promocion y por dia
+     */
+    @Operation(summary = "Estadisticas de estudiantes",
+               description = "Retorna el total de estudiantes activos e inactivos, los conteos por promocion "
+                       + "y por dia del campo date. Se mantienen en memoria con cada cambio, sin recorrer la tabla")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Estadisticas obtenidas exitosamente")
+    })
+    @GetMapping("/stats")
+    public ResponseEntity<StudentStats> getStats() {
+        return ResponseEntity.ok(studentStatistics.stats());
+    }
+
+    /**
+     * GET - Obtiene los contadores de la cache de estudiantes
+     * @return aciertos, fallos, expulsiones y tamano de la cache
+     */
+    @Operation(summary = "Estadisticas de la cache", 
+               description = "Retorna los contadores de aciertos, fallos y expulsiones de la cache de estudiantes por ID y DNI")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Estadisticas obtenidas exitosamente")
+    })
+    @GetMapping("/cache/stats")
+    public ResponseEntity<StudentCacheStats> getCacheStats() {
+        return ResponseEntity.ok(studentCache.stats());
+    }
+
+    /**
+     * PUT - Activa el log detallado (DEBUG, SQL y parametros) para las peticiones de un estudiante
+     * Requiere el token de administracion (AdminTokenFilter); la traza vence a los student.logging.trace-ttl
+     * @param id el ID del estudiante a trazar
+     * @return 204 siempre
+     */
+    @Operation(summary = "Activar traza de estudiante", 
+               description = "Emite todos los logs (incluido SQL y sus parametros) de las peticiones a /v1/api/student/{id}, "
+                       + "sin cambiar el nivel de log del resto de peticiones")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Traza activada"),
+        @ApiResponse(responseCode = "401", description = "Falta el token de administracion o no es valido"),
+        @ApiResponse(responseCode = "403", description = "Operacion deshabilitada (sin student.admin.token)")
+    })
+    @PutMapping("/{id}/trace")
+    public ResponseEntity<Void> enableTrace(
+            @Parameter(description = "ID del estudiante a trazar", required = true)
+            @PathVariable Long id) {
+        studentTracing.enable(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * DELETE - Desactiva el log detallado de un estudiante
+     * Requiere el token de administracion (AdminTokenFilter)
+     * @param id el ID del estudiante
+     * @return 204 siempre
+     */
+    @Operation(summary = "Desactivar traza de estudiante", 
+               description = "Vuelve a aplicar el nivel de log normal a las peticiones del estudiante")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Traza desactivada"),
+        @ApiResponse(responseCode = "401", description = "Falta el token de administracion o no es valido"),
+        @ApiResponse(responseCode = "403", description = "Operacion deshabilitada (sin student.admin.token)")
+    })
+    @DeleteMapping("/{id}/trace")
+    public ResponseEntity<Void> disableTrace(
+            @Parameter(description = "ID del estudiante", required = true)
+            @PathVariable Long id) {
+        studentTracing.disable(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Listado comun de GET / y GET /all: ETag, y luego entidades completas,
+     * resumen (fields=summary) o solo los campos pedidos
+     */
+    private ResponseEntity<?> listStudents(boolean includeInactive, String fields, WebRequest request) {
+        List<String> selected = null;
+        if (fields != null && !fields.isBlank() && !fields.trim().equals("summary")) {
+            try {
+                selected = StudentService.parseFields(fields);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        String etag = studentService.getListEtag(includeInactive);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        if (fields == null && studentService.isReadModelEnabled() && acceptsJson(request)) {
+            // JSON ya serializado para esta version del modelo de lectura
+            return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(studentService.getStudentsJson(includeInactive));
+        }
+        List<?> students;
+        if (selected != null) {
+            students = studentService.getStudentFields(selected, includeInactive);
+        } else if (fields != null && fields.trim().equals("summary")) {
+            students = studentService.getStudentSummaries(includeInactive);
+        } else {
+            students = includeInactive
+                    ? studentService.getAllStudentsIncludingInactive()
+                    : studentService.getAllStudents();
+        }
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(students);
+    }
+
+    /**
+     * Indica si la respuesta se puede enviar en JSON: sin Accept, o si JSON aparece
+     * antes que CBOR/Smile en la lista de tipos aceptados por el cliente
+     */
+    private static boolean acceptsJson(WebRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null || accept.isBlank()) {
+            return true;
+        }
+        List<MediaType> types;
+        try {
+            types = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        MimeTypeUtils.sortBySpecificity(types);
+        types.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType type : types) {
+            if (type.getQualityValue() == 0) {
+                continue;
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return true;
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_CBOR) || type.isCompatibleWith(APPLICATION_SMILE)) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Respuesta 202 con Location hacia el estado de la escritura, o 503 si la cola esta llena
+     */
+    private ResponseEntity<StudentWriteStatus> accepted(Optional<StudentWriteStatus> status) {
+        return status
+                .map(accepted -> ResponseEntity.accepted()
+                        .location(URI.create("/v1/api/student/writes/" + accepted.getTrackingId()))
+                        .body(accepted))
+                .orElse(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build());
+    }
+
+    /**
+     * ETag de un estudiante: su version entre comillas, por ejemplo "3"
+     */
+    private static String etagOf(Student student) {
+        return "\"" + student.getVersion() + "\"";
+    }
+
+    /**
+     * Obtiene la version de un encabezado If-Match ("3", W/"3" o *)
+     * @return la version, o null si no hay encabezado o es *
+     * @throws NumberFormatException si el ETag no contiene una version valida
+     */
+    private static Long parseVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        return Long.valueOf(value.replace("\"", ""));
     }
 }
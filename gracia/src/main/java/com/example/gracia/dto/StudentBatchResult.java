@@ -0,0 +1,42 @@
+package com.example.gracia.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * RESULTADO DE UNA OPERACION POR LOTE
+ * 
+ * Indica cuantos IDs se solicitaron y cuales cambiaron realmente de estado.
+ * Los IDs inexistentes o que ya tenian el estado pedido no se incluyen en "ids".
+ */
+@Schema(description = "Resultado de una eliminacion o restauracion por lote")
+public class StudentBatchResult {
+
+    @Schema(description = "Cantidad de IDs recibidos", example = "250")
+    private final int requested;
+
+    @Schema(description = "Cantidad de estudiantes que cambiaron de estado", example = "240")
+    private final int affected;
+
+    @Schema(description = "IDs que cambiaron de estado")
+    private final List<Long> ids;
+
+    public StudentBatchResult(int requested, List<Long> ids) {
+        this.requested = requested;
+        this.affected = ids.size();
+        this.ids = ids;
+    }
+
+    public int getRequested() {
+        return requested;
+    }
+
+    public int getAffected() {
+        return affected;
+    }
+
+    public List<Long> getIds() {
+        return ids;
+    }
+}
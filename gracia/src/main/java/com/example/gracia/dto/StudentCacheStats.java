@@ -0,0 +1,73 @@
+package com.example.gracia.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * ESTADISTICAS DE LA CACHE DE ESTUDIANTES
+ *
+ * Contadores acumulados desde el arranque, utiles para dimensionar
+ * student.cache.maximum-size y student.cache.ttl.
+ */
+@Schema(description = "Contadores de la cache de estudiantes (por ID y por DNI)")
+public class StudentCacheStats {
+
+    @Schema(description = "Indica si la cache esta habilitada", example = "true")
+    private final boolean enabled;
+
+    @Schema(description = "Entradas aproximadas en la cache por ID", example = "120")
+    private final long byIdSize;
+
+    @Schema(description = "Entradas aproximadas en la cache por DNI", example = "120")
+    private final long byDniSize;
+
+    @Schema(description = "Lecturas servidas desde la cache", example = "5400")
+    private final long hits;
+
+    @Schema(description = "Lecturas que tuvieron que ir a la base de datos", example = "600")
+    private final long misses;
+
+    @Schema(description = "Entradas expulsadas por tamano o TTL", example = "35")
+    private final long evictions;
+
+    @Schema(description = "Proporcion de aciertos (0 a 1)", example = "0.9")
+    private final double hitRate;
+
+    public StudentCacheStats(boolean enabled, long byIdSize, long byDniSize, long hits, long misses,
+                             long evictions, double hitRate) {
+        this.enabled = enabled;
+        this.byIdSize = byIdSize;
+        this.byDniSize = byDniSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.hitRate = hitRate;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getByIdSize() {
+        return byIdSize;
+    }
+
+    public long getByDniSize() {
+        return byDniSize;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public double getHitRate() {
+        return hitRate;
+    }
+}
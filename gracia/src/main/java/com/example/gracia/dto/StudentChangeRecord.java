@@ -0,0 +1,60 @@
+package com.example.gracia.dto;
+
+import com.example.gracia.model.Student;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+/**
+ * CAMBIO DE ESTUDIANTE ENVIADO POR EL STREAM DE EVENTOS (SSE)
+ *
+ * Cada cambio confirmado recibe un numero de secuencia creciente; el cliente
+ * lo usa (Last-Event-ID o since=) para reanudar el stream sin perder cambios.
+ */
+@Schema(description = "Cambio confirmado de un estudiante")
+public class StudentChangeRecord {
+
+    @Schema(description = "Numero de secuencia del cambio (creciente)", example = "42")
+    private final long sequence;
+
+    @Schema(description = "Tipo de cambio", example = "UPDATED",
+            allowableValues = {"CREATED", "UPDATED", "SOFT_DELETED", "RESTORED", "HARD_DELETED", "ARCHIVED"})
+    private final String type;
+
+    @Schema(description = "ID del estudiante", example = "1")
+    private final Long id;
+
+    @Schema(description = "Estado del estudiante despues del cambio (null en eliminaciones y restauraciones por lote)")
+    private final Student student;
+
+    @Schema(description = "Momento en que se registro el cambio")
+    private final Instant timestamp;
+
+    public StudentChangeRecord(long sequence, String type, Long id, Student student, Instant timestamp) {
+        this.sequence = sequence;
+        this.type = type;
+        this.id = id;
+        this.student = student;
+        this.timestamp = timestamp;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Student getStudent() {
+        return student;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.gracia.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * REPORTE DE IMPORTACION MASIVA DE ESTUDIANTES
+ * 
+ * Resume cuantas filas se crearon, actualizaron o rechazaron
+ * e incluye el resultado individual de cada fila.
+ */
+@Schema(description = "Resultado de una importacion masiva de estudiantes")
+public class StudentImportReport {
+
+    @Schema(description = "Estudiantes creados", example = "980")
+    private int created;
+
+    @Schema(description = "Estudiantes actualizados", example = "15")
+    private int updated;
+
+    @Schema(description = "Filas rechazadas", example = "5")
+    private int rejected;
+
+    @Schema(description = "Resultado de cada fila, en el orden recibido")
+    private final List<StudentImportRow> rows = new ArrayList<>();
+
+    public void add(StudentImportRow row) {
+        rows.add(row);
+        switch (row.getStatus()) {
+            case CREATED -> created++;
+            case UPDATED -> updated++;
+            case REJECTED -> rejected++;
+        }
+    }
+
+    public int getTotal() {
+        return rows.size();
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public List<StudentImportRow> getRows() {
+        return rows;
+    }
+}
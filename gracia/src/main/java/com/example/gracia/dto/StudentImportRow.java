@@ -0,0 +1,69 @@
+package com.example.gracia.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * RESULTADO DE UNA FILA EN LA IMPORTACION MASIVA
+ * 
+ * Indica, para cada fila recibida (posicion en el arreglo JSON o linea del CSV),
+ * si el estudiante se creo, se actualizo o se rechazo y por que motivo.
+ */
+@Schema(description = "Resultado de la importacion de una fila")
+public class StudentImportRow {
+
+    /**
+     * Estado final de la fila importada
+     */
+    public enum Status {
+        CREATED,
+        UPDATED,
+        REJECTED
+    }
+
+    @Schema(description = "Numero de fila (1 = primer registro)", example = "1")
+    private final int row;
+
+    @Schema(description = "DNI de la fila", example = "87654321")
+    private final String dni;
+
+    @Schema(description = "Resultado de la fila", example = "CREATED")
+    private final Status status;
+
+    @Schema(description = "ID asignado o actualizado (null si se rechazo)", example = "1")
+    private final Long id;
+
+    @Schema(description = "Motivo del rechazo (null si se importo)", example = "DNI ya registrado")
+    private final String message;
+
+    public StudentImportRow(int row, String dni, Status status, Long id, String message) {
+        this.row = row;
+        this.dni = dni;
+        this.status = status;
+        this.id = id;
+        this.message = message;
+    }
+
+    public static StudentImportRow rejected(int row, String dni, String message) {
+        return new StudentImportRow(row, dni, Status.REJECTED, null, message);
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    public String getDni() {
+        return dni;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
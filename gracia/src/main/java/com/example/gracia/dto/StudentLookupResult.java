@@ -0,0 +1,44 @@
+package com.example.gracia.dto;
+
+import com.example.gracia.model.Student;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * RESULTADO DE UNA BUSQUEDA MULTIPLE
+ *
+ * Contiene los estudiantes encontrados (primero los pedidos por ID y luego los
+ * pedidos por DNI, en el orden de la solicitud y sin repetir) y los IDs o DNI
+ * que no existen.
+ */
+@Schema(description = "Resultado de una busqueda de varios estudiantes por ID y/o DNI")
+public class StudentLookupResult {
+
+    @Schema(description = "Estudiantes encontrados")
+    private final List<Student> students;
+
+    @Schema(description = "IDs pedidos que no existen")
+    private final List<Long> missingIds;
+
+    @Schema(description = "DNI pedidos que no existen")
+    private final List<String> missingDnis;
+
+    public StudentLookupResult(List<Student> students, List<Long> missingIds, List<String> missingDnis) {
+        this.students = students;
+        this.missingIds = missingIds;
+        this.missingDnis = missingDnis;
+    }
+
+    public List<Student> getStudents() {
+        return students;
+    }
+
+    public List<Long> getMissingIds() {
+        return missingIds;
+    }
+
+    public List<String> getMissingDnis() {
+        return missingDnis;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.gracia.dto;
+
+import com.example.gracia.model.Student;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * RESULTADO DE LA BUSQUEDA APROXIMADA
+ *
+ * Estudiante encontrado por nombre, apellido o DNI aproximados y su puntaje
+ * (proporcion de trigramas de la consulta que comparte, 1 = todos).
+ */
+@Schema(description = "Estudiante encontrado por la busqueda aproximada y su puntaje")
+public class StudentMatch {
+
+    @Schema(description = "Estudiante encontrado")
+    private final Student student;
+
+    @Schema(description = "Puntaje de la coincidencia (0 a 1, mayor es mejor)", example = "0.93")
+    private final double score;
+
+    public StudentMatch(Student student, double score) {
+        this.student = student;
+        this.score = score;
+    }
+
+    public Student getStudent() {
+        return student;
+    }
+
+    public double getScore() {
+        return score;
+    }
+}
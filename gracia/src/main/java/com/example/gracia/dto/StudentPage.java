@@ -0,0 +1,44 @@
+package com.example.gracia.dto;
+
+import com.example.gracia.model.Student;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * PAGINA DE ESTUDIANTES (PAGINACION POR CURSOR)
+ * 
+ * Contiene una porcion de estudiantes ordenada por ID y el cursor
+ * que el cliente debe enviar en "after" para pedir la siguiente pagina.
+ * Si nextCursor es null no quedan mas registros.
+ */
+@Schema(description = "Pagina de estudiantes obtenida mediante paginacion por cursor")
+public class StudentPage {
+
+    @Schema(description = "Estudiantes de la pagina, ordenados por ID ascendente")
+    private final List<Student> content;
+
+    @Schema(description = "Cantidad de estudiantes en la pagina", example = "100")
+    private final int size;
+
+    @Schema(description = "Cursor para la siguiente pagina (null si no hay mas)", example = "100")
+    private final Long nextCursor;
+
+    public StudentPage(List<Student> content, int requestedSize) {
+        this.content = content;
+        this.size = content.size();
+        this.nextCursor = content.size() < requestedSize ? null : content.get(content.size() - 1).getId();
+    }
+
+    public List<Student> getContent() {
+        return content;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.gracia.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * CRITERIOS DE BUSQUEDA DE ESTUDIANTES
+ * 
+ * Todos los filtros son opcionales; los que llegan en null no se aplican.
+ * Los prefijos de nombre y apellido distinguen mayusculas segun la
+ * collation de la base de datos (H2 si, MySQL por defecto no).
+ */
+public class StudentSearchCriteria {
+
+    private Integer promotion;
+    private Boolean active;
+    private String firstNamePrefix;
+    private String lastNamePrefix;
+    private LocalDateTime from;
+    private LocalDateTime to;
+
+    public Integer getPromotion() {
+        return promotion;
+    }
+
+    public void setPromotion(Integer promotion) {
+        this.promotion = promotion;
+    }
+
+    public Boolean getActive() {
+        return active;
+    }
+
+    public void setActive(Boolean active) {
+        this.active = active;
+    }
+
+    public String getFirstNamePrefix() {
+        return firstNamePrefix;
+    }
+
+    public void setFirstNamePrefix(String firstNamePrefix) {
+        this.firstNamePrefix = firstNamePrefix;
+    }
+
+    public String getLastNamePrefix() {
+        return lastNamePrefix;
+    }
+
+    public void setLastNamePrefix(String lastNamePrefix) {
+        this.lastNamePrefix = lastNamePrefix;
+    }
+
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDateTime from) {
+        this.from = from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDateTime to) {
+        this.to = to;
+    }
+}
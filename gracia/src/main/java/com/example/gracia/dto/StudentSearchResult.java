@@ -0,0 +1,59 @@
+package com.example.gracia.dto;
+
+import com.example.gracia.model.Student;
+import io.swagger.v3.oas.annotations.media.Schema;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * RESULTADO DE BUSQUEDA DE ESTUDIANTES
+ * 
+ * Pagina de resultados con los datos necesarios para navegar entre paginas.
+ */
+@Schema(description = "Pagina de resultados de la busqueda de estudiantes")
+public class StudentSearchResult {
+
+    @Schema(description = "Estudiantes de la pagina solicitada")
+    private final List<Student> content;
+
+    @Schema(description = "Numero de pagina (empieza en 0)", example = "0")
+    private final int page;
+
+    @Schema(description = "Tamano de pagina", example = "20")
+    private final int size;
+
+    @Schema(description = "Total de estudiantes que cumplen los filtros", example = "135")
+    private final long totalElements;
+
+    @Schema(description = "Total de paginas", example = "7")
+    private final int totalPages;
+
+    public StudentSearchResult(Page<Student> page) {
+        this.content = page.getContent();
+        this.page = page.getNumber();
+        this.size = page.getSize();
+        this.totalElements = page.getTotalElements();
+        this.totalPages = page.getTotalPages();
+    }
+
+    public List<Student> getContent() {
+        return content;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public long getTotalElements() {
+        return totalElements;
+    }
+
+    public int getTotalPages() {
+        return totalPages;
+    }
+}
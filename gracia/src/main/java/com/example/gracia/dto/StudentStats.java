@@ -0,0 +1,68 @@
+package com.example.gracia.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * ESTADISTICAS DE ESTUDIANTES
+ *
+ * Conteos calculados en memoria por StudentStatistics (sin recorrer la tabla).
+ * Los mapas estan ordenados por promocion y por dia.
+ */
+@Schema(description = "Conteos de estudiantes por estado, promocion y dia")
+public class StudentStats {
+
+    @Schema(description = "Total de estudiantes (activos e inactivos)", example = "1200")
+    private final long total;
+
+    @Schema(description = "Estudiantes activos", example = "1150")
+    private final long active;
+
+    @Schema(description = "Estudiantes eliminados logicamente", example = "50")
+    private final long inactive;
+
+    @Schema(description = "Estudiantes activos por promocion", example = "{\"231\": 580, \"232\": 570}")
+    private final Map<Integer, Long> activeByPromotion;
+
+    @Schema(description = "Estudiantes inactivos por promocion", example = "{\"231\": 30, \"232\": 20}")
+    private final Map<Integer, Long> inactiveByPromotion;
+
+    @Schema(description = "Estudiantes por dia de registro/actualizacion (campo date)", example = "{\"2025-12-13\": 40}")
+    private final Map<LocalDate, Long> byDay;
+
+    public StudentStats(long active, long inactive, Map<Integer, Long> activeByPromotion,
+                        Map<Integer, Long> inactiveByPromotion, Map<LocalDate, Long> byDay) {
+        this.total = active + inactive;
+        this.active = active;
+        this.inactive = inactive;
+        this.activeByPromotion = activeByPromotion;
+        this.inactiveByPromotion = inactiveByPromotion;
+        this.byDay = byDay;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getActive() {
+        return active;
+    }
+
+    public long getInactive() {
+        return inactive;
+    }
+
+    public Map<Integer, Long> getActiveByPromotion() {
+        return activeByPromotion;
+    }
+
+    public Map<Integer, Long> getInactiveByPromotion() {
+        return inactiveByPromotion;
+    }
+
+    public Map<LocalDate, Long> getByDay() {
+        return byDay;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.gracia.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * RESUMEN DE UN ESTUDIANTE PARA LISTADOS (fields=summary)
+ *
+ * Se construye directamente en la consulta (ver StudentRepository.findSummariesByActive):
+ * solo se leen tres columnas y Hibernate no crea entidades gestionadas.
+ */
+@Schema(description = "Resumen de un estudiante: ID, DNI y nombre completo")
+public class StudentSummary {
+
+    @Schema(description = "ID del estudiante", example = "1")
+    private final Long id;
+
+    @Schema(description = "DNI del estudiante", example = "12345678")
+    private final String dni;
+
+    @Schema(description = "Nombre y apellido", example = "Juan Perez")
+    private final String fullName;
+
+    public StudentSummary(Long id, String dni, String fullName) {
+        this.id = id;
+        this.dni = dni;
+        this.fullName = fullName;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getDni() {
+        return dni;
+    }
+
+    public String getFullName() {
+        return fullName;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.gracia.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+/**
+ * ESTADO DE UNA ESCRITURA DIFERIDA (WRITE-BEHIND)
+ *
+ * Se devuelve al aceptar la escritura (PENDING) y se consulta con
+ * GET /v1/api/student/writes/{trackingId} hasta que queda COMMITTED o REJECTED.
+ * COMMITTED significa que la transaccion que contiene la escritura ya se confirmo.
+ */
+@Schema(description = "Estado de una escritura aceptada en modo write-behind")
+public class StudentWriteStatus {
+
+    /**
+     * Estado de la escritura
+     */
+    public enum Status {
+        /** En la cola, todavia no se guardo */
+        PENDING,
+        /** Guardada: la transaccion se confirmo */
+        COMMITTED,
+        /** No se guardo (DNI duplicado, estudiante inexistente o error de base de datos) */
+        REJECTED
+    }
+
+    @Schema(description = "Identificador de seguimiento", example = "3f1c2a9e-7d4b-4c1e-9a55-0b6f2f8e1d21")
+    private final String trackingId;
+
+    @Schema(description = "Operacion solicitada", example = "CREATE", allowableValues = {"CREATE", "UPDATE"})
+    private final String operation;
+
+    @Schema(description = "Estado de la escritura", example = "COMMITTED")
+    private final Status status;
+
+    @Schema(description = "ID del estudiante (en CREATE se conoce al confirmarse)", example = "15")
+    private final Long studentId;
+
+    @Schema(description = "Motivo del rechazo", example = "DNI ya registrado")
+    private final String message;
+
+    @Schema(description = "Momento en que se acepto la escritura")
+    private final Instant acceptedAt;
+
+    @Schema(description = "Momento en que se confirmo o rechazo")
+    private final Instant completedAt;
+
+    public StudentWriteStatus(String trackingId, String operation, Status status, Long studentId, String message,
+                              Instant acceptedAt, Instant completedAt) {
+        this.trackingId = trackingId;
+        this.operation = operation;
+        this.status = status;
+        this.studentId = studentId;
+        this.message = message;
+        this.acceptedAt = acceptedAt;
+        this.completedAt = completedAt;
+    }
+
+    /**
+     * @return una copia con el resultado final de la escritura
+     */
+    public StudentWriteStatus complete(Status status, Long studentId, String message) {
+        return new StudentWriteStatus(trackingId, operation, status, studentId, message, acceptedAt, Instant.now());
+    }
+
+    public String getTrackingId() {
+        return trackingId;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public Instant getAcceptedAt() {
+        return acceptedAt;
+    }
+
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.gracia.event;
+
+import com.example.gracia.model.Student;
+
+import java.time.LocalDateTime;
+
+/**
+ * EVENTO DE CAMBIO DE ESTUDIANTE
+ * 
+ * Se publica (ApplicationEventPublisher) despues de cada mutacion confirmada
+ * en StudentService o en la importacion masiva. Los componentes que mantienen
+ * estado derivado de la tabla (cache, indices, etc.) lo escuchan para
+ * mantenerse sincronizados sin volver a consultar la base de datos.
+ *
+ * Cuando el estudiante ya estaba en students, el evento trae ademas su estado anterior
+ * (promocion, fecha y activo; ver State) para que los conteos resten del grupo anterior.
+ */
+public class StudentChangeEvent {
+
+    /**
+     * Tipo de mutacion realizada
+     */
+    public enum Type {
+        CREATED,
+        UPDATED,
+        SOFT_DELETED,
+        RESTORED,
+        HARD_DELETED,
+        /** Movido a students_archive; previousDni trae el DNI que se libera */
+        ARCHIVED
+    }
+
+    private final Type type;
+    private final Long id;
+    private final Student student;
+    private final String previousDni;
+    private final LocalDateTime changedAt;
+    private final State previous;
+
+    /**
+     * Campos del estudiante que agrupan los conteos (StudentStatistics)
+     * @param promotion promocion
+     * @param date campo date (puede ser null)
+     * @param active true si esta activo
+     */
+    public record State(Integer promotion, LocalDateTime date, boolean active) {
+
+        public static State of(Student student) {
+            return new State(student.getPromotion(), student.getDate(), Boolean.TRUE.equals(student.getActive()));
+        }
+    }
+
+    /**
+     * @param type tipo de mutacion
+     * @param id ID del estudiante afectado
+     * @param student estado del estudiante despues del cambio; null en HARD_DELETED, ARCHIVED y cuando
+     *                el cambio se aplico con una sentencia UPDATE directa sin cargar la entidad
+     * @param previousDni DNI antes del cambio (null si no se conoce o en CREATED); en HARD_DELETED y
+     *                    ARCHIVED, el DNI del estudiante que salio de students
+     */
+    public StudentChangeEvent(Type type, Long id, Student student, String previousDni) {
+        this(type, id, student, previousDni, null, null);
+    }
+
+    /**
+     * @param previous estado en students antes del cambio (null en CREATED o si no estaba en students)
+     * @see #StudentChangeEvent(Type, Long, Student, String)
+     */
+    public StudentChangeEvent(Type type, Long id, Student student, String previousDni, State previous) {
+        this(type, id, student, previousDni, null, previous);
+    }
+
+    /**
+     * Cambio de estado aplicado con una sentencia UPDATE directa (sin entidad cargada)
+     * @param type SOFT_DELETED o RESTORED
+     * @param id ID del estudiante afectado
+     * @param changedAt fecha que la sentencia escribio en el campo date
+     */
+    public StudentChangeEvent(Type type, Long id, LocalDateTime changedAt) {
+        this(type, id, null, null, changedAt, null);
+    }
+
+    /**
+     * Como {@link #StudentChangeEvent(Type, Long, LocalDateTime)}, con el estado antes de la sentencia UPDATE
+     * (un constructor con la misma aridad seria ambiguo con nulls frente a (Type, Long, Student, String))
+     * @param previous estado antes de la sentencia UPDATE
+     */
+    public static StudentChangeEvent stateChange(Type type, Long id, LocalDateTime changedAt, State previous) {
+        return new StudentChangeEvent(type, id, null, null, changedAt, previous);
+    }
+
+    private StudentChangeEvent(Type type, Long id, Student student, String previousDni, LocalDateTime changedAt,
+                               State previous) {
+        this.type = type;
+        this.id = id;
+        this.student = student;
+        this.previousDni = previousDni;
+        this.changedAt = changedAt;
+        this.previous = previous;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Student getStudent() {
+        return student;
+    }
+
+    public String getPreviousDni() {
+        return previousDni;
+    }
+
+    /**
+     * @return true si el estudiante salio de la tabla students (HARD_DELETED o ARCHIVED)
+     */
+    public boolean isRemoval() {
+        return type == Type.HARD_DELETED || type == Type.ARCHIVED;
+    }
+
+    /**
+     * @return fecha escrita por una sentencia UPDATE directa; null si el evento trae el estudiante o en HARD_DELETED
+     */
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    /**
+     * @return estado en students antes del cambio; null si el estudiante no estaba en students o no se conoce
+     */
+    public State getPrevious() {
+        return previous;
+    }
+}
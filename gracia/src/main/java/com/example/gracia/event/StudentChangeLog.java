@@ -0,0 +1,212 @@
+package com.example.gracia.event;
+
+import com.example.gracia.dto.StudentChangeRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * REGISTRO CIRCULAR DE CAMBIOS DE ESTUDIANTES
+ *
+ * Guarda los ultimos "student.events.buffer-size" cambios confirmados en un
+ * arreglo circular, cada uno con un numero de secuencia creciente (empieza en 1).
+ * Cuando el buffer se llena se sobrescriben los cambios mas antiguos: un lector
+ * que pida una secuencia ya sobrescrita recibe truncated=true y debe recargar el listado.
+ *
+ * Cada cambio se serializa a JSON una sola vez al registrarlo, por lo que el costo
+ * de enviarlo no depende de cuantos clientes esten suscritos.
+ *
+ * Las secuencias viven en memoria y vuelven a empezar en cada arranque. Por eso el
+ * cursor que se entrega a los clientes (id de cada evento SSE) es "epoca-secuencia",
+ * con una epoca propia de este proceso: un cursor de otro proceso, o una secuencia
+ * mayor que la ultima registrada, se trata como truncado (el cliente recibe reset)
+ * en lugar de saltear en silencio los cambios hasta que el contador lo alcance.
+ */
+@Component
+public class StudentChangeLog {
+
+    /**
+     * Cambio ya serializado, listo para enviarse por SSE
+     */
+    public static final class Entry {
+        private final long sequence;
+        private final String type;
+        private final String json;
+
+        Entry(long sequence, String type, String json) {
+            this.sequence = sequence;
+            this.type = type;
+            this.json = json;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public String getJson() {
+            return json;
+        }
+    }
+
+    /**
+     * Resultado de una lectura: los cambios y si se perdieron cambios anteriores
+     */
+    public static final class Batch {
+        private final List<Entry> entries;
+        private final boolean truncated;
+        private final long oldestSequence;
+
+        Batch(List<Entry> entries, boolean truncated, long oldestSequence) {
+            this.entries = entries;
+            this.truncated = truncated;
+            this.oldestSequence = oldestSequence;
+        }
+
+        public List<Entry> getEntries() {
+            return entries;
+        }
+
+        /**
+         * @return true si la secuencia pedida ya fue sobrescrita (hay cambios perdidos)
+         */
+        public boolean isTruncated() {
+            return truncated;
+        }
+
+        public long getOldestSequence() {
+            return oldestSequence;
+        }
+    }
+
+    /** Cursor que no corresponde a este proceso: la siguiente lectura devuelve truncated=true */
+    public static final long UNKNOWN_CURSOR = Long.MAX_VALUE;
+
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final Entry[] buffer;
+    private final ObjectMapper objectMapper;
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private long latestSequence;
+    private long resetFloor = 1;
+
+    public StudentChangeLog(@Value("${student.events.buffer-size:10000}") int bufferSize, ObjectMapper objectMapper) {
+        this.buffer = new Entry[bufferSize];
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Registra cada mutacion confirmada y avisa a los suscriptores
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentChange(StudentChangeEvent event) {
+        String type = event.getType().name();
+        synchronized (this) {
+            long sequence = latestSequence + 1;
+            StudentChangeRecord record = new StudentChangeRecord(sequence, type, event.getId(), event.getStudent(),
+                    Instant.now());
+            buffer[(int) ((sequence - 1) % buffer.length)] = new Entry(sequence, type,
+                    objectMapper.writeValueAsString(record));
+            latestSequence = sequence;
+        }
+        for (Runnable listener : listeners) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Lee los cambios con secuencia mayor que afterSequence
+     * @param afterSequence ultima secuencia recibida por el lector (0 para leer desde el inicio)
+     * @param max cantidad maxima de cambios a devolver
+     * @return cambios en orden de secuencia; si afterSequence ya fue sobrescrita o es posterior
+     *         a la ultima registrada (cursor de otro proceso), truncated=true y empieza en el mas antiguo
+     */
+    public synchronized Batch readAfter(long afterSequence, int max) {
+        long oldest = oldestSequence();
+        boolean ahead = afterSequence > latestSequence;
+        boolean truncated = ahead || afterSequence + 1 < oldest;
+        long from = ahead ? oldest : Math.max(afterSequence + 1, oldest);
+        List<Entry> entries = new ArrayList<>((int) Math.max(0, Math.min(max, latestSequence - from + 1)));
+        for (long sequence = from; sequence <= latestSequence && entries.size() < max; sequence++) {
+            entries.add(buffer[(int) ((sequence - 1) % buffer.length)]);
+        }
+        return new Batch(entries, truncated, oldest);
+    }
+
+    /**
+     * @param sequence secuencia de un cambio
+     * @return cursor para el cliente (id del evento SSE): "epoca-secuencia"
+     */
+    public String cursorOf(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    /**
+     * Interpreta el cursor enviado por un cliente (since= o Last-Event-ID)
+     * @param cursor "epoca-secuencia", o solo la secuencia (por ejemplo 0 para todo el buffer)
+     * @return la secuencia; UNKNOWN_CURSOR si es de otra epoca o no es valido; null si no hay cursor
+     */
+    public Long parseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String value = cursor.trim();
+        int dash = value.lastIndexOf('-');
+        if (dash > 0) {
+            if (!value.substring(0, dash).equals(epoch)) {
+                return UNKNOWN_CURSOR;
+            }
+            value = value.substring(dash + 1);
+        }
+        try {
+            long sequence = Long.parseLong(value);
+            return sequence < 0 ? UNKNOWN_CURSOR : sequence;
+        } catch (NumberFormatException e) {
+            return UNKNOWN_CURSOR;
+        }
+    }
+
+    /**
+     * @return secuencia del ultimo cambio registrado (0 si no hubo cambios)
+     */
+    public synchronized long latestSequence() {
+        return latestSequence;
+    }
+
+    /**
+     * @return secuencia del cambio mas antiguo que sigue en el buffer
+     */
+    public synchronized long oldestSequence() {
+        return Math.max(resetFloor, latestSequence - buffer.length + 1);
+    }
+
+    /**
+     * Descarta los cambios registrados: la tabla fue reemplazada completa (restauracion de un snapshot).
+     * Todos los lectores actuales reciben truncated=true en su siguiente lectura y deben recargar el listado.
+     */
+    public void markReset() {
+        synchronized (this) {
+            latestSequence++;
+            resetFloor = latestSequence + 1;
+        }
+        for (Runnable listener : listeners) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Registra una accion que se ejecuta despues de cada cambio (sin bloquear al escritor)
+     */
+    public void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+}
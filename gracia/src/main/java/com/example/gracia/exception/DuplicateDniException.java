@@ -0,0 +1,61 @@
+package com.example.gracia.exception;
+
+import com.example.gracia.model.Student;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+import java.util.Locale;
+
+/**
+ * Se lanza cuando se intenta crear o actualizar un estudiante con un DNI
+ * que ya pertenece a otro estudiante (activo o eliminado logicamente).
+ */
+public class DuplicateDniException extends RuntimeException {
+
+    private final String dni;
+    private final Long existingId;
+
+    /**
+     * @param dni DNI en conflicto
+     * @param existingId ID del estudiante que ya usa el DNI (null si solo lo detecto la base de datos)
+     */
+    public DuplicateDniException(String dni, Long existingId) {
+        super("El DNI " + dni + " ya esta registrado");
+        this.dni = dni;
+        this.existingId = existingId;
+    }
+
+    /**
+     * Distingue un DNI duplicado de las demas violaciones de integridad (clave primaria,
+     * columna demasiado larga, NOT NULL...), que no deben responderse como 409
+     * @param e excepcion traducida por Spring al guardar
+     * @return true si la viola la restriccion unique del DNI (Student.DNI_CONSTRAINT)
+     */
+    public static boolean isDniViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return isDniConstraint(violation.getConstraintName());
+            }
+            if (cause instanceof SQLException sql && ("23505".equals(sql.getSQLState()) || "23000".equals(sql.getSQLState()))) {
+                return sql.getMessage() != null && isDniConstraint(sql.getMessage());
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Cada base informa el nombre a su manera (H2: "PUBLIC.UK_STUDENTS_DNI_INDEX_2 ON ...")
+     */
+    private static boolean isDniConstraint(String name) {
+        return name.toLowerCase(Locale.ROOT).contains(Student.DNI_CONSTRAINT);
+    }
+
+    public String getDni() {
+        return dni;
+    }
+
+    public Long getExistingId() {
+        return existingId;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.gracia.exception;
+
+/**
+ * Se lanza cuando la version enviada por el cliente (If-Match) no coincide
+ * con la version actual del estudiante: otro cliente lo modifico antes.
+ */
+public class StudentVersionConflictException extends RuntimeException {
+
+    private final Long id;
+    private final Long currentVersion;
+
+    public StudentVersionConflictException(Long id, Long expectedVersion, Long currentVersion) {
+        super("El estudiante con ID " + id + " esta en la version " + currentVersion
+                + " y se esperaba la version " + expectedVersion);
+        this.id = id;
+        this.currentVersion = currentVersion;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getCurrentVersion() {
+        return currentVersion;
+    }
+}
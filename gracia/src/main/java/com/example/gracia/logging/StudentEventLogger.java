@@ -0,0 +1,58 @@
+package com.example.gracia.logging;
+
+import com.example.gracia.event.StudentChangeEvent;
+import com.example.gracia.model.Student;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Log estructurado de mutaciones de estudiantes (una linea por evento)
+ *
+ * Reemplaza en produccion a los logs INFO de StudentService: en lugar de mensajes
+ * formateados, emite pares clave-valor (student.event, student.id, student.dni, ...)
+ * que el formato estructurado (ECS) convierte en campos JSON.
+ *
+ * "student.logging.event-sample-rate" (0 a 1) permite registrar solo una fraccion
+ * de los eventos; los estudiantes trazados se registran siempre.
+ */
+@Component
+public class StudentEventLogger {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentEventLogger.class);
+
+    @Autowired
+    private StudentTracing studentTracing;
+
+    @Value("${student.logging.event-sample-rate:1.0}")
+    private double sampleRate;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentChange(StudentChangeEvent event) {
+        if (!logger.isInfoEnabled() || !sampled(event.getId())) {
+            return;
+        }
+        LoggingEventBuilder builder = logger.atInfo()
+                .addKeyValue("student.event", event.getType())
+                .addKeyValue("student.id", event.getId());
+        Student student = event.getStudent();
+        if (student != null) {
+            builder = builder.addKeyValue("student.dni", student.getDni())
+                    .addKeyValue("student.promotion", student.getPromotion())
+                    .addKeyValue("student.active", student.getActive());
+        }
+        builder.log("Estudiante {}", event.getType());
+    }
+
+    private boolean sampled(Long id) {
+        return sampleRate >= 1.0
+                || studentTracing.isTraced(id)
+                || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.gracia.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Agrega al MDC el ID del estudiante de la URL (/v1/api/student/{id}/...)
+ *
+ * Asi cada linea de log de la peticion queda asociada al estudiante
+ * (en formato estructurado aparece como campo "studentId") y
+ * TracedStudentTurboFilter puede activar el detalle solo para ese ID.
+ */
+@Component
+public class StudentLogContextFilter extends OncePerRequestFilter {
+
+    private static final String PREFIX = "/v1/api/student/";
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String studentId = extractId(request.getRequestURI());
+        if (studentId == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        MDC.put(TracedStudentTurboFilter.MDC_KEY, studentId);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            MDC.remove(TracedStudentTurboFilter.MDC_KEY);
+        }
+    }
+
+    /**
+     * @return el primer segmento despues de /v1/api/student/ si es numerico, o null
+     */
+    static String extractId(String uri) {
+        int start = PREFIX.length();
+        int end = start;
+        while (end < uri.length() && Character.isDigit(uri.charAt(end))) {
+            end++;
+        }
+        if (end == start || (end < uri.length() && uri.charAt(end) != '/')) {
+            return null;
+        }
+        return uri.substring(start, end);
+    }
+}
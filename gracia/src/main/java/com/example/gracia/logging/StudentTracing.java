@@ -0,0 +1,66 @@
+package com.example.gracia.logging;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import org.slf4j.ILoggerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Administra los IDs de estudiantes con log detallado por peticion
+ *
+ * Los IDs iniciales se leen de "student.logging.trace-ids" (separados por coma)
+ * y pueden cambiarse en caliente con PUT/DELETE /v1/api/student/{id}/trace
+ * (rutas de administracion, ver student.admin.paths). Cada traza vence a los
+ * "student.logging.trace-ttl", tambien las iniciales.
+ *
+ * El filtro se busca en el LoggerContext en cada uso: Spring Boot vuelve a
+ * configurar Logback al arrancar y reemplaza la instancia declarada en logback-spring.xml.
+ */
+@Component
+public class StudentTracing {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentTracing.class);
+
+    /** Se usa si logback-spring.xml no declara el filtro (por ejemplo, con otra configuracion de Logback) */
+    private final TracedStudentTurboFilter fallback = new TracedStudentTurboFilter();
+
+    public StudentTracing(@Value("${student.logging.trace-ids:}") List<Long> initialIds) {
+        initialIds.forEach(this::enable);
+    }
+
+    public void enable(Long id) {
+        filter().trace(id);
+        logger.warn("Trazar: Log detallado activado para el estudiante con ID: {}", id);
+    }
+
+    public void disable(Long id) {
+        filter().untrace(id);
+        logger.warn("Trazar: Log detallado desactivado para el estudiante con ID: {}", id);
+    }
+
+    public boolean isTraced(Long id) {
+        return filter().isTraced(id);
+    }
+
+    public Set<String> tracedIds() {
+        return filter().tracedIds();
+    }
+
+    private TracedStudentTurboFilter filter() {
+        ILoggerFactory factory = LoggerFactory.getILoggerFactory();
+        if (factory instanceof LoggerContext context) {
+            for (TurboFilter filter : context.getTurboFilterList()) {
+                if (filter instanceof TracedStudentTurboFilter traced) {
+                    return traced;
+                }
+            }
+        }
+        return fallback;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.gracia.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Filtro global de Logback (declarado en logback-spring.xml) para trazar un estudiante
+ *
+ * Si el ID del estudiante de la peticion actual (MDC "studentId", ver StudentLogContextFilter)
+ * esta en la lista de trazados, todos los logs de esa peticion se emiten sin importar
+ * el nivel configurado, pero solo de los loggers relevantes: la aplicacion,
+ * SQL (org.hibernate.SQL) y parametros (org.hibernate.orm.jdbc.bind).
+ * Para el resto de peticiones no interviene.
+ *
+ * La lista esta acotada: como maximo "maxIds" estudiantes y cada uno deja de trazarse
+ * "ttl" despues de activarlo (student.logging.trace-max-ids y trace-ttl en logback-spring.xml),
+ * para que una traza olvidada no deje el log detallado activo indefinidamente.
+ * Logback crea la instancia fuera de Spring; StudentTracing la busca en el LoggerContext.
+ */
+public class TracedStudentTurboFilter extends TurboFilter {
+
+    public static final String MDC_KEY = "studentId";
+
+    private static final List<String> TRACED_LOGGERS = List.of(
+            "com.example.gracia", "org.hibernate.SQL", "org.hibernate.orm.jdbc.bind");
+
+    private int maxIds = 100;
+    private Duration ttl = Duration.ofHours(1);
+    private volatile Cache<String, Boolean> tracedIds = newCache();
+
+    /**
+     * @param maxIds cantidad maxima de estudiantes trazados a la vez (se descartan los mas viejos)
+     */
+    public void setMaxIds(int maxIds) {
+        this.maxIds = maxIds;
+    }
+
+    /**
+     * @param ttl tiempo que dura cada traza ("30m", "1h", ...)
+     */
+    public void setTtl(String ttl) {
+        this.ttl = DurationStyle.detectAndParse(ttl);
+    }
+
+    @Override
+    public void start() {
+        tracedIds = newCache();
+        super.start();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (tracedIds.estimatedSize() == 0) {
+            return FilterReply.NEUTRAL;
+        }
+        String studentId = MDC.get(MDC_KEY);
+        if (studentId == null || tracedIds.getIfPresent(studentId) == null) {
+            return FilterReply.NEUTRAL;
+        }
+        String name = logger.getName();
+        for (String traced : TRACED_LOGGERS) {
+            if (name.startsWith(traced)) {
+                return FilterReply.ACCEPT;
+            }
+        }
+        return FilterReply.NEUTRAL;
+    }
+
+    boolean isTraced(Long id) {
+        return id != null && tracedIds.estimatedSize() > 0 && tracedIds.getIfPresent(id.toString()) != null;
+    }
+
+    void trace(Long id) {
+        tracedIds.put(id.toString(), Boolean.TRUE);
+    }
+
+    void untrace(Long id) {
+        tracedIds.invalidate(id.toString());
+    }
+
+    Set<String> tracedIds() {
+        tracedIds.cleanUp();
+        return Set.copyOf(tracedIds.asMap().keySet());
+    }
+
+    private Cache<String, Boolean> newCache() {
+        return Caffeine.newBuilder()
+                .maximumSize(maxIds)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.gracia.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * CONTADORES DE RESULTADOS DE LA API DE ESTUDIANTES
+ *
+ * Los tiempos de cada operacion se miden con @Timed("student.service") en StudentService;
+ * aqui se cuentan los resultados que no son exito:
+ * - student.outcome{operation=..., outcome=not_found}     : el ID o DNI no existe
+ * - student.outcome{operation=..., outcome=duplicate_dni} : el DNI ya estaba registrado
+ *
+ * Expuestos en /actuator/prometheus junto con los timers, el pool de Hikari,
+ * las estadisticas de Hibernate y la cache.
+ */
+@Component
+public class StudentMetrics {
+
+    public static final String SERVICE_TIMER = "student.service";
+    private static final String OUTCOME_COUNTER = "student.outcome";
+
+    private final MeterRegistry registry;
+
+    public StudentMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void notFound(String operation) {
+        outcome(operation, "not_found").increment();
+    }
+
+    public void duplicateDni(String operation) {
+        outcome(operation, "duplicate_dni").increment();
+    }
+
+    private Counter outcome(String operation, String outcome) {
+        return Counter.builder(OUTCOME_COUNTER)
+                .description("Resultados no exitosos de las operaciones de estudiantes")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.gracia.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * ENTIDAD ARCHIVEDSTUDENT - ESTUDIANTES ARCHIVADOS
+ *
+ * Representa la tabla "students_archive": estudiantes eliminados logicamente que
+ * llevan mas de "student.archive.inactive-after" inactivos. StudentArchiveService los
+ * mueve aqui para que la tabla students y sus indices solo contengan datos vigentes.
+ *
+ * - Conserva el ID, la version y la fecha originales (la fecha de la eliminacion logica)
+ * - No tiene restriccion unique en dni: un DNI archivado se libera y puede volver a
+ *   registrarse; al restaurar el estudiante archivado se valida que siga libre
+ * - El ID se asigna al archivar (no usa la secuencia)
+ */
+@Entity
+@Table(name = "students_archive", indexes = {
+    @Index(name = "idx_students_archive_archived_at", columnList = "archived_at")
+})
+public class ArchivedStudent {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String dni;
+
+    @Column(nullable = false)
+    private String firstName;
+
+    @Column(nullable = false)
+    private String lastName;
+
+    @Column(nullable = false)
+    private Integer promotion;
+
+    @Column(nullable = false)
+    private LocalDateTime date;
+
+    private Long version;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+
+    // Constructor vacio requerido por JPA
+    public ArchivedStudent() {
+    }
+
+    /**
+     * @return copia del estudiante archivado como Student inactivo (no administrada por JPA)
+     */
+    public Student toStudent() {
+        Student student = new Student(dni, firstName, lastName, promotion, date);
+        student.setId(id);
+        student.setActive(false);
+        student.setVersion(version);
+        return student;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public String getDni() {
+        return dni;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public Integer getPromotion() {
+        return promotion;
+    }
+
+    public LocalDateTime getDate() {
+        return date;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+}
@@ -13,10 +13,22 @@ import java.time.LocalDateTime;
  * 
  * ANOTACIONES JPA:
  * @Entity : Indica que esta clase es una entidad de base de datos
- * @Table : Define el nombre de la tabla en la BD (students)
+ * @Table : Define el nombre de la tabla en la BD (students), la restriccion unique del DNI
+ *          (con nombre fijo para reconocerla en DuplicateDniException) y sus indices
+ * @Index : Indices compuestos para las busquedas y la paginacion:
+ *          - (active, id)         : listados por estado con paginacion por cursor
+ *          - (promotion, active)  : filtro por promocion
+ *          - (last_name, first_name), (first_name) : busqueda por prefijo de nombre
+ *          - (date)               : filtro por rango de fechas
  * @Id : Marca el campo como clave primaria
- * @GeneratedValue : Genera automaticamente el ID (auto-increment)
+ * @GeneratedValue : Genera automaticamente el ID a partir de una secuencia
+ * @SequenceGenerator : Reserva bloques de IDs (allocationSize) para poder
+ *                      agrupar los INSERT en lotes JDBC (con IDENTITY no es posible)
+ *                      db/students-seq-h2.sql la adelanta si ya hay IDs mayores
+ *                      (bases creadas con IDENTITY o snapshots restaurados)
  * @Column : Configura las propiedades de la columna en la BD
+ * @Version : Control de concurrencia optimista; Hibernate incrementa el valor en
+ *            cada UPDATE y falla si otro proceso modifico la fila antes (se usa como ETag)
  * 
  * CAMPOS REQUERIDOS SEGUN EL ENUNCIADO:
  * - dni: Documento Nacional de Identidad (String)
@@ -26,17 +38,32 @@ import java.time.LocalDateTime;
  * - date: Fecha y hora del momento (LocalDateTime)
  */
 @Entity
-@Table(name = "students")
+@Table(name = "students", uniqueConstraints = {
+    @UniqueConstraint(name = Student.DNI_CONSTRAINT, columnNames = "dni")
+}, indexes = {
+    @Index(name = "idx_students_active_id", columnList = "active, id"),
+    @Index(name = "idx_students_promotion_active", columnList = "promotion, active"),
+    @Index(name = "idx_students_last_first", columnList = "last_name, first_name"),
+    @Index(name = "idx_students_first_name", columnList = "first_name"),
+    @Index(name = "idx_students_date", columnList = "date")
+})
 @Schema(description = "Entidad que representa un estudiante en el sistema")
 public class Student {
 
+    /** Nombre de la restriccion unique de la columna dni (igual que en db/schema-h2.sql) */
+    public static final String DNI_CONSTRAINT = "uk_students_dni";
+
+    /** IDs reservados por cada llamada a la secuencia students_seq */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "student_seq")
+    @SequenceGenerator(name = "student_seq", sequenceName = "students_seq", allocationSize = ID_ALLOCATION_SIZE)
     @Schema(description = "ID unico del estudiante (generado automaticamente)", example = "1", accessMode = Schema.AccessMode.READ_ONLY)
     private Long id;
 
     @NotBlank(message = "El DNI es obligatorio")
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     @Schema(description = "Documento Nacional de Identidad del estudiante (debe ser unico)", example = "87654321", required = true)
     private String dni;
 
@@ -63,6 +90,10 @@ public class Student {
     @Schema(description = "Estado del registro (true = activo, false = eliminado)", example = "true", accessMode = Schema.AccessMode.READ_ONLY)
     private Boolean active = true;
 
+    @Version
+    @Schema(description = "Version del registro (se incrementa en cada modificacion, se usa como ETag)", example = "0", accessMode = Schema.AccessMode.READ_ONLY)
+    private Long version;
+
     // Constructor vacio requerido por JPA
     public Student() {
         this.active = true;
@@ -133,4 +164,12 @@ public class Student {
     public void setActive(Boolean active) {
         this.active = active;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
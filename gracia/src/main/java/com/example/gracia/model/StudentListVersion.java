@@ -0,0 +1,36 @@
+package com.example.gracia.model;
+
+import jakarta.persistence.*;
+
+/**
+ * ENTIDAD STUDENTLISTVERSION - CONTADOR DE CAMBIOS DE LOS LISTADOS
+ *
+ * Representa la tabla "student_list_version": un contador por fila (shard) que se
+ * incrementa en la misma transaccion que cada escritura sobre students o students_archive
+ * (ver StudentListVersionTracker). La suma de todas las filas solo crece, por lo que
+ * identifica sin ambiguedad el estado de los listados y se usa como su ETag.
+ *
+ * Se reparte en varias filas para que escrituras simultaneas no esperen el bloqueo de una sola.
+ */
+@Entity
+@Table(name = "student_list_version")
+public class StudentListVersion {
+
+    @Id
+    private Integer shard;
+
+    @Column(nullable = false)
+    private Long version;
+
+    // Constructor vacio requerido por JPA
+    public StudentListVersion() {
+    }
+
+    public Integer getShard() {
+        return shard;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.gracia.repository;
+
+import com.example.gracia.model.ArchivedStudent;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * REPOSITORIO DE ESTUDIANTES ARCHIVADOS (tabla students_archive)
+ *
+ * Los movimientos entre students y students_archive se hacen con sentencias
+ * INSERT ... SELECT nativas: las filas no pasan por memoria y se conservan
+ * el ID, la version y la fecha originales.
+ */
+@Repository
+public interface ArchivedStudentRepository extends JpaRepository<ArchivedStudent, Long> {
+
+    /**
+     * Busca un estudiante archivado bloqueando la fila hasta el fin de la transaccion
+     * SQL: SELECT * FROM students_archive WHERE id = ? FOR UPDATE
+     * Dos restauraciones simultaneas del mismo estudiante se ejecutan una despues de la otra.
+     *
+     * @param id ID del estudiante
+     * @return Optional con el estudiante archivado si existe
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM ArchivedStudent a WHERE a.id = :id")
+    Optional<ArchivedStudent> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Copia estudiantes de students a students_archive
+     * SQL: INSERT INTO students_archive (...) SELECT ... FROM students WHERE id IN (...)
+     *
+     * @param ids IDs de los estudiantes a archivar
+     * @param archivedAt fecha de archivado
+     * @return cantidad de filas copiadas
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO students_archive (id, dni, first_name, last_name, promotion, date, version, archived_at) "
+            + "SELECT id, dni, first_name, last_name, promotion, date, version, :archivedAt FROM students WHERE id IN :ids",
+            nativeQuery = true)
+    int copyFromStudents(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+
+    /**
+     * Copia un estudiante archivado de vuelta a students como activo
+     * Incrementa la version: el estudiante restaurado debe tener un ETag distinto al archivado.
+     * SQL: INSERT INTO students (...) SELECT ..., TRUE, version + 1 FROM students_archive WHERE id = ?
+     *
+     * @param id ID del estudiante
+     * @param date fecha de la restauracion
+     * @return cantidad de filas copiadas (0 o 1)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO students (id, dni, first_name, last_name, promotion, date, active, version) "
+            + "SELECT id, dni, first_name, last_name, promotion, :date, TRUE, COALESCE(version, 0) + 1 "
+            + "FROM students_archive WHERE id = :id",
+            nativeQuery = true)
+    int copyToStudents(@Param("id") Long id, @Param("date") LocalDateTime date);
+
+    /**
+     * Obtiene solo el DNI de un estudiante archivado
+     * SQL: SELECT dni FROM students_archive WHERE id = ?
+     *
+     * @param id ID del estudiante
+     * @return Optional con el DNI si el estudiante esta archivado
+     */
+    @Query("SELECT a.dni FROM ArchivedStudent a WHERE a.id = :id")
+    Optional<String> findDniById(@Param("id") Long id);
+
+    /**
+     * Elimina un estudiante archivado con una sola sentencia
+     * SQL: DELETE FROM students_archive WHERE id = ?
+     *
+     * @param id ID del estudiante
+     * @return cantidad de filas eliminadas (0 o 1)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM ArchivedStudent a WHERE a.id = :id")
+    int deleteArchivedById(@Param("id") Long id);
+}
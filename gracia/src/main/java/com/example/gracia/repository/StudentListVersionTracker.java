@@ -0,0 +1,97 @@
+package com.example.gracia.repository;
+
+import com.example.gracia.event.StudentChangeEvent;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Contador de cambios de los listados de estudiantes (ETag de GET / y GET /all)
+ *
+ * Cada StudentChangeEvent se publica dentro de la transaccion de la escritura; este
+ * listener (sincrono, no transaccional) suma 1 a una fila de student_list_version en esa
+ * misma transaccion, una sola vez por transaccion aunque publique muchos eventos
+ * (importaciones, lotes, archivo). Asi el contador cambia exactamente cuando el cambio
+ * se vuelve visible y nunca vuelve a un valor anterior, a diferencia de una huella
+ * calculada con agregados de la tabla (cantidad, ID maximo, suma de versiones).
+ *
+ * La fila 0 se inicializa con la hora actual en microsegundos: si la base se recrea
+ * (H2 en memoria), el contador no repite valores entregados antes del reinicio.
+ */
+@Component
+public class StudentListVersionTracker implements SmartInitializingSingleton {
+
+    /** Filas del contador; cada transaccion incrementa una al azar */
+    static final int SHARDS = 16;
+
+    private static final String BUMPED = StudentListVersionTracker.class.getName() + ".BUMPED";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Crea las filas del contador que falten
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (int shard = 0; shard < SHARDS; shard++) {
+                Integer exists = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM student_list_version WHERE shard = ?", Integer.class, shard);
+                if (exists == null || exists == 0) {
+                    long initial = shard == 0 ? System.currentTimeMillis() * 1000 : 0;
+                    jdbcTemplate.update("INSERT INTO student_list_version (shard, version) VALUES (?, ?)", shard, initial);
+                }
+            }
+        });
+    }
+
+    /**
+     * @return ETag debil de los listados, por ejemplo W/"1718000000000123"
+     */
+    public String currentEtag() {
+        Long version = jdbcTemplate.queryForObject("SELECT COALESCE(SUM(version), 0) FROM student_list_version", Long.class);
+        return "W/\"" + version + "\"";
+    }
+
+    /**
+     * Incrementa el contador en la transaccion de la escritura
+     */
+    @EventListener
+    public void onStudentChange(StudentChangeEvent event) {
+        increment();
+    }
+
+    /**
+     * Incrementa el contador una vez por transaccion (o con su propia sentencia si no hay transaccion).
+     * Las escrituras que no publican StudentChangeEvent (restaurar un snapshot) lo llaman directamente.
+     */
+    public void increment() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && TransactionSynchronizationManager.isActualTransactionActive()) {
+            if (TransactionSynchronizationManager.hasResource(BUMPED)) {
+                return;
+            }
+            TransactionSynchronizationManager.bindResource(BUMPED, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(BUMPED);
+                }
+            });
+        }
+        jdbcTemplate.update("UPDATE student_list_version SET version = version + 1 WHERE shard = ?",
+            ThreadLocalRandom.current().nextInt(SHARDS));
+    }
+}
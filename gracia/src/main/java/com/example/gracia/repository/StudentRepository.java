@@ -1,11 +1,25 @@
 package com.example.gracia.repository;
 
+import com.example.gracia.dto.StudentSummary;
 import com.example.gracia.model.Student;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * REPOSITORIO DE ESTUDIANTES
@@ -21,12 +35,15 @@ import java.util.Optional;
  * - count() : Cuenta el total de estudiantes (SELECT COUNT(*))
  * - existsById(Long) : Verifica si existe un estudiante (SELECT EXISTS)
  * 
+ * METODOS HEREDADOS DE JpaSpecificationExecutor:
+ * - findAll(Specification, Pageable) : Busqueda con filtros dinamicos (ver StudentSpecifications)
+ * 
  * METODOS PERSONALIZADOS:
  * Spring Data JPA genera automaticamente la implementacion basandose
  * en el nombre del metodo (Query Methods)
  */
 @Repository
-public interface StudentRepository extends JpaRepository<Student, Long> {
+public interface StudentRepository extends JpaRepository<Student, Long>, JpaSpecificationExecutor<Student> {
     
     /**
      * Busca un estudiante por su DNI
@@ -54,4 +71,192 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
      * @return lista de estudiantes que coinciden con el estado
      */
     List<Student> findByActive(Boolean active);
+
+    /**
+     * Resumen (ID, DNI y nombre completo) de los estudiantes con el estado dado
+     * Solo lee esas columnas: SELECT id, dni, first_name || ' ' || last_name FROM students WHERE active = ?
+     *
+     * @param active true para estudiantes activos, false para inactivos
+     * @return resumenes ordenados por ID
+     */
+    @Query("SELECT new com.example.gracia.dto.StudentSummary(s.id, s.dni, CONCAT(s.firstName, ' ', s.lastName)) "
+            + "FROM Student s WHERE s.active = :active ORDER BY s.id")
+    List<StudentSummary> findSummariesByActive(@Param("active") Boolean active);
+
+    /**
+     * Resumen de todos los estudiantes (incluyendo inactivos)
+     *
+     * @return resumenes ordenados por ID
+     */
+    @Query("SELECT new com.example.gracia.dto.StudentSummary(s.id, s.dni, CONCAT(s.firstName, ' ', s.lastName)) "
+            + "FROM Student s ORDER BY s.id")
+    List<StudentSummary> findAllSummaries();
+
+    /**
+     * Pagina por cursor (keyset) sobre el ID, solo estudiantes con el estado dado
+     * Spring genera automaticamente:
+     * SELECT * FROM students WHERE active = ? AND id > ? ORDER BY id ASC LIMIT ?
+     *
+     * A diferencia de OFFSET, el costo no crece con el numero de pagina:
+     * la consulta siempre empieza en el indice de la clave primaria.
+     *
+     * @param active estado de los estudiantes a devolver
+     * @param id ultimo ID de la pagina anterior (0 para la primera pagina)
+     * @param limit tamano maximo de la pagina
+     * @return estudiantes ordenados por ID ascendente
+     */
+    List<Student> findByActiveAndIdGreaterThanOrderByIdAsc(Boolean active, Long id, Limit limit);
+
+    /**
+     * Pagina por cursor (keyset) sobre el ID, incluyendo inactivos
+     * Spring genera automaticamente:
+     * SELECT * FROM students WHERE id > ? ORDER BY id ASC LIMIT ?
+     *
+     * @param id ultimo ID de la pagina anterior (0 para la primera pagina)
+     * @param limit tamano maximo de la pagina
+     * @return estudiantes ordenados por ID ascendente
+     */
+    List<Student> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * Recorre los estudiantes con el estado dado como un Stream respaldado por un cursor JDBC
+     * Debe consumirse dentro de una transaccion y cerrarse al terminar.
+     *
+     * @param active estado de los estudiantes a recorrer
+     * @return stream de estudiantes ordenados por ID
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT s FROM Student s WHERE s.active = :active ORDER BY s.id")
+    Stream<Student> streamByActive(@Param("active") Boolean active);
+
+    /**
+     * Recorre los pares (DNI, ID) de todos los estudiantes, incluyendo inactivos
+     * Solo lee dos columnas; se usa para cargar StudentDniIndex al arrancar.
+     * Debe consumirse dentro de una transaccion y cerrarse al terminar.
+     *
+     * @return stream de arreglos [dni, id]
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT s.dni, s.id FROM Student s")
+    Stream<Object[]> streamDniAndId();
+
+    /**
+     * Cuenta los estudiantes por promocion, estado y dia para las estadisticas en memoria (StudentStatistics)
+     * SQL: SELECT promotion, active, CAST(date AS DATE), COUNT(*) FROM students GROUP BY ...
+     * Devuelve una fila por grupo y no una por estudiante.
+     *
+     * @return arreglos [promotion, active, dia (LocalDate o null), cantidad]
+     */
+    @Query("SELECT s.promotion, s.active, CAST(s.date AS LocalDate), COUNT(s) FROM Student s "
+            + "GROUP BY s.promotion, s.active, CAST(s.date AS LocalDate)")
+    List<Object[]> countByPromotionActiveAndDay();
+
+    /**
+     * Recorre los campos que usa el indice de nombres en memoria (StudentNameIndex)
+     * Debe consumirse dentro de una transaccion y cerrarse al terminar.
+     *
+     * @return stream de arreglos [id, dni, firstName, lastName, active]
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT s.id, s.dni, s.firstName, s.lastName, s.active FROM Student s")
+    Stream<Object[]> streamNameIndexRows();
+
+    /**
+     * Recorre todos los estudiantes (incluyendo inactivos) como un Stream
+     * Debe consumirse dentro de una transaccion y cerrarse al terminar.
+     *
+     * @return stream de estudiantes ordenados por ID
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT s FROM Student s ORDER BY s.id")
+    Stream<Student> streamAll();
+
+    /**
+     * Busca los estudiantes cuyos DNI estan en la coleccion dada
+     * Spring genera automaticamente: SELECT * FROM students WHERE dni IN (?, ?, ...)
+     * Se usa en la importacion masiva para resolver todos los DNI de un bloque en una sola consulta.
+     *
+     * @param dnis DNI a buscar
+     * @return estudiantes existentes con esos DNI
+     */
+    List<Student> findByDniIn(Collection<String> dnis);
+
+    /**
+     * Cambia el estado de un estudiante con una sola sentencia, sin cargar la entidad
+     * Solo afecta la fila si su estado actual es distinto al nuevo, por lo que
+     * el resultado indica si hubo una transicion real (activo <-> inactivo).
+     * Incrementa la version manualmente: las sentencias UPDATE directas no pasan por @Version.
+     * SQL: UPDATE students SET active = ?, date = ?, version = version + 1 WHERE id = ? AND active <> ?
+     *
+     * @param id ID del estudiante
+     * @param active nuevo estado
+     * @param date fecha de la modificacion
+     * @return cantidad de filas modificadas (0 o 1)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Student s SET s.active = :active, s.date = :date, s.version = s.version + 1 "
+            + "WHERE s.id = :id AND s.active <> :active")
+    int updateActiveById(@Param("id") Long id, @Param("active") Boolean active, @Param("date") LocalDateTime date);
+
+    /**
+     * Cambia el estado de varios estudiantes con una sola sentencia
+     * SQL: UPDATE students SET active = ?, date = ?, version = version + 1 WHERE id IN (...) AND active <> ?
+     *
+     * @param ids IDs de los estudiantes
+     * @param active nuevo estado
+     * @param date fecha de la modificacion
+     * @return cantidad de filas modificadas
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Student s SET s.active = :active, s.date = :date, s.version = s.version + 1 "
+            + "WHERE s.id IN :ids AND s.active <> :active")
+    int updateActiveByIdIn(@Param("ids") Collection<Long> ids, @Param("active") Boolean active,
+                           @Param("date") LocalDateTime date);
+
+    /**
+     * Obtiene el DNI y los campos que agrupan las estadisticas de los IDs dados, sin cargar entidades
+     * SQL: SELECT id, dni, promotion, date, active FROM students WHERE id IN (...)
+     * Se usa antes de los UPDATE/DELETE directos: indica que filas cambiaran y su estado
+     * anterior viaja en el StudentChangeEvent.
+     *
+     * @param ids IDs a revisar
+     * @return arreglos [id, dni, promotion, date, active] de los IDs que existen
+     */
+    @Query("SELECT s.id, s.dni, s.promotion, s.date, s.active FROM Student s WHERE s.id IN :ids")
+    List<Object[]> findStatesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Elimina fisicamente un estudiante con una sola sentencia, sin cargar la entidad
+     * SQL: DELETE FROM students WHERE id = ?
+     *
+     * @param id ID del estudiante
+     * @return cantidad de filas eliminadas (0 o 1)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Student s WHERE s.id = :id")
+    int hardDeleteById(@Param("id") Long id);
+
+    /**
+     * Elimina fisicamente varios estudiantes con una sola sentencia
+     * SQL: DELETE FROM students WHERE id IN (...)
+     *
+     * @param ids IDs de los estudiantes
+     * @return cantidad de filas eliminadas
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Student s WHERE s.id IN :ids")
+    int hardDeleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Obtiene los IDs y DNI de los estudiantes inactivos desde antes de la fecha dada,
+     * bloqueando las filas hasta el fin de la transaccion (SELECT ... FOR UPDATE)
+     * Se usa al archivar: una restauracion simultanea espera a que el lote termine.
+     *
+     * @param cutoff fecha limite (se toman los inactivos con date anterior)
+     * @param limit cantidad maxima de estudiantes
+     * @return arreglos [id, dni, promotion, date] ordenados por ID
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s.id, s.dni, s.promotion, s.date FROM Student s WHERE s.active = false AND s.date < :cutoff ORDER BY s.id")
+    List<Object[]> findInactiveSinceForUpdate(@Param("cutoff") LocalDateTime cutoff, Limit limit);
 }
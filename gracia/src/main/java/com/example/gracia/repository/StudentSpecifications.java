@@ -0,0 +1,71 @@
+package com.example.gracia.repository;
+
+import com.example.gracia.dto.StudentSearchCriteria;
+import com.example.gracia.model.Student;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * FILTROS DINAMICOS DE ESTUDIANTES (JPA Criteria)
+ * 
+ * Construye el WHERE de la busqueda solo con los criterios presentes.
+ * Los prefijos usan LIKE 'texto%' (sin funciones sobre la columna) para que
+ * la base de datos pueda recorrer el indice por rango en lugar de la tabla completa.
+ */
+public final class StudentSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private StudentSpecifications() {
+    }
+
+    /**
+     * @param criteria filtros de busqueda (los nulos o vacios se ignoran)
+     * @return especificacion que combina todos los filtros con AND
+     */
+    public static Specification<Student> matching(StudentSearchCriteria criteria) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (criteria.getPromotion() != null) {
+                predicates.add(cb.equal(root.get("promotion"), criteria.getPromotion()));
+            }
+            if (criteria.getActive() != null) {
+                predicates.add(cb.equal(root.get("active"), criteria.getActive()));
+            }
+            if (hasText(criteria.getLastNamePrefix())) {
+                predicates.add(cb.like(root.get("lastName"), likePrefix(criteria.getLastNamePrefix()), LIKE_ESCAPE));
+            }
+            if (hasText(criteria.getFirstNamePrefix())) {
+                predicates.add(cb.like(root.get("firstName"), likePrefix(criteria.getFirstNamePrefix()), LIKE_ESCAPE));
+            }
+            if (criteria.getFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("date"), criteria.getFrom()));
+            }
+            if (criteria.getTo() != null) {
+                predicates.add(cb.lessThan(root.get("date"), criteria.getTo()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    /**
+     * Escapa los comodines de LIKE del texto recibido y agrega % al final
+     */
+    private static String likePrefix(String prefix) {
+        StringBuilder pattern = new StringBuilder(prefix.length() + 1);
+        for (char c : prefix.trim().toCharArray()) {
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                pattern.append(LIKE_ESCAPE);
+            }
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.gracia.service;
+
+import com.example.gracia.event.StudentChangeEvent;
+import com.example.gracia.repository.ArchivedStudentRepository;
+import com.example.gracia.repository.StudentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servicio que archiva los estudiantes eliminados logicamente hace mucho tiempo
+ *
+ * Cada "student.archive.interval" mueve a students_archive los estudiantes inactivos
+ * cuya fecha (la de la eliminacion logica) es anterior a "student.archive.inactive-after".
+ * Asi la tabla students, su restriccion unique de DNI y sus indices solo cubren datos vigentes.
+ *
+ * Por lote de "student.archive.batch-size" estudiantes, en una transaccion:
+ * 1. SELECT ... FOR UPDATE de los IDs a archivar (una restauracion simultanea espera)
+ * 2. INSERT INTO students_archive ... SELECT ... FROM students
+ * 3. DELETE FROM students WHERE id IN (...)
+ * y se publica ARCHIVED por estudiante para que la cache, los indices y las
+ * estadisticas en memoria lo quiten.
+ *
+ * La ejecucion periodica se activa con student.archive.enabled=true (desactivada por
+ * defecto); POST /archive la ejecuta a demanda con el token de administracion.
+ *
+ * GET /{id} y PATCH /{id}/restore buscan en el archivo los IDs que no estan en students
+ * (ver StudentService).
+ */
+@Service
+public class StudentArchiveService implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentArchiveService.class);
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private ArchivedStudentRepository archivedStudentRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final Duration inactiveAfter;
+    private final int batchSize;
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduledExecutorService scheduler;
+    private Counter archived;
+
+    public StudentArchiveService(PlatformTransactionManager transactionManager,
+                                 @Value("${student.archive.enabled:false}") boolean enabled,
+                                 @Value("${student.archive.inactive-after:365d}") Duration inactiveAfter,
+                                 @Value("${student.archive.interval:1h}") Duration interval,
+                                 @Value("${student.archive.batch-size:500}") int batchSize) {
+        this.inactiveAfter = inactiveAfter;
+        this.batchSize = batchSize;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "student-archive");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (enabled) {
+            scheduler.scheduleWithFixedDelay(this::runScheduled, interval.toMillis(), interval.toMillis(),
+                    TimeUnit.MILLISECONDS);
+            logger.info("Archivar: Estudiantes inactivos por mas de {} se archivan cada {}", inactiveAfter, interval);
+        }
+    }
+
+    /**
+     * Archiva ahora todos los estudiantes inactivos por mas de "student.archive.inactive-after"
+     * @return cantidad de estudiantes archivados
+     */
+    public synchronized long archive() {
+        long start = System.nanoTime();
+        LocalDateTime cutoff = LocalDateTime.now().minus(inactiveAfter);
+        long total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            total += moved;
+        } while (moved == batchSize);
+        if (total > 0) {
+            logger.info("Archivar: {} estudiantes inactivos desde antes de {} archivados en {} ms",
+                    total, cutoff, (System.nanoTime() - start) / 1_000_000);
+        }
+        return total;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        archived = Counter.builder("student.archive.archived")
+                .description("Estudiantes movidos a students_archive")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void runScheduled() {
+        try {
+            archive();
+        } catch (RuntimeException e) {
+            logger.error("Archivar: Error archivando estudiantes inactivos", e);
+        }
+    }
+
+    /**
+     * Mueve un lote dentro de la transaccion en curso
+     * @return cantidad de estudiantes movidos
+     */
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<Object[]> rows = studentRepository.findInactiveSinceForUpdate(cutoff, Limit.of(batchSize));
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            ids.add((Long) row[0]);
+        }
+        archivedStudentRepository.copyFromStudents(ids, LocalDateTime.now());
+        studentRepository.hardDeleteByIdIn(ids);
+        for (Object[] row : rows) {
+            eventPublisher.publishEvent(new StudentChangeEvent(StudentChangeEvent.Type.ARCHIVED,
+                    (Long) row[0], null, (String) row[1],
+                    new StudentChangeEvent.State((Integer) row[2], (LocalDateTime) row[3], false)));
+        }
+        if (archived != null) {
+            archived.increment(rows.size());
+        }
+        return rows.size();
+    }
+}
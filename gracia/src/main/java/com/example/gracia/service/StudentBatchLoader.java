@@ -0,0 +1,243 @@
+package com.example.gracia.service;
+
+import com.example.gracia.config.ReadYourWrites;
+import com.example.gracia.model.Student;
+import com.example.gracia.repository.StudentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Agrupador de busquedas por ID (micro-batching y single-flight)
+ *
+ * Las busquedas por ID que llegan al mismo tiempo desde distintas peticiones se
+ * juntan durante "student.batch-loader.window" (o hasta "max-batch" IDs) y se
+ * resuelven con una sola consulta WHERE id IN (...). Si un ID ya esta pedido y
+ * su consulta no termino, la nueva busqueda espera ese mismo resultado en lugar
+ * de generar otra consulta.
+ *
+ * Las busquedas que deben leer de la base principal (ReadYourWrites) no se agrupan,
+ * porque la consulta del lote se ejecuta en otro hilo.
+ *
+ * Metricas: student.batch_loader.lookups (result=batched/coalesced) y
+ * student.batch_loader.batch (IDs por consulta).
+ */
+@Service
+public class StudentBatchLoader implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentBatchLoader.class);
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxBatch;
+    private final long timeoutNanos;
+    private final TransactionTemplate readOnlyTemplate;
+    private final ScheduledThreadPoolExecutor executor;
+    private final Map<Long, CompletableFuture<Student>> inFlight = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+    private List<Long> batch = new ArrayList<>();
+    private Counter batched;
+    private Counter coalesced;
+    private DistributionSummary batchSizes;
+
+    public StudentBatchLoader(PlatformTransactionManager transactionManager,
+                              @Value("${student.batch-loader.enabled:true}") boolean enabled,
+                              @Value("${student.batch-loader.window:2ms}") Duration window,
+                              @Value("${student.batch-loader.max-batch:500}") int maxBatch,
+                              @Value("${student.batch-loader.threads:4}") int threads,
+                              @Value("${student.batch-loader.timeout:5s}") Duration timeout) {
+        this.enabled = enabled;
+        this.windowNanos = window.toNanos();
+        this.maxBatch = maxBatch;
+        this.timeoutNanos = timeout.toNanos();
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ScheduledThreadPoolExecutor(threads, runnable -> {
+            Thread thread = new Thread(runnable, "student-batch-loader-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (enabled) {
+            logger.info("Lotes: Busquedas por ID agrupadas cada {} (hasta {} IDs por consulta)", window, maxBatch);
+        }
+    }
+
+    /**
+     * Busca un estudiante por ID, compartiendo la consulta con otras busquedas simultaneas
+     * @param id ID del estudiante
+     * @return el estudiante o null si no existe
+     */
+    public Student load(Long id) {
+        if (!enabled || ReadYourWrites.isPrimaryRequired()) {
+            return studentRepository.findById(id).orElse(null);
+        }
+        return await(List.of(request(id))).get(0);
+    }
+
+    /**
+     * Busca varios estudiantes por ID; los IDs se suman al lote en curso
+     * @param ids IDs a buscar
+     * @return estudiantes encontrados por ID (los inexistentes no se incluyen)
+     */
+    public Map<Long, Student> loadAll(Collection<Long> ids) {
+        Map<Long, Student> found = new LinkedHashMap<>();
+        if (!enabled || ReadYourWrites.isPrimaryRequired()) {
+            studentRepository.findAllById(ids).forEach(student -> found.put(student.getId(), student));
+            return found;
+        }
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<CompletableFuture<Student>> futures = new ArrayList<>(distinct.size());
+        for (Long id : distinct) {
+            futures.add(request(id));
+        }
+        List<Student> students = await(futures);
+        for (int i = 0; i < distinct.size(); i++) {
+            if (students.get(i) != null) {
+                found.put(distinct.get(i), students.get(i));
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        batched = Counter.builder("student.batch_loader.lookups").tag("result", "batched")
+                .description("Busquedas por ID agregadas a un lote").register(registry);
+        coalesced = Counter.builder("student.batch_loader.lookups").tag("result", "coalesced")
+                .description("Busquedas por ID que reutilizaron una consulta en curso").register(registry);
+        batchSizes = DistributionSummary.builder("student.batch_loader.batch")
+                .description("IDs buscados por consulta").register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Devuelve la consulta en curso para el ID o lo agrega al lote pendiente
+     */
+    private CompletableFuture<Student> request(Long id) {
+        CompletableFuture<Student> created = new CompletableFuture<>();
+        CompletableFuture<Student> existing = inFlight.putIfAbsent(id, created);
+        if (existing != null) {
+            increment(coalesced);
+            return existing;
+        }
+        increment(batched);
+        List<Long> full = null;
+        synchronized (lock) {
+            batch.add(id);
+            if (batch.size() >= maxBatch) {
+                full = batch;
+                batch = new ArrayList<>();
+            } else if (batch.size() == 1) {
+                executor.schedule(this::flush, windowNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        if (full != null) {
+            List<Long> ids = full;
+            executor.execute(() -> execute(ids));
+        }
+        return created;
+    }
+
+    /**
+     * Ejecuta el lote pendiente al vencer la ventana
+     */
+    private void flush() {
+        List<Long> ids;
+        synchronized (lock) {
+            if (batch.isEmpty()) {
+                return;
+            }
+            ids = batch;
+            batch = new ArrayList<>();
+        }
+        execute(ids);
+    }
+
+    private void execute(List<Long> ids) {
+        if (batchSizes != null) {
+            batchSizes.record(ids.size());
+        }
+        Map<Long, Student> found = new HashMap<>();
+        try {
+            readOnlyTemplate.executeWithoutResult(status ->
+                    studentRepository.findAllById(ids).forEach(student -> found.put(student.getId(), student)));
+        } catch (RuntimeException e) {
+            logger.error("Lotes: Error buscando {} estudiantes por ID", ids.size(), e);
+            for (Long id : ids) {
+                CompletableFuture<Student> future = inFlight.remove(id);
+                if (future != null) {
+                    future.completeExceptionally(e);
+                }
+            }
+            return;
+        }
+        for (Long id : ids) {
+            CompletableFuture<Student> future = inFlight.remove(id);
+            if (future != null) {
+                future.complete(found.get(id));
+            }
+        }
+    }
+
+    private List<Student> await(List<CompletableFuture<Student>> futures) {
+        long deadline = System.nanoTime() + timeoutNanos;
+        List<Student> students = new ArrayList<>(futures.size());
+        try {
+            for (CompletableFuture<Student> future : futures) {
+                students.add(future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataAccessResourceFailureException("Busqueda por ID interrumpida", e);
+        } catch (TimeoutException e) {
+            throw new QueryTimeoutException("Tiempo agotado esperando la busqueda por ID", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new DataAccessResourceFailureException("Error en la busqueda por ID", e.getCause());
+        }
+        return students;
+    }
+
+    private static void increment(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+}
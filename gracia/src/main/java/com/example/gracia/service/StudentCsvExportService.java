@@ -0,0 +1,112 @@
+package com.example.gracia.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+
+/**
+ * Exportacion masiva de estudiantes en CSV
+ *
+ * Las filas se leen con JDBC y un cursor y se escriben directamente en la respuesta,
+ * sin crear entidades ni construir la lista en memoria.
+ * La cabecera incluye las columnas de POST /bulk/csv, por lo que el archivo
+ * exportado se puede volver a importar.
+ */
+@Service
+public class StudentCsvExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentCsvExportService.class);
+
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String HEADER = "id,dni,firstName,lastName,promotion,date,active\n";
+    private static final String SELECT_SQL =
+        "SELECT id, dni, first_name, last_name, promotion, date, active FROM students";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate readOnlyTemplate;
+
+    public StudentCsvExportService(PlatformTransactionManager transactionManager) {
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Escribe los estudiantes en CSV (UTF-8) ordenados por ID
+     * @param output destino del CSV (no se cierra)
+     * @param includeInactive true para incluir estudiantes eliminados logicamente
+     * @return cantidad de estudiantes exportados
+     */
+    public long export(OutputStream output, boolean includeInactive) throws IOException {
+        long start = System.nanoTime();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 64 * 1024);
+        String sql = SELECT_SQL + (includeInactive ? "" : " WHERE active = TRUE") + " ORDER BY id";
+        StringBuilder line = new StringBuilder(128);
+        long[] count = {0};
+        writer.write(HEADER);
+        try {
+            readOnlyTemplate.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql);
+                statement.setFetchSize(FETCH_SIZE);
+                return statement;
+            }, rs -> {
+                line.setLength(0);
+                line.append(rs.getLong(1)).append(',');
+                appendValue(line, rs.getString(2)).append(',');
+                appendValue(line, rs.getString(3)).append(',');
+                appendValue(line, rs.getString(4)).append(',');
+                line.append(rs.getInt(5)).append(',');
+                Timestamp date = rs.getTimestamp(6);
+                if (date != null) {
+                    line.append(date.toLocalDateTime());
+                }
+                line.append(',').append(rs.getBoolean(7)).append('\n');
+                try {
+                    writer.append(line);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                count[0]++;
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        logger.info("Exportar: {} estudiantes exportados en CSV en {} ms", count[0], (System.nanoTime() - start) / 1_000_000);
+        return count[0];
+    }
+
+    /**
+     * Agrega un valor de texto, entre comillas dobles solo si contiene coma, comillas o saltos de linea
+     */
+    private static StringBuilder appendValue(StringBuilder line, String value) {
+        if (value == null) {
+            return line;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            return line.append(value);
+        }
+        return line.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+}
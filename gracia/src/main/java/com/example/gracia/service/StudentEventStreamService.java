@@ -0,0 +1,256 @@
+package com.example.gracia.service;
+
+import com.example.gracia.event.StudentChangeLog;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servicio que envia los cambios de estudiantes por Server-Sent Events
+ *
+ * Cada suscriptor tiene su propio cursor sobre StudentChangeLog:
+ * - Al registrarse un cambio solo se programa el envio; el escritor nunca espera a los clientes
+ * - Cada suscriptor tiene como maximo un envio en curso, en bloques de "student.events.batch-size"
+ * - Un cliente lento se queda atras sin afectar a los demas; si el buffer sobrescribe
+ *   cambios que no recibio, se le envia un evento "reset" (debe recargar el listado)
+ *   y continua desde el cambio mas antiguo disponible
+ *
+ * Cada evento SSE lleva id = "epoca-secuencia" (StudentChangeLog.cursorOf), por lo que
+ * EventSource reanuda automaticamente con Last-Event-ID al reconectarse; un id de un
+ * proceso anterior recibe reset.
+ *
+ * Los envios (cambios y heartbeats) usan un pool fijo de "student.events.sender-threads"
+ * hilos y cada suscriptor tiene como maximo una tarea en la cola, asi que ni los hilos ni
+ * la cola crecen con los clientes. Un cliente que no lee bloquea la escritura de su hilo:
+ * si una escritura lleva mas de "student.events.write-timeout", el heartbeat lo quita y
+ * deja de programarle envios (el hilo se libera cuando falla la conexion).
+ */
+@Service
+public class StudentEventStreamService implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentEventStreamService.class);
+
+    private final StudentChangeLog changeLog;
+    private final int maxSubscribers;
+    private final int batchSize;
+    private final long timeoutMillis;
+    private final long writeTimeoutNanos;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService sender;
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(daemon("student-events-heartbeat-"));
+
+    public StudentEventStreamService(StudentChangeLog changeLog,
+                                     @Value("${student.events.max-subscribers:100}") int maxSubscribers,
+                                     @Value("${student.events.batch-size:500}") int batchSize,
+                                     @Value("${student.events.timeout:30m}") Duration timeout,
+                                     @Value("${student.events.heartbeat:15s}") Duration heartbeatInterval,
+                                     @Value("${student.events.sender-threads:4}") int senderThreads,
+                                     @Value("${student.events.write-timeout:30s}") Duration writeTimeout) {
+        this.changeLog = changeLog;
+        this.maxSubscribers = maxSubscribers;
+        this.batchSize = batchSize;
+        this.timeoutMillis = timeout.toMillis();
+        this.writeTimeoutNanos = writeTimeout.toNanos();
+        this.sender = Executors.newFixedThreadPool(senderThreads, daemon("student-events-"));
+        changeLog.addListener(() -> subscribers.forEach(this::schedule));
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeats, heartbeatInterval.toMillis(),
+                heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Registra un nuevo suscriptor
+     * @param lastCursor ultimo id de evento recibido por el cliente (null para recibir solo cambios nuevos)
+     * @return el emisor SSE, o null si se alcanzo "student.events.max-subscribers"
+     */
+    public SseEmitter subscribe(String lastCursor) {
+        if (subscribers.size() >= maxSubscribers) {
+            logger.warn("Eventos: Suscripcion rechazada, se alcanzo el maximo de {} suscriptores", maxSubscribers);
+            return null;
+        }
+        SseEmitter emitter = createEmitter(timeoutMillis);
+        Long afterSequence = changeLog.parseCursor(lastCursor);
+        long cursor = afterSequence != null ? afterSequence : changeLog.latestSequence();
+        if (cursor > changeLog.latestSequence()) {
+            // Cursor posterior al ultimo cambio (de antes de un reinicio): se fija ahora, antes de
+            // que nuevos cambios lo alcancen y se salteen en silencio
+            cursor = StudentChangeLog.UNKNOWN_CURSOR;
+        }
+        Subscriber subscriber = new Subscriber(emitter, cursor);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        subscribers.add(subscriber);
+        logger.info("Eventos: Nuevo suscriptor desde la secuencia {} ({} suscriptores)", cursor, subscribers.size());
+        schedule(subscriber);
+        return emitter;
+    }
+
+    /**
+     * Crea el emisor de un suscriptor (las pruebas lo reemplazan para ver lo enviado)
+     */
+    SseEmitter createEmitter(long timeout) {
+        return new SseEmitter(timeout);
+    }
+
+    /**
+     * @return cantidad de suscriptores conectados
+     */
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (!subscriber.closed && subscriber.sending.compareAndSet(false, true)) {
+            try {
+                sender.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.sending.set(false);
+            }
+        }
+    }
+
+    /**
+     * Envia el heartbeat pendiente y todos los cambios pendientes de un suscriptor, en bloques
+     */
+    private void drain(Subscriber subscriber) {
+        try {
+            if (subscriber.heartbeatDue) {
+                subscriber.heartbeatDue = false;
+                subscriber.writeStartedNanos = System.nanoTime();
+                subscriber.emitter.send(SseEmitter.event().comment("ping"));
+            }
+            while (!subscriber.closed) {
+                StudentChangeLog.Batch batch = changeLog.readAfter(subscriber.cursor, batchSize);
+                if (batch.isTruncated()) {
+                    logger.warn("Eventos: Suscriptor atrasado, cambios anteriores a {} ya no estan en el buffer",
+                        batch.getOldestSequence());
+                    subscriber.writeStartedNanos = System.nanoTime();
+                    subscriber.emitter.send(SseEmitter.event()
+                        .name("reset")
+                        .data(Map.of("oldestSequence", batch.getOldestSequence()), MediaType.APPLICATION_JSON));
+                    subscriber.cursor = batch.getOldestSequence() - 1;
+                }
+                if (batch.getEntries().isEmpty()) {
+                    break;
+                }
+                for (StudentChangeLog.Entry entry : batch.getEntries()) {
+                    subscriber.writeStartedNanos = System.nanoTime();
+                    subscriber.emitter.send(SseEmitter.event()
+                        .id(changeLog.cursorOf(entry.getSequence()))
+                        .name(entry.getType())
+                        .data(entry.getJson(), MediaType.APPLICATION_JSON));
+                    subscriber.cursor = entry.getSequence();
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            logger.info("Eventos: Suscriptor desconectado ({})", e.getMessage());
+            remove(subscriber);
+        } finally {
+            subscriber.writeStartedNanos = 0;
+            subscriber.sending.set(false);
+        }
+        // Un cambio (o un heartbeat) pudo registrarse despues de la ultima lectura y antes de liberar el envio
+        if (!subscriber.closed && (changeLog.latestSequence() > subscriber.cursor || subscriber.heartbeatDue)) {
+            schedule(subscriber);
+        }
+    }
+
+    /**
+     * Programa un comentario para cada suscriptor (mantiene viva la conexion y detecta desconexiones)
+     * y quita a los que tienen una escritura bloqueada por mas de "student.events.write-timeout"
+     */
+    private void sendHeartbeats() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long writeStarted = subscriber.writeStartedNanos;
+            if (writeStarted != 0 && now - writeStarted > writeTimeoutNanos) {
+                drop(subscriber);
+                continue;
+            }
+            subscriber.heartbeatDue = true;
+            schedule(subscriber);
+        }
+    }
+
+    /**
+     * Quita un suscriptor con una escritura bloqueada sin tocar su emisor: completarlo
+     * esperaria a la misma escritura. El envio en curso termina con error al fallar la conexion.
+     */
+    private void drop(Subscriber subscriber) {
+        subscriber.closed = true;
+        if (subscribers.remove(subscriber)) {
+            logger.warn("Eventos: Suscriptor sin leer por mas de {} ms, se descarta ({} suscriptores)",
+                TimeUnit.NANOSECONDS.toMillis(writeTimeoutNanos), subscribers.size());
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscriber.closed = true;
+        if (subscribers.remove(subscriber)) {
+            subscriber.emitter.complete();
+            logger.info("Eventos: Suscriptor eliminado ({} suscriptores)", subscribers.size());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        subscribers.forEach(this::remove);
+        sender.shutdownNow();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("student.events.subscribers", subscribers, Set::size)
+                .description("Clientes suscritos al stream de cambios de estudiantes")
+                .register(registry);
+        Gauge.builder("student.events.sequence", changeLog, StudentChangeLog::latestSequence)
+                .description("Secuencia del ultimo cambio registrado")
+                .register(registry);
+    }
+
+    private static ThreadFactory daemon(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private volatile long cursor;
+        private volatile boolean closed;
+        private volatile boolean heartbeatDue;
+        /** nanoTime del inicio de la escritura en curso, 0 si no hay ninguna */
+        private volatile long writeStartedNanos;
+
+        private Subscriber(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+    }
+}
@@ -0,0 +1,440 @@
+package com.example.gracia.service;
+
+import com.example.gracia.cache.StudentDniIndex;
+import com.example.gracia.dto.StudentImportReport;
+import com.example.gracia.dto.StudentImportRow;
+import com.example.gracia.event.StudentChangeEvent;
+import com.example.gracia.exception.DuplicateDniException;
+import com.example.gracia.metrics.StudentMetrics;
+import com.example.gracia.model.Student;
+import com.example.gracia.repository.StudentRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Servicio de importacion masiva de estudiantes (arreglo JSON o archivo CSV)
+ *
+ * Las filas se procesan en bloques de "student.import.chunk-size":
+ * 1. Se validan las anotaciones de Student y los DNI repetidos dentro del archivo
+ * 2. Se resuelven los DNI ya registrados con el indice en memoria (StudentDniIndex):
+ *    sin upsert se rechazan sin tocar la base de datos; con upsert solo se consultan
+ *    (una consulta IN por bloque) los DNI que el indice conoce
+ * 3. Se guardan en una transaccion por bloque, con INSERT/UPDATE agrupados en lotes JDBC
+ *
+ * Si un bloque falla al guardarse, se reintenta fila por fila para
+ * informar el error exacto de cada una sin perder las demas.
+ */
+@Service
+public class StudentImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentImportService.class);
+
+    /** Columnas obligatorias de la cabecera del CSV */
+    private static final List<String> CSV_COLUMNS = List.of("dni", "firstName", "lastName", "promotion");
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private StudentMetrics studentMetrics;
+
+    @Autowired
+    private StudentDniIndex studentDniIndex;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${student.import.chunk-size:500}")
+    private int chunkSize;
+
+    public StudentImportService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Importa una lista de estudiantes recibida como arreglo JSON
+     * @param students estudiantes a importar
+     * @param upsert true para actualizar los DNI ya registrados, false para rechazarlos
+     * @return reporte con el resultado de cada fila
+     */
+    public StudentImportReport importStudents(List<Student> students, boolean upsert) {
+        logger.info("Importar: Iniciando importacion de {} estudiantes (upsert: {})", students.size(), upsert);
+        StudentImportReport report = new StudentImportReport();
+        Set<String> seenDnis = new HashSet<>();
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        int rowNumber = 0;
+        for (Student student : students) {
+            chunk.add(new ImportRow(++rowNumber, student, null));
+            if (chunk.size() >= chunkSize) {
+                processChunk(chunk, upsert, seenDnis, report);
+                chunk.clear();
+            }
+        }
+        processChunk(chunk, upsert, seenDnis, report);
+        logImportFinished(report);
+        return report;
+    }
+
+    /**
+     * Importa estudiantes desde un CSV con cabecera (dni,firstName,lastName,promotion)
+     * El archivo se lee linea a linea, por lo que solo un bloque esta en memoria a la vez.
+     * @param input contenido del CSV en UTF-8
+     * @param upsert true para actualizar los DNI ya registrados, false para rechazarlos
+     * @return reporte con el resultado de cada fila
+     * @throws IOException si no se puede leer el archivo
+     * @throws IllegalArgumentException si la cabecera no contiene las columnas requeridas
+     */
+    public StudentImportReport importCsv(InputStream input, boolean upsert) throws IOException {
+        logger.info("Importar: Iniciando importacion CSV (upsert: {})", upsert);
+        StudentImportReport report = new StudentImportReport();
+        Set<String> seenDnis = new HashSet<>();
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            Map<String, Integer> columns = parseHeader(reader.readLine());
+            int rowNumber = 0;
+            String line;
+            while ((line = readCsvRecord(reader)) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                chunk.add(parseCsvRow(++rowNumber, line, columns));
+                if (chunk.size() >= chunkSize) {
+                    processChunk(chunk, upsert, seenDnis, report);
+                    chunk.clear();
+                }
+            }
+        }
+        processChunk(chunk, upsert, seenDnis, report);
+        logImportFinished(report);
+        return report;
+    }
+
+    /**
+     * Valida y guarda un bloque de filas, agregando su resultado al reporte en orden
+     */
+    private void processChunk(List<ImportRow> chunk, boolean upsert, Set<String> seenDnis, StudentImportReport report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        StudentImportRow[] results = new StudentImportRow[chunk.size()];
+        List<Integer> pending = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            ImportRow row = chunk.get(i);
+            String error = row.error != null ? row.error : validate(row.student);
+            if (error == null && !seenDnis.add(row.student.getDni())) {
+                error = "DNI repetido dentro de la importacion";
+            }
+            if (error == null && !upsert && studentDniIndex.contains(row.student.getDni())) {
+                studentMetrics.duplicateDni("import");
+                error = "DNI ya registrado";
+            }
+            if (error != null) {
+                results[i] = StudentImportRow.rejected(row.rowNumber, row.student == null ? null : row.student.getDni(), error);
+            } else {
+                pending.add(i);
+            }
+        }
+
+        if (!pending.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> saveRows(chunk, pending, upsert, results));
+            } catch (RuntimeException e) {
+                logger.warn("Importar: Fallo el guardado por lotes de un bloque ({}), reintentando fila por fila",
+                    e.getMessage());
+                entityManager.clear();
+                for (int i : pending) {
+                    results[i] = saveSingleRow(chunk.get(i), upsert);
+                }
+            } finally {
+                entityManager.clear();
+            }
+        }
+
+        for (StudentImportRow result : results) {
+            report.add(result);
+        }
+    }
+
+    /**
+     * Guarda las filas validas de un bloque dentro de la transaccion actual
+     */
+    private void saveRows(List<ImportRow> chunk, List<Integer> pending, boolean upsert, StudentImportRow[] results) {
+        Set<String> dnis = pending.stream()
+            .map(i -> chunk.get(i).student.getDni())
+            .filter(dni -> !studentDniIndex.isReady() || studentDniIndex.contains(dni))
+            .collect(Collectors.toSet());
+        Map<String, Student> existing = new HashMap<>();
+        if (!dnis.isEmpty()) {
+            for (Student student : studentRepository.findByDniIn(dnis)) {
+                existing.put(student.getDni(), student);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Student> toInsert = new ArrayList<>(pending.size());
+        for (int i : pending) {
+            ImportRow row = chunk.get(i);
+            Student current = existing.get(row.student.getDni());
+            if (current == null) {
+                toInsert.add(newStudent(row.student, now));
+            } else if (upsert) {
+                StudentChangeEvent.State previous = StudentChangeEvent.State.of(current);
+                copyDetails(row.student, current, now);
+                eventPublisher.publishEvent(
+                    new StudentChangeEvent(StudentChangeEvent.Type.UPDATED, current.getId(), current, null, previous));
+                results[i] = new StudentImportRow(row.rowNumber, current.getDni(), StudentImportRow.Status.UPDATED,
+                    current.getId(), null);
+            } else {
+                studentMetrics.duplicateDni("import");
+                results[i] = StudentImportRow.rejected(row.rowNumber, current.getDni(), "DNI ya registrado");
+            }
+        }
+
+        List<Student> saved = studentRepository.saveAll(toInsert);
+        entityManager.flush();
+        for (Student student : saved) {
+            eventPublisher.publishEvent(
+                new StudentChangeEvent(StudentChangeEvent.Type.CREATED, student.getId(), student, null));
+        }
+
+        int next = 0;
+        for (int i : pending) {
+            if (results[i] == null) {
+                Student student = saved.get(next++);
+                results[i] = new StudentImportRow(chunk.get(i).rowNumber, student.getDni(),
+                    StudentImportRow.Status.CREATED, student.getId(), null);
+            }
+        }
+    }
+
+    /**
+     * Guarda una sola fila en su propia transaccion (camino de respaldo cuando falla un lote)
+     */
+    private StudentImportRow saveSingleRow(ImportRow row, boolean upsert) {
+        try {
+            return transactionTemplate.execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                Student current = studentRepository.findByDni(row.student.getDni()).orElse(null);
+                if (current == null) {
+                    // Copia nueva: la del lote fallido pudo quedar con ID y version asignados
+                    Student student = studentRepository.saveAndFlush(newStudent(row.student, now));
+                    eventPublisher.publishEvent(
+                        new StudentChangeEvent(StudentChangeEvent.Type.CREATED, student.getId(), student, null));
+                    return new StudentImportRow(row.rowNumber, student.getDni(), StudentImportRow.Status.CREATED,
+                        student.getId(), null);
+                }
+                if (!upsert) {
+                    studentMetrics.duplicateDni("import");
+                    return StudentImportRow.rejected(row.rowNumber, current.getDni(), "DNI ya registrado");
+                }
+                StudentChangeEvent.State previous = StudentChangeEvent.State.of(current);
+                copyDetails(row.student, current, now);
+                studentRepository.saveAndFlush(current);
+                eventPublisher.publishEvent(
+                    new StudentChangeEvent(StudentChangeEvent.Type.UPDATED, current.getId(), current, null, previous));
+                return new StudentImportRow(row.rowNumber, current.getDni(), StudentImportRow.Status.UPDATED,
+                    current.getId(), null);
+            });
+        } catch (DataIntegrityViolationException e) {
+            if (DuplicateDniException.isDniViolation(e)) {
+                studentMetrics.duplicateDni("import");
+                return StudentImportRow.rejected(row.rowNumber, row.student.getDni(), "DNI ya registrado");
+            }
+            logger.warn("Importar: Fila {} rechazada al guardar - DNI: {}", row.rowNumber, row.student.getDni(), e);
+            return StudentImportRow.rejected(row.rowNumber, row.student.getDni(),
+                "La fila no cumple las restricciones de la base de datos (por ejemplo, un campo demasiado largo)");
+        } catch (RuntimeException e) {
+            logger.warn("Importar: Fila {} rechazada al guardar - DNI: {}", row.rowNumber, row.student.getDni(), e);
+            return StudentImportRow.rejected(row.rowNumber, row.student.getDni(), "Error al guardar la fila");
+        } finally {
+            entityManager.clear();
+        }
+    }
+
+    /**
+     * Copia los datos de una fila en una entidad nueva (sin ID ni version) lista para insertar
+     */
+    private static Student newStudent(Student source, LocalDateTime now) {
+        Student student = new Student(source.getDni(), source.getFirstName(), source.getLastName(),
+            source.getPromotion(), now);
+        student.setActive(true);
+        return student;
+    }
+
+    private static void copyDetails(Student source, Student target, LocalDateTime now) {
+        target.setFirstName(source.getFirstName());
+        target.setLastName(source.getLastName());
+        target.setPromotion(source.getPromotion());
+        target.setDate(now);
+    }
+
+    /**
+     * Valida las anotaciones de Student
+     * @return mensajes de error separados por "; " o null si es valido
+     */
+    private String validate(Student student) {
+        if (student == null) {
+            return "Fila vacia";
+        }
+        Set<ConstraintViolation<Student>> violations = validator.validate(student);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+            .map(ConstraintViolation::getMessage)
+            .sorted()
+            .collect(Collectors.joining("; "));
+    }
+
+    private static Map<String, Integer> parseHeader(String header) {
+        if (header == null) {
+            throw new IllegalArgumentException("El archivo CSV esta vacio");
+        }
+        List<String> names = splitCsvLine(header.replace("\uFEFF", ""));
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim(), i);
+        }
+        for (String column : CSV_COLUMNS) {
+            if (!columns.containsKey(column)) {
+                throw new IllegalArgumentException("La cabecera del CSV debe contener las columnas " + CSV_COLUMNS);
+            }
+        }
+        return columns;
+    }
+
+    private static ImportRow parseCsvRow(int rowNumber, String line, Map<String, Integer> columns) {
+        List<String> values = splitCsvLine(line);
+        Student student = new Student();
+        student.setDni(column(values, columns, "dni"));
+        student.setFirstName(column(values, columns, "firstName"));
+        student.setLastName(column(values, columns, "lastName"));
+        String promotion = column(values, columns, "promotion");
+        if (promotion != null && !promotion.isEmpty()) {
+            try {
+                student.setPromotion(Integer.valueOf(promotion));
+            } catch (NumberFormatException e) {
+                return new ImportRow(rowNumber, student, "La promocion debe ser un numero entero");
+            }
+        }
+        return new ImportRow(rowNumber, student, null);
+    }
+
+    private static String column(List<String> values, Map<String, Integer> columns, String name) {
+        int index = columns.get(name);
+        return index < values.size() ? values.get(index).trim() : null;
+    }
+
+    /**
+     * Lee un registro CSV: si una linea termina dentro de un valor entre comillas (salto de linea
+     * dentro del valor, como los que escribe StudentCsvExportService), continua con la siguiente
+     * @return el registro sin el salto de linea final, o null al terminar el archivo
+     */
+    static String readCsvRecord(BufferedReader reader) throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            return null;
+        }
+        StringBuilder record = new StringBuilder(line);
+        int quotes = countQuotes(line);
+        while (quotes % 2 != 0 && (line = reader.readLine()) != null) {
+            record.append('\n').append(line);
+            quotes += countQuotes(line);
+        }
+        return record.toString();
+    }
+
+    private static int countQuotes(String line) {
+        int quotes = 0;
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == '"') {
+                quotes++;
+            }
+        }
+        return quotes;
+    }
+
+    /**
+     * Separa una linea CSV por comas, respetando valores entre comillas dobles ("" escapa una comilla)
+     */
+    static List<String> splitCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private static void logImportFinished(StudentImportReport report) {
+        logger.info("Importar: Importacion finalizada - total: {}, creados: {}, actualizados: {}, rechazados: {}",
+            report.getTotal(), report.getCreated(), report.getUpdated(), report.getRejected());
+    }
+
+    /**
+     * Fila pendiente de importar: numero de fila, datos leidos y error de lectura (si lo hubo)
+     */
+    private static final class ImportRow {
+        private final int rowNumber;
+        private final Student student;
+        private final String error;
+
+        private ImportRow(int rowNumber, Student student, String error) {
+            this.rowNumber = rowNumber;
+            this.student = student;
+            this.error = error;
+        }
+    }
+}
@@ -1,15 +1,52 @@
 package com.example.gracia.service;
 
+import com.example.gracia.cache.StudentCache;
+import com.example.gracia.cache.StudentDniIndex;
+import com.example.gracia.cache.StudentNameIndex;
+import com.example.gracia.cache.StudentReadModel;
+import com.example.gracia.dto.StudentMatch;
+import com.example.gracia.dto.StudentSearchCriteria;
+import com.example.gracia.dto.StudentSummary;
+import com.example.gracia.event.StudentChangeEvent;
+import com.example.gracia.exception.DuplicateDniException;
+import com.example.gracia.exception.StudentVersionConflictException;
+import com.example.gracia.metrics.StudentMetrics;
+import com.example.gracia.model.ArchivedStudent;
 import com.example.gracia.model.Student;
+import com.example.gracia.repository.ArchivedStudentRepository;
+import com.example.gracia.repository.StudentListVersionTracker;
 import com.example.gracia.repository.StudentRepository;
+import com.example.gracia.repository.StudentSpecifications;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Servicio que contiene la logica de negocio para Student
@@ -19,54 +56,428 @@ public class StudentService {
 
     private static final Logger logger = LoggerFactory.getLogger(StudentService.class);
 
+    /** Tamano de pagina por defecto y maximo permitido en la paginacion por cursor */
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    /** Cantidad maxima de resultados de la busqueda aproximada */
+    public static final int MAX_SUGGESTIONS = 50;
+
+    /** Campos que se pueden pedir con fields= en los listados */
+    public static final Set<String> SELECTABLE_FIELDS = Set.of(
+        "id", "dni", "firstName", "lastName", "promotion", "date", "active", "version");
+
     @Autowired
     private StudentRepository studentRepository;
 
+    @Autowired
+    private StudentCache studentCache;
+
+    @Autowired
+    private StudentDniIndex studentDniIndex;
+
+    @Autowired
+    private StudentNameIndex studentNameIndex;
+
+    @Autowired
+    private StudentReadModel studentReadModel;
+
+    @Autowired
+    private StudentBatchLoader studentBatchLoader;
+
+    @Autowired
+    private ArchivedStudentRepository archivedStudentRepository;
+
+    @Autowired
+    private StudentListVersionTracker studentListVersionTracker;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private StudentMetrics studentMetrics;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     /**
      * Obtiene todos los estudiantes activos
+     * Con el modelo de lectura habilitado se responde desde memoria (StudentReadModel)
+     * sin abrir transaccion; si no, la consulta usa la transaccion de solo lectura del repositorio.
      * @return lista de estudiantes activos
      */
+    @Timed(value = StudentMetrics.SERVICE_TIMER, extraTags = {"operation", "list"}, histogram = true)
     public List<Student> getAllStudents() {
         logger.info("Invocar: Obteniendo todos los estudiantes activos");
-        List<Student> students = studentRepository.findByActive(true);
+        List<Student> students = studentReadModel.isEnabled()
+            ? studentReadModel.current().toStudents(false)
+            : studentRepository.findByActive(true);
         logger.info("Invocar: Se encontraron {} estudiantes activos", students.size());
         return students;
     }
     
     /**
      * Obtiene todos los estudiantes (incluyendo inactivos)
+     * Con el modelo de lectura habilitado se responde desde memoria (StudentReadModel)
+     * sin abrir transaccion; si no, la consulta usa la transaccion de solo lectura del repositorio.
      * @return lista de todos los estudiantes
      */
+    @Timed(value = StudentMetrics.SERVICE_TIMER, extraTags = {"operation", "list_all"}, histogram = true)
     public List<Student> getAllStudentsIncludingInactive() {
         logger.info("Invocar: Obteniendo todos los estudiantes (incluyendo inactivos)");
-        List<Student> students = studentRepository.findAll();
+        List<Student> students = studentReadModel.isEnabled()
+            ? studentReadModel.current().toStudents(true)
+            : studentRepository.findAll();
         logger.info("Invocar: Se encontraron {} estudiantes en total", students.size());
         return students;
     }
 
     /**
-     * Obtiene un estudiante por su ID
+     * Obtiene el listado ya serializado en JSON desde el modelo de lectura
+     * Solo se serializa una vez por version del modelo; las demas lecturas reutilizan los bytes.
+     * @param includeInactive true para incluir estudiantes eliminados logicamente
+     * @return arreglo JSON de estudiantes ordenados por ID
+     * @throws IllegalStateException si el modelo de lectura no esta habilitado
+     */
+    @Timed(value = StudentMetrics.SERVICE_TIMER, extraTags = {"operation", "list_json"}, histogram = true)
+    public byte[] getStudentsJson(boolean includeInactive) {
+        if (!studentReadModel.isEnabled()) {
+            throw new IllegalStateException("El modelo de lectura no esta habilitado");
+        }
+        logger.info("Invocar: Obteniendo listado JSON desde el modelo de lectura (incluirInactivos: {})", includeInactive);
+        return studentReadModel.json(includeInactive);
+    }
+
+    /**
+     * @return true si los listados completos se responden desde el modelo de lectura en memoria
+     */
+    public boolean isReadModelEnabled() {
+        return studentReadModel.isEnabled();
+    }
+
+    /**
+     * Obtiene el resumen (ID, DNI y nombre completo) de los estudiantes
+     * sin cargar entidades completas
+     * @param includeInactive true para incluir estudiantes eliminados logicamente
+     * @return resumenes ordenados por ID
+     */
+    @Transactional(readOnly = true)
+    @Timed(value = StudentMetrics.SERVICE_TIMER, extraTags = {"operation", "list_summary"}, histogram = true)
+    public List<StudentSummary> getStudentSummaries(boolean includeInactive) {
+        logger.info("Invocar: Obteniendo resumen de estudiantes (incluirInactivos: {})", includeInactive);
+        List<StudentSummary> summaries = includeInactive
+            ? studentRepository.findAllSummaries()
+            : studentRepository.findSummariesByActive(true);
+        logger.info("Invocar: Se encontraron {} estudiantes", summaries.size());
+        return summaries;
+    }
+
+    /**
+     * Obtiene solo los campos pedidos de cada estudiante.
+     * La consulta selecciona unicamente esas columnas, sin crear entidades gestionadas.
+     * @param fields campos a devolver, todos incluidos en SELECTABLE_FIELDS
+     * @param includeInactive true para incluir estudiantes eliminados logicamente
+     * @return un mapa campo -> valor por estudiante, en el orden de fields y ordenados por ID
+     */
+    @Transactional(readOnly = true)
+    @Timed(value = StudentMetrics.SERVICE_TIMER, extraTags = {"operation", "list_fields"}, histogram = true)
+    public List<Map<String, Object>> getStudentFields(List<String> fields, boolean includeInactive) {
+        logger.info("Invocar: Obteniendo campos {} de los estudiantes (incluirInactivos: {})", fields, includeInactive);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Student> root = query.from(Student.class);
+        query.multiselect(fields.stream().<Selection<?>>map(field -> root.get(field).alias(field)).toList());
+        if (!includeInactive) {
+            query.where(cb.isTrue(root.get("active")));
+        }
+        query.orderBy(cb.asc(root.get("id")));
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String field : fields) {
+                row.put(field, tuple.get(field));
+            }
+            rows.add(row);
+        }
+        logger.info("Invocar: Se encontraron {} estudiantes", rows.size());
+        return rows;
+    }
+
+    /**
+     * Interpreta el parametro fields= de los listados ("id,dni,firstName")
+     * @param fields nombres separados por comas
+     * @return campos sin repetir, en el orden recibido
+     * @throws IllegalArgumentException si algun campo no esta en SELECTABLE_FIELDS
+     */
+    public static List<String> parseFields(String fields) {
+        LinkedHashSet<String> parsed = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!SELECTABLE_FIELDS.contains(name)) {
+                throw new IllegalArgumentException("Campo no permitido: " + name);
+            }
+            parsed.add(name);
+        }
+        if (parsed.isEmpty()) {
+            throw new IllegalArgumentException("Debe indicar al menos un campo");
+        }
+        return new ArrayList<>(parsed);
+    }
+
+    /**
+     * Obtiene una pagina de estudiantes usando paginacion por cursor (keyset) sobre el ID
+     * @param afterId ultimo ID recibido en la pagina anterior (null para la primera pagina)
+     * @param size tamano de pagina solicitado (se limita a MAX_PAGE_SIZE)
+     * @param includeInactive true para incluir estudiantes eliminados logicamente
+     * @return estudiantes con ID mayor que afterId, ordenados por ID
+     */
+    @Transactional(readOnly = true)
+    @Timed(value = StudentMetrics.SERVICE_TIMER, extraTags = {"operation", "page"}, histogram = true)
+    public List<Student> getStudentsPage(Long afterId, int size, boolean includeInactive) {
+        long cursor = afterId == null ? 0L : afterId;
+        Limit limit = Limit.of(clampPageSize(size));
+        logger.info("Invocar: Obteniendo pagina de estudiantes - after: {}, size: {}, incluirInactivos: {}",
+            cursor, limit.max(), includeInactive);
+        List<Student> students = includeInactive
+            ? studentRepository.findByIdGreaterThanOrderByIdAsc(cursor, limit)
+            : studentRepository.findByActiveAndIdGreaterThanOrderByIdAsc(true, cursor, limit);
+        logger.info("Invocar: Pagina con {} estudiantes", students.size());
+        return students;
+    }
+
+    /**
+     * Recorre todos los estudiantes con un cursor de base de datos, entregandolos uno a uno.
+     * Cada entidad se separa del contexto de persistencia despues de procesarla,
+     * por lo que la memoria usada no depende del tamano de la tabla.
+     * @param includeInactive true para incluir estudiantes eliminados logicamente
+     * @param consumer accion a ejecutar por cada estudiante
+     * @return cantidad de estudiantes recorridos
+     */
+    @Transactional(readOnly = true)
+    @Timed(value = StudentMetrics.SERVICE_TIMER, extraTags = {"operation", "stream"}, histogram = true)
+    public long streamStudents(boolean includeInactive, Consumer<Student> consumer) {
+        logger.info("Invocar: Recorriendo estudiantes en modo streaming (incluirInactivos: {})", includeInactive);
+        long count = 0;
+        try (Stream<Student> students = includeInactive
+                ? studentRepository.streamAll()
+                : studentRepository.streamByActive(true)) {
+            for (Student student : (Iterable<Student>) students::iterator) {
+                consumer.accept(student);
+                entityManager.detach(student);
+                count++;
+            }
+        }
+        logger.info("Invocar: Se enviaron {} estudiantes en modo streaming", count);
+        return count;
+    }
+
+    /**
+     * Busca estudiantes aplicando los filtros presentes en los criterios
+     * @param criteria filtros de promocion, estado, prefijos de nombre y rango de fechas
+     * @param pageable pagina, tamano y orden solicitados
+     * @return pagina de estudiantes que cumplen todos los filtros
+     */
+    @Transactional(readOnly = true)
+    @Timed(value = StudentMetrics.SERVICE_TIMER, extraTags = {"operation", "search"}, histogram = true)
+    public Page<Student> searchStudents(StudentSearchCriteria criteria, Pageable pageable) {
+        logger.info("Invocar: Buscando estudiantes - promocion: {}, activo: {}, nombre: {}, apellido: {}, desde: {}, hasta: {}",
+            criteria.getPromotion(), criteria.getActive(), criteria.getFirstNamePrefix(),
+            criteria.getLastNamePrefix(), criteria.getFrom(), criteria.getTo());
+        Page<Student> page = studentRepository.findAll(StudentSpecifications.matching(criteria), pageable);
+        logger.info("Invocar: La busqueda encontro {} estudiantes", page.getTotalElements());
+        return page;
+    }
+
+    /**
+     * Obtiene el ETag del listado de estudiantes sin leer ni serializar las filas:
+     * el contador de cambios que cada escritura incrementa en su transaccion
+     * (ver StudentListVersionTracker). Con el modelo de lectura habilitado se toma
+     * de la version en memoria.
+     * Debe leerse antes que el listado: si una escritura se confirma entre ambas
+     * lecturas, el ETag viejo acompana datos nuevos y la siguiente peticion recibe 200.
+     * @param includeInactive true para el listado completo, false para solo activos
+     * @return ETag debil del listado
+     */
+    public String getListEtag(boolean includeInactive) {
+        if (studentReadModel.isEnabled()) {
+            return studentReadModel.current().etag(includeInactive);
+        }
+        return studentListVersionTracker.currentEtag();
+    }
+
+    /**
+     * Ajusta el tamano de pagina solicitado al rango [1, MAX_PAGE_SIZE]
+     */
+    public static int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Obtiene un estudiante por su ID (si no esta en students, lo busca en el archivo)
      * @param id el ID del estudiante
      * @return Optional con el estudiante si existe
      */
+    @Timed(value = StudentMetrics.SERVICE_TIMER, extraTags = {"operation", "get"}, histogram = true)
     public Optional<Student> getStudentById(Long id) {
         logger.info("Invocar: Buscando estudiante con ID: {}", id);
-        Optional<Student> student = studentRepository.findById(id);
+        Optional<Student> student = Optional.ofNullable(
+            studentCache.getById(id, this::findIncludingArchive));
         if (student.isPresent()) {
             Student s = student.get();
             logger.info("Invocar: Estudiante encontrado - DNI: {}, Nombre: {} {}, Promocion: {}", 
                 s.getDni(), s.getFirstName(), s.getLastName(), s.getPromotion());
         } else {
             logger.warn("Invocar: No se encontro estudiante con ID: {}", id);
+            studentMetrics.notFound("get");
+        }
+        return student;
+    }
+
+    /**
+     * Obtiene un estudiante por su DNI
+     * @param dni el DNI del estudiante
+     * @return Optional con el estudiante si existe
+     */
+    @Timed(value = StudentMetrics.SERVICE_TIMER, extraTags = {"operation", "get_by_dni"}, histogram = true)
+    public Optional<Student> getStudentByDni(String dni) {
+        logger.info("Invocar: Buscando estudiante con DNI: {}", dni);
+        Optional<Student> student = Optional.ofNullable(
+            studentCache.getByDni(dni, key -> studentRepository.findByDni(key).orElse(null),
+                this::findIncludingArchive));
+        if (student.isEmpty()) {
+            logger.warn("Invocar: No se encontro estudiante con DNI: {}", dni);
+            studentMetrics.notFound("get_by_dni");
         }
         return student;
     }
 
+    /**
+     * Obtiene varios estudiantes por ID
+     * Los que no estan en cache se buscan junto con las demas busquedas por ID en curso
+     * (una consulta WHERE id IN (...) por lote, ver StudentBatchLoader) y los que
+     * tampoco estan en students, en el archivo.
+     * @param ids IDs de los estudiantes (como maximo MAX_PAGE_SIZE)
+     * @return estudiantes encontrados por ID, en el orden pedido
+     * @throws IllegalArgumentException si se piden mas de MAX_PAGE_SIZE IDs
+     */
+    @Timed(value = StudentMetrics.SERVICE_TIMER, extraTags = {"operation", "get_many"}, histogram = true)
+    public Map<Long, Student> getStudentsByIds(Collection<Long> ids) {
+        Set<Long> distinct = new LinkedHashSet<>(ids);
+        if (distinct.size() > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Se permiten como maximo " + MAX_PAGE_SIZE + " IDs");
+        }
+        logger.info("Invocar: Buscando {} estudiantes por ID", distinct.size());
+        Map<Long, Student> found = new LinkedHashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (Long id : distinct) {
+            Student cached = studentCache.peekById(id);
+            found.put(id, cached);
+            if (cached == null) {
+                misses.add(id);
+            }
+        }
+        if (!misses.isEmpty()) {
+            Map<Long, Student> loaded = studentBatchLoader.loadAll(misses);
+            found.putAll(loaded);
+            misses.removeAll(loaded.keySet());
+            if (!misses.isEmpty()) {
+                archivedStudentRepository.findAllById(misses)
+                    .forEach(archived -> found.put(archived.getId(), archived.toStudent()));
+            }
+        }
+        found.values().removeIf(student -> student == null);
+        return found;
+    }
+
+    /**
+     * Busca un estudiante en students (agrupando la consulta con StudentBatchLoader) y luego en el archivo
+     * @return el estudiante (inactivo si esta archivado) o null si no existe
+     */
+    private Student findIncludingArchive(Long id) {
+        Student student = studentBatchLoader.load(id);
+        if (student != null) {
+            return student;
+        }
+        return archivedStudentRepository.findById(id).map(ArchivedStudent::toStudent).orElse(null);
+    }
+
+    /**
+     * Obtiene varios estudiantes por DNI
+     * Los que no estan en cache se resuelven con una sola consulta WHERE dni IN (...).
+     * @param dnis DNI de los estudiantes (como maximo MAX_PAGE_SIZE)
+     * @return estudiantes encontrados por DNI, en el orden pedido
+     * @throws IllegalArgumentException si se piden mas de MAX_PAGE_SIZE DNI
+     */
+    @Timed(value = StudentMetrics.SERVICE_TIMER, extraTags = {"operation", "get_many_by_dni"}, histogram = true)
+    public Map<String, Student> getStudentsByDnis(Collection<String> dnis) {
+        Set<String> distinct = new LinkedHashSet<>(dnis);
+        if (distinct.size() > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Se permiten como maximo " + MAX_PAGE_SIZE + " DNI");
+        }
+        logger.info("Invocar: Buscando {} estudiantes por DNI", distinct.size());
+        Map<String, Student> found = new LinkedHashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (String dni : distinct) {
+            Student cached = studentCache.peekByDni(dni);
+            found.put(dni, cached);
+            if (cached == null) {
+                misses.add(dni);
+            }
+        }
+        if (!misses.isEmpty()) {
+            studentRepository.findByDniIn(misses).forEach(student -> found.put(student.getDni(), student));
+        }
+        found.values().removeIf(student -> student == null);
+        return found;
+    }
+
+    /**
+     * Busca estudiantes por nombre, apellido o DNI aproximados (busqueda mientras se escribe)
+     * El ranking se resuelve en memoria con StudentNameIndex; los estudiantes se leen
+     * de la cache o con una sola consulta WHERE id IN (...).
+     * @param query texto buscado (la ultima palabra se toma como prefijo)
+     * @param limit cantidad maxima de resultados (se limita a MAX_SUGGESTIONS)
+     * @param includeInactive true para incluir estudiantes eliminados logicamente
+     * @return coincidencias de mayor a menor puntaje
+     */
+    @Timed(value = StudentMetrics.SERVICE_TIMER, extraTags = {"operation", "suggest"}, histogram = true)
+    public List<StudentMatch> suggestStudents(String query, int limit, boolean includeInactive) {
+        List<StudentNameIndex.Match> matches = studentNameIndex.search(query,
+            Math.max(1, Math.min(limit, MAX_SUGGESTIONS)), includeInactive);
+        if (matches.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = new ArrayList<>(matches.size());
+        matches.forEach(match -> ids.add(match.getId()));
+        Map<Long, Student> students = getStudentsByIds(ids);
+        List<StudentMatch> result = new ArrayList<>(matches.size());
+        for (StudentNameIndex.Match match : matches) {
+            Student student = students.get(match.getId());
+            if (student != null) {
+                result.add(new StudentMatch(student, match.getScore()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return true si la busqueda aproximada esta disponible (indice habilitado y cargado)
+     */
+    public boolean isSuggestAvailable() {
+        return studentNameIndex.isReady();
+    }
+
     /**
      * Crea un nuevo estudiante
      * @param student el estudiante a crear
      * @return el estudiante creado
+     * @throws DuplicateDniException si el DNI ya esta registrado
      */
+    @Timed(value = StudentMetrics.SERVICE_TIMER, extraTags = {"operation", "create"}, histogram = true)
+    @Transactional
     public Student createStudent(Student student) {
         // Establecer la fecha y hora actual y estado activo
         student.setDate(LocalDateTime.now());
@@ -76,7 +487,9 @@ public class StudentService {
             student.getDni(), student.getFirstName(), student.getLastName(), 
             student.getPromotion(), student.getDate());
         
-        Student savedStudent = studentRepository.save(student);
+        rejectDuplicateDni(student.getDni(), null, "create");
+        Student savedStudent = save(student, "create");
+        publish(StudentChangeEvent.Type.CREATED, savedStudent, null);
         
         logger.info("Registrar: Estudiante creado exitosamente con ID: {}", savedStudent.getId());
         return savedStudent;
@@ -88,12 +501,40 @@ public class StudentService {
      * @param studentDetails los nuevos datos del estudiante
      * @return Optional con el estudiante actualizado si existe
      */
+    @Timed(value = StudentMetrics.SERVICE_TIMER, extraTags = {"operation", "update"}, histogram = true)
+    @Transactional
     public Optional<Student> updateStudent(Long id, Student studentDetails) {
+        return updateStudent(id, studentDetails, null);
+    }
+
+    /**
+     * Actualiza un estudiante existente solo si sigue en la version esperada (If-Match)
+     * Aunque no se indique version, @Version detecta una modificacion concurrente
+     * entre la lectura y el guardado (ObjectOptimisticLockingFailureException).
+     * La lectura y el guardado comparten transaccion, asi que con replicas ambos van a la base principal.
+     * @param id el ID del estudiante a actualizar
+     * @param studentDetails los nuevos datos del estudiante
+     * @param expectedVersion version que el cliente leyo (null para no comprobarla)
+     * @return Optional con el estudiante actualizado si existe
+     * @throws StudentVersionConflictException si la version actual no es la esperada
+     * @throws DuplicateDniException si el nuevo DNI ya pertenece a otro estudiante
+     */
+    @Timed(value = StudentMetrics.SERVICE_TIMER, extraTags = {"operation", "update"}, histogram = true)
+    @Transactional
+    public Optional<Student> updateStudent(Long id, Student studentDetails, Long expectedVersion) {
         logger.info("Actualizar: Intentando actualizar estudiante con ID: {}", id);
+        rejectDuplicateDni(studentDetails.getDni(), id, "update");
         
         return studentRepository.findById(id).map(student -> {
             logger.info("Actualizar: Datos anteriores - DNI: {}, Nombre: {} {}, Promocion: {}", 
                 student.getDni(), student.getFirstName(), student.getLastName(), student.getPromotion());
+            if (expectedVersion != null && !expectedVersion.equals(student.getVersion())) {
+                logger.warn("Actualizar: Version en conflicto para ID: {} - esperada: {}, actual: {}",
+                    id, expectedVersion, student.getVersion());
+                throw new StudentVersionConflictException(id, expectedVersion, student.getVersion());
+            }
+            String previousDni = student.getDni();
+            StudentChangeEvent.State previous = StudentChangeEvent.State.of(student);
             
             student.setDni(studentDetails.getDni());
             student.setFirstName(studentDetails.getFirstName());
@@ -101,80 +542,252 @@ public class StudentService {
             student.setPromotion(studentDetails.getPromotion());
             student.setDate(LocalDateTime.now());
             
-            Student updatedStudent = studentRepository.save(student);
+            Student updatedStudent = save(student, "update");
+            publish(StudentChangeEvent.Type.UPDATED, updatedStudent, previousDni, previous);
             
             logger.info("Actualizar: Datos nuevos - DNI: {}, Nombre: {} {}, Promocion: {}, Fecha: {}", 
                 updatedStudent.getDni(), updatedStudent.getFirstName(), 
                 updatedStudent.getLastName(), updatedStudent.getPromotion(), updatedStudent.getDate());
             
             return updatedStudent;
+        }).or(() -> {
+            logger.warn("Actualizar: No se encontro estudiante con ID: {}", id);
+            studentMetrics.notFound("update");
+            return Optional.empty();
         });
     }
 
+    /**
+     * Guarda el estudiante contando los rechazos por DNI duplicado (restriccion unique de la columna)
+     * Se hace flush inmediato para que la violacion se detecte aqui y no al confirmar la transaccion.
+     * Las demas violaciones de integridad se propagan sin cambios.
+     */
+    private Student save(Student student, String operation) {
+        try {
+            return studentRepository.saveAndFlush(student);
+        } catch (DataIntegrityViolationException e) {
+            if (!DuplicateDniException.isDniViolation(e)) {
+                throw e;
+            }
+            logger.warn("Registrar: DNI duplicado en operacion {} - DNI: {}", operation, student.getDni());
+            studentMetrics.duplicateDni(operation);
+            throw new DuplicateDniException(student.getDni(), null);
+        }
+    }
+
+    /**
+     * Rechaza un DNI que ya pertenece a otro estudiante consultando solo el indice en memoria
+     * @param dni DNI a registrar
+     * @param id ID del estudiante que se actualiza (null al crear)
+     * @param operation nombre de la operacion para logs y metricas
+     * @throws DuplicateDniException si el DNI ya esta registrado por otro estudiante
+     */
+    private void rejectDuplicateDni(String dni, Long id, String operation) {
+        Long owner = studentDniIndex.ownerOf(dni);
+        if (owner != null && !owner.equals(id)) {
+            logger.warn("Registrar: DNI duplicado en operacion {} - DNI: {} ya pertenece al ID: {}", operation, dni, owner);
+            studentMetrics.duplicateDni(operation);
+            throw new DuplicateDniException(dni, owner);
+        }
+    }
+
     /**
      * Elimina logicamente un estudiante por su ID (soft delete)
+     * Se lee el estado actual por clave primaria (sin cargar la entidad) y, si estaba activo,
+     * se cambia con una sola sentencia UPDATE; el estado anterior viaja en el evento.
+     * Si ya estaba inactivo no se escribe nada.
      * @param id el ID del estudiante a eliminar
-     * @return true si se elimino, false si no existia
+     * @return true si se elimino o ya estaba inactivo, false si no existia
      */
+    @Transactional
+    @Timed(value = StudentMetrics.SERVICE_TIMER, extraTags = {"operation", "soft_delete"}, histogram = true)
     public boolean deleteStudent(Long id) {
         logger.info("Eliminar (Logico): Intentando eliminar logicamente estudiante con ID: {}", id);
         
-        return studentRepository.findById(id).map(student -> {
-            logger.info("Eliminar (Logico): Marcando como inactivo - DNI: {}, Nombre: {} {}, Promocion: {}", 
-                student.getDni(), student.getFirstName(), student.getLastName(), student.getPromotion());
-            
-            student.setActive(false);
-            student.setDate(LocalDateTime.now());
-            studentRepository.save(student);
-            
+        List<Object[]> states = studentRepository.findStatesByIdIn(List.of(id));
+        LocalDateTime now = LocalDateTime.now();
+        if (!states.isEmpty() && Boolean.TRUE.equals(states.get(0)[4])
+                && studentRepository.updateActiveById(id, false, now) > 0) {
+            publishStateChange(StudentChangeEvent.Type.SOFT_DELETED, id, now, state(states.get(0)));
             logger.info("Eliminar (Logico): Estudiante con ID: {} marcado como inactivo exitosamente", id);
             return true;
-        }).orElseGet(() -> {
-            logger.warn("Eliminar (Logico): No se encontro estudiante con ID: {}", id);
-            return false;
-        });
+        }
+        if (!states.isEmpty() || archivedStudentRepository.existsById(id)) {
+            logger.info("Eliminar (Logico): Estudiante con ID: {} ya estaba inactivo", id);
+            return true;
+        }
+        logger.warn("Eliminar (Logico): No se encontro estudiante con ID: {}", id);
+        studentMetrics.notFound("soft_delete");
+        return false;
     }
     
     /**
      * Elimina fisicamente un estudiante por su ID (hard delete)
+     * Se resuelve con una sola sentencia DELETE, sin cargar la entidad (y otra en el archivo si no estaba en students).
+     * Antes se leen el DNI y el estado (sin cargar la entidad), para que el evento los lleve:
+     * el indice de DNI lo quita por clave y las estadisticas restan del grupo anterior.
      * @param id el ID del estudiante a eliminar
      * @return true si se elimino, false si no existia
      */
+    @Transactional
+    @Timed(value = StudentMetrics.SERVICE_TIMER, extraTags = {"operation", "hard_delete"}, histogram = true)
     public boolean hardDeleteStudent(Long id) {
         logger.info("Eliminar (Fisico): Intentando eliminar fisicamente estudiante con ID: {}", id);
         
-        return studentRepository.findById(id).map(student -> {
-            logger.info("Eliminar (Fisico): Eliminando permanentemente - DNI: {}, Nombre: {} {}, Promocion: {}", 
-                student.getDni(), student.getFirstName(), student.getLastName(), student.getPromotion());
-            
-            studentRepository.delete(student);
-            
+        List<Object[]> states = studentRepository.findStatesByIdIn(List.of(id));
+        StudentChangeEvent.State previous = states.isEmpty() ? null : state(states.get(0));
+        String dni = states.isEmpty() ? archivedStudentRepository.findDniById(id).orElse(null) : (String) states.get(0)[1];
+        boolean deleted = previous != null
+                ? studentRepository.hardDeleteById(id) > 0
+                : archivedStudentRepository.deleteArchivedById(id) > 0;
+        if (deleted) {
+            eventPublisher.publishEvent(new StudentChangeEvent(StudentChangeEvent.Type.HARD_DELETED, id, null, dni, previous));
             logger.info("Eliminar (Fisico): Estudiante con ID: {} eliminado permanentemente", id);
             return true;
-        }).orElseGet(() -> {
-            logger.warn("Eliminar (Fisico): No se encontro estudiante con ID: {}", id);
-            return false;
-        });
+        }
+        logger.warn("Eliminar (Fisico): No se encontro estudiante con ID: {}", id);
+        studentMetrics.notFound("hard_delete");
+        return false;
     }
     
     /**
      * Restaura un estudiante eliminado logicamente
+     * Se lee el estado actual por clave primaria; si estaba inactivo se cambia con una
+     * sentencia UPDATE y luego se lee el estudiante una vez para devolverlo en la respuesta.
+     * Si no esta en students pero si en el archivo, se mueve de vuelta como activo.
      * @param id el ID del estudiante a restaurar
      * @return Optional con el estudiante restaurado si existe
+     * @throws DuplicateDniException si el estudiante estaba archivado y su DNI ya fue registrado por otro
      */
+    @Transactional
+    @Timed(value = StudentMetrics.SERVICE_TIMER, extraTags = {"operation", "restore"}, histogram = true)
     public Optional<Student> restoreStudent(Long id) {
         logger.info("Restaurar: Intentando restaurar estudiante con ID: {}", id);
         
-        return studentRepository.findById(id).map(student -> {
-            logger.info("Restaurar: Reactivando estudiante - DNI: {}, Nombre: {} {}, Promocion: {}", 
-                student.getDni(), student.getFirstName(), student.getLastName(), student.getPromotion());
-            
-            student.setActive(true);
-            student.setDate(LocalDateTime.now());
-            Student restoredStudent = studentRepository.save(student);
-            
+        List<Object[]> states = studentRepository.findStatesByIdIn(List.of(id));
+        boolean restored = !states.isEmpty() && !Boolean.TRUE.equals(states.get(0)[4])
+                && studentRepository.updateActiveById(id, true, LocalDateTime.now()) > 0;
+        Optional<Student> student = states.isEmpty() ? Optional.empty() : studentRepository.findById(id);
+        if (restored && student.isPresent()) {
+            publish(StudentChangeEvent.Type.RESTORED, student.get(), null, state(states.get(0)));
             logger.info("Restaurar: Estudiante con ID: {} restaurado exitosamente", id);
-            return restoredStudent;
-        });
+        } else if (student.isPresent()) {
+            logger.info("Restaurar: Estudiante con ID: {} ya estaba activo", id);
+        } else {
+            student = restoreFromArchive(id);
+            if (student.isEmpty()) {
+                logger.warn("Restaurar: No se encontro estudiante con ID: {}", id);
+                studentMetrics.notFound("restore");
+            }
+        }
+        return student;
+    }
+
+    /**
+     * Mueve un estudiante archivado de vuelta a students como activo
+     * La fila del archivo queda bloqueada hasta el fin de la transaccion, asi que una
+     * restauracion simultanea espera y luego encuentra al estudiante en students.
+     */
+    private Optional<Student> restoreFromArchive(Long id) {
+        Optional<ArchivedStudent> archived = archivedStudentRepository.findByIdForUpdate(id);
+        if (archived.isEmpty()) {
+            return studentRepository.findById(id);
+        }
+        String dni = archived.get().getDni();
+        rejectDuplicateDni(dni, id, "restore");
+        try {
+            archivedStudentRepository.copyToStudents(id, LocalDateTime.now());
+        } catch (DataIntegrityViolationException e) {
+            if (!DuplicateDniException.isDniViolation(e)) {
+                throw e;
+            }
+            logger.warn("Restaurar: DNI duplicado al restaurar del archivo - DNI: {}", dni);
+            studentMetrics.duplicateDni("restore");
+            throw new DuplicateDniException(dni, null);
+        }
+        archivedStudentRepository.deleteArchivedById(id);
+        Optional<Student> student = studentRepository.findById(id);
+        student.ifPresent(restored -> publish(StudentChangeEvent.Type.RESTORED, restored, null));
+        logger.info("Restaurar: Estudiante con ID: {} restaurado desde el archivo", id);
+        return student;
+    }
+
+    /**
+     * Elimina logicamente varios estudiantes a la vez (por ejemplo, al cerrar una promocion)
+     * @param ids IDs de los estudiantes a eliminar
+     * @return IDs que pasaron de activos a inactivos
+     */
+    @Transactional
+    @Timed(value = StudentMetrics.SERVICE_TIMER, extraTags = {"operation", "batch_soft_delete"}, histogram = true)
+    public List<Long> deleteStudents(Collection<Long> ids) {
+        logger.info("Eliminar (Logico): Eliminando por lote {} estudiantes", ids.size());
+        List<Long> changed = changeStateInBatches(ids, false, StudentChangeEvent.Type.SOFT_DELETED);
+        logger.info("Eliminar (Logico): {} estudiantes marcados como inactivos", changed.size());
+        return changed;
+    }
+
+    /**
+     * Restaura varios estudiantes eliminados logicamente
+     * @param ids IDs de los estudiantes a restaurar
+     * @return IDs que pasaron de inactivos a activos
+     */
+    @Transactional
+    @Timed(value = StudentMetrics.SERVICE_TIMER, extraTags = {"operation", "batch_restore"}, histogram = true)
+    public List<Long> restoreStudents(Collection<Long> ids) {
+        logger.info("Restaurar: Restaurando por lote {} estudiantes", ids.size());
+        List<Long> changed = changeStateInBatches(ids, true, StudentChangeEvent.Type.RESTORED);
+        logger.info("Restaurar: {} estudiantes restaurados", changed.size());
+        return changed;
+    }
+
+    /**
+     * Cambia el estado de los IDs dados en bloques de MAX_PAGE_SIZE (limita el tamano del IN)
+     * Por bloque: una consulta para saber que filas cambian (y su estado anterior) y un UPDATE para cambiarlas.
+     */
+    private List<Long> changeStateInBatches(Collection<Long> ids, boolean active, StudentChangeEvent.Type type) {
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Long, StudentChangeEvent.State> previous = new LinkedHashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int from = 0; from < distinct.size(); from += MAX_PAGE_SIZE) {
+            List<Long> batch = distinct.subList(from, Math.min(from + MAX_PAGE_SIZE, distinct.size()));
+            Map<Long, StudentChangeEvent.State> toChange = new LinkedHashMap<>();
+            for (Object[] row : studentRepository.findStatesByIdIn(batch)) {
+                if (Boolean.TRUE.equals(row[4]) != active) {
+                    toChange.put((Long) row[0], state(row));
+                }
+            }
+            if (!toChange.isEmpty()) {
+                studentRepository.updateActiveByIdIn(toChange.keySet(), active, now);
+                previous.putAll(toChange);
+            }
+        }
+        previous.forEach((id, state) -> publishStateChange(type, id, now, state));
+        return new ArrayList<>(previous.keySet());
+    }
+
+    /**
+     * Publica el cambio de un estudiante para los componentes que mantienen estado derivado (cache, etc.)
+     */
+    private void publish(StudentChangeEvent.Type type, Student student, String previousDni) {
+        publish(type, student, previousDni, null);
+    }
+
+    private void publish(StudentChangeEvent.Type type, Student student, String previousDni, StudentChangeEvent.State previous) {
+        eventPublisher.publishEvent(new StudentChangeEvent(type, student.getId(), student, previousDni, previous));
+    }
+
+    /**
+     * Estado anterior a partir de una fila [id, dni, promotion, date, active] de findStatesByIdIn
+     */
+    private static StudentChangeEvent.State state(Object[] row) {
+        return new StudentChangeEvent.State((Integer) row[2], (LocalDateTime) row[3], Boolean.TRUE.equals(row[4]));
+    }
+
+    /**
+     * Publica un cambio de estado aplicado con una sentencia directa (sin entidad cargada)
+     */
+    private void publishStateChange(StudentChangeEvent.Type type, Long id, LocalDateTime changedAt,
+                                    StudentChangeEvent.State previous) {
+        eventPublisher.publishEvent(StudentChangeEvent.stateChange(type, id, changedAt, previous));
     }
 }
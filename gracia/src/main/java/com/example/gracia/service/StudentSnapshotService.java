@@ -0,0 +1,336 @@
+package com.example.gracia.service;
+
+import com.example.gracia.cache.StudentCache;
+import com.example.gracia.cache.StudentDniIndex;
+import com.example.gracia.cache.StudentNameIndex;
+import com.example.gracia.cache.StudentReadModel;
+import com.example.gracia.cache.StudentStatistics;
+import com.example.gracia.event.StudentChangeLog;
+import com.example.gracia.repository.StudentListVersionTracker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Servicio de snapshot binario de la tabla students
+ *
+ * Formato (comprimido con GZIP):
+ * - Cabecera: "GSNP" + version del formato (short)
+ * - Por cada estudiante: byte 1, id, version, dni, firstName, lastName, promotion,
+ *   fecha, active
+ * - Por cada estudiante archivado (desde la version 2): byte 2, id, version (-1 si no
+ *   tiene), dni, firstName, lastName, promotion, fecha, fecha de archivado
+ * - Fin: byte 0 + cantidad de filas (para verificar el archivo)
+ * Las fechas se guardan como segundos epoch (redondeados hacia abajo, tambien antes
+ * de 1970) + nanos.
+ *
+ * La exportacion lee con JDBC y un cursor, sin crear entidades. La restauracion
+ * reemplaza students y students_archive en una sola transaccion con INSERT agrupados
+ * en lotes, conserva los IDs y despues adelanta la secuencia (db/students-seq-h2.sql) para
+ * que los nuevos IDs no se repitan. Los IDs que Hibernate ya tenia reservados en memoria no se
+ * descartan: nunca coinciden con los de un snapshot de esta misma base, pero despues de restaurar
+ * el de otra base conviene reiniciar la aplicacion. Un snapshot de la version 1 (sin archivados) conserva los
+ * archivados actuales cuyo ID no se restauro.
+ * Despues de restaurar se recargan la cache, el indice de DNI, las estadisticas, el modelo
+ * de lectura y el stream de cambios.
+ *
+ * Con "student.snapshot.restore-on-startup" se restaura un archivo al arrancar
+ * si la tabla esta vacia (util con H2 en memoria). POST /snapshot requiere el token de
+ * administracion (ver AdminTokenFilter).
+ */
+@Service
+public class StudentSnapshotService implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentSnapshotService.class);
+
+    private static final int MAGIC = 0x47534E50; // "GSNP"
+    private static final short FORMAT_VERSION = 2;
+    private static final short FORMAT_VERSION_WITHOUT_ARCHIVE = 1;
+    private static final int INSERT_BATCH_SIZE = 1000;
+
+    private static final byte END = 0;
+    private static final byte STUDENT = 1;
+    private static final byte ARCHIVED = 2;
+
+    private static final String SELECT_SQL =
+        "SELECT id, version, dni, first_name, last_name, promotion, date, active FROM students ORDER BY id";
+    private static final String INSERT_SQL =
+        "INSERT INTO students (id, version, dni, first_name, last_name, promotion, date, active) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_ARCHIVE_SQL =
+        "SELECT id, version, dni, first_name, last_name, promotion, date, archived_at FROM students_archive ORDER BY id";
+    private static final String INSERT_ARCHIVE_SQL =
+        "INSERT INTO students_archive (id, version, dni, first_name, last_name, promotion, date, archived_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /** Adelanta students_seq por encima de los IDs restaurados */
+    private static final Resource ID_SEQUENCE_SCRIPT = new ClassPathResource("db/students-seq-h2.sql");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StudentCache studentCache;
+
+    @Autowired
+    private StudentListVersionTracker studentListVersionTracker;
+
+    @Autowired
+    private StudentDniIndex studentDniIndex;
+
+    @Autowired
+    private StudentNameIndex studentNameIndex;
+
+    @Autowired
+    private StudentStatistics studentStatistics;
+
+    @Autowired
+    private StudentReadModel studentReadModel;
+
+    @Autowired
+    private StudentChangeLog studentChangeLog;
+
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTemplate;
+
+    @Value("${student.snapshot.restore-on-startup:}")
+    private String startupSnapshot;
+
+    public StudentSnapshotService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Restaura "student.snapshot.restore-on-startup" antes de recibir peticiones, si la tabla esta vacia
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (startupSnapshot == null || startupSnapshot.isBlank()) {
+            return;
+        }
+        Path path = Path.of(startupSnapshot);
+        if (!Files.exists(path)) {
+            logger.warn("Snapshot: No existe el archivo {}, se arranca sin restaurar", path);
+            return;
+        }
+        Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM students", Long.class);
+        if (rows != null && rows > 0) {
+            logger.info("Snapshot: La tabla ya tiene {} estudiantes, no se restaura {}", rows, path);
+            return;
+        }
+        try (InputStream input = Files.newInputStream(path)) {
+            restore(input);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo restaurar el snapshot " + path, e);
+        }
+    }
+
+    /**
+     * Escribe todos los estudiantes (incluyendo inactivos y archivados) en formato snapshot
+     * @param output destino del snapshot (no se cierra)
+     * @return cantidad de estudiantes exportados
+     */
+    public long export(OutputStream output) throws IOException {
+        long start = System.nanoTime();
+        GZIPOutputStream gzip = new GZIPOutputStream(output, 64 * 1024);
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(gzip, 64 * 1024));
+        data.writeInt(MAGIC);
+        data.writeShort(FORMAT_VERSION);
+        long[] count = {0};
+        // JdbcTemplate propio: el fetch size no debe cambiar el del bean compartido
+        JdbcTemplate cursor = new JdbcTemplate(jdbcTemplate.getDataSource());
+        cursor.setFetchSize(INSERT_BATCH_SIZE);
+        try {
+            readOnlyTemplate.executeWithoutResult(status -> {
+                cursor.query(SELECT_SQL, rs -> {
+                    try {
+                        data.writeByte(STUDENT);
+                        data.writeLong(rs.getLong(1));
+                        data.writeLong(rs.getLong(2));
+                        data.writeUTF(rs.getString(3));
+                        data.writeUTF(rs.getString(4));
+                        data.writeUTF(rs.getString(5));
+                        data.writeInt(rs.getInt(6));
+                        writeTimestamp(data, rs.getTimestamp(7));
+                        data.writeBoolean(rs.getBoolean(8));
+                        count[0]++;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                cursor.query(SELECT_ARCHIVE_SQL, rs -> {
+                    try {
+                        long version = rs.getLong(2);
+                        if (rs.wasNull()) {
+                            version = -1;
+                        }
+                        data.writeByte(ARCHIVED);
+                        data.writeLong(rs.getLong(1));
+                        data.writeLong(version);
+                        data.writeUTF(rs.getString(3));
+                        data.writeUTF(rs.getString(4));
+                        data.writeUTF(rs.getString(5));
+                        data.writeInt(rs.getInt(6));
+                        writeTimestamp(data, rs.getTimestamp(7));
+                        writeTimestamp(data, rs.getTimestamp(8));
+                        count[0]++;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        data.writeByte(END);
+        data.writeLong(count[0]);
+        data.flush();
+        gzip.finish();
+        logger.info("Snapshot: {} estudiantes exportados en {} ms", count[0], (System.nanoTime() - start) / 1_000_000);
+        return count[0];
+    }
+
+    /**
+     * Reemplaza todos los estudiantes (y los archivados, desde la version 2 del formato)
+     * por el contenido de un snapshot
+     * @param input snapshot generado por export (no se cierra)
+     * @return cantidad de estudiantes restaurados
+     * @throws IOException si el archivo no se puede leer
+     * @throws IllegalArgumentException si el archivo no es un snapshot valido
+     */
+    public long restore(InputStream input) throws IOException {
+        long start = System.nanoTime();
+        DataInputStream data = new DataInputStream(new BufferedInputStream(new GZIPInputStream(input, 64 * 1024), 64 * 1024));
+        if (data.readInt() != MAGIC) {
+            throw new IllegalArgumentException("El archivo no es un snapshot de estudiantes valido");
+        }
+        short formatVersion = data.readShort();
+        if (formatVersion != FORMAT_VERSION && formatVersion != FORMAT_VERSION_WITHOUT_ARCHIVE) {
+            throw new IllegalArgumentException("El archivo no es un snapshot de estudiantes valido");
+        }
+        boolean includesArchive = formatVersion == FORMAT_VERSION;
+        long restored;
+        try {
+            restored = transactionTemplate.execute(status -> {
+                jdbcTemplate.update("DELETE FROM students");
+                if (includesArchive) {
+                    jdbcTemplate.update("DELETE FROM students_archive");
+                }
+                List<Object[]> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+                List<Object[]> archiveBatch = new ArrayList<>(INSERT_BATCH_SIZE);
+                long count = 0;
+                try {
+                    byte type;
+                    while ((type = data.readByte()) != END) {
+                        long id = data.readLong();
+                        long version = data.readLong();
+                        String dni = data.readUTF();
+                        String firstName = data.readUTF();
+                        String lastName = data.readUTF();
+                        int promotion = data.readInt();
+                        Timestamp date = readTimestamp(data);
+                        if (type == STUDENT) {
+                            boolean active = data.readBoolean();
+                            batch.add(new Object[] {id, version, dni, firstName, lastName, promotion, date, active});
+                        } else if (type == ARCHIVED && includesArchive) {
+                            Timestamp archivedAt = readTimestamp(data);
+                            archiveBatch.add(new Object[] {id, version < 0 ? null : version, dni, firstName, lastName,
+                                promotion, date, archivedAt});
+                        } else {
+                            throw new IllegalArgumentException("El snapshot tiene un registro desconocido");
+                        }
+                        count++;
+                        flushWhenFull(INSERT_SQL, batch);
+                        flushWhenFull(INSERT_ARCHIVE_SQL, archiveBatch);
+                    }
+                    if (data.readLong() != count) {
+                        throw new IllegalArgumentException("El snapshot esta incompleto");
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                if (!batch.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+                }
+                if (!archiveBatch.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERT_ARCHIVE_SQL, archiveBatch);
+                }
+                if (!includesArchive) {
+                    // Los archivados con un ID restaurado dejan de existir; los demas conservan su ID
+                    jdbcTemplate.update("DELETE FROM students_archive a WHERE EXISTS (SELECT 1 FROM students s WHERE s.id = a.id)");
+                }
+                jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                    ScriptUtils.executeSqlScript(connection, ID_SEQUENCE_SCRIPT);
+                    return null;
+                });
+                studentListVersionTracker.increment();
+                return count;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        studentCache.clear();
+        studentDniIndex.reload();
+        studentNameIndex.reload();
+        studentStatistics.reload();
+        studentReadModel.reload();
+        studentChangeLog.markReset();
+        logger.info("Snapshot: {} estudiantes restaurados en {} ms", restored, (System.nanoTime() - start) / 1_000_000);
+        return restored;
+    }
+
+    /**
+     * Inserta el lote si llego a INSERT_BATCH_SIZE filas
+     */
+    private void flushWhenFull(String sql, List<Object[]> batch) {
+        if (batch.size() == INSERT_BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Escribe una fecha como segundos epoch (floorDiv, correcto antes de 1970) + nanos
+     */
+    private static void writeTimestamp(DataOutputStream data, Timestamp timestamp) throws IOException {
+        data.writeLong(Math.floorDiv(timestamp.getTime(), 1000L));
+        data.writeInt(timestamp.getNanos());
+    }
+
+    /**
+     * Lee una fecha escrita por writeTimestamp
+     */
+    private static Timestamp readTimestamp(DataInputStream data) throws IOException {
+        Timestamp timestamp = new Timestamp(Math.multiplyExact(data.readLong(), 1000L));
+        timestamp.setNanos(data.readInt());
+        return timestamp;
+    }
+}
@@ -0,0 +1,338 @@
+package com.example.gracia.service;
+
+import com.example.gracia.cache.StudentDniIndex;
+import com.example.gracia.dto.StudentWriteStatus;
+import com.example.gracia.event.StudentChangeEvent;
+import com.example.gracia.exception.DuplicateDniException;
+import com.example.gracia.metrics.StudentMetrics;
+import com.example.gracia.model.Student;
+import com.example.gracia.repository.StudentRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servicio de escrituras diferidas (write-behind) con commit agrupado
+ *
+ * Las altas y modificaciones se aceptan en una cola acotada y se responden de
+ * inmediato con un identificador de seguimiento. Un unico hilo escritor toma de la
+ * cola hasta "batch-size" escrituras (o las que lleguen en "max-delay") y las guarda
+ * en una sola transaccion: un commit por lote en lugar de uno por peticion.
+ *
+ * - DNI duplicados y estudiantes inexistentes se rechazan sin abortar el lote
+ *   (indice de DNI en memoria y una sola consulta por los IDs del lote)
+ * - Si el lote falla al confirmarse, se reintenta cada escritura en su propia transaccion
+ * - El estado de cada escritura se consulta por su identificador durante "status-retention"
+ *
+ * Se activa con student.write-behind.enabled=true.
+ */
+@Service
+@ConditionalOnProperty(name = "student.write-behind.enabled", havingValue = "true")
+public class StudentWriteBehindService implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentWriteBehindService.class);
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private StudentDniIndex studentDniIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private StudentMetrics studentMetrics;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final BlockingQueue<PendingWrite> queue;
+    private final int batchSize;
+    private final long maxDelayNanos;
+    private final Cache<String, StudentWriteStatus> statuses;
+    private final TransactionTemplate transactionTemplate;
+    private final Thread writer;
+    private volatile boolean running = true;
+    private DistributionSummary batchSizes;
+
+    public StudentWriteBehindService(PlatformTransactionManager transactionManager,
+                                     @Value("${student.write-behind.queue-capacity:10000}") int queueCapacity,
+                                     @Value("${student.write-behind.batch-size:200}") int batchSize,
+                                     @Value("${student.write-behind.max-delay:20ms}") Duration maxDelay,
+                                     @Value("${student.write-behind.status-retention:10m}") Duration statusRetention) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.statuses = Caffeine.newBuilder().expireAfterWrite(statusRetention).build();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.writer = new Thread(this::runWriter, "student-write-behind");
+        this.writer.setDaemon(true);
+        this.writer.start();
+        logger.info("Write-behind: Cola de {} escrituras, lotes de hasta {} o {}", queueCapacity, batchSize, maxDelay);
+    }
+
+    /**
+     * Acepta el alta de un estudiante
+     * @param student datos del estudiante (ya validados)
+     * @return estado PENDING con el identificador de seguimiento, o vacio si la cola esta llena
+     */
+    public Optional<StudentWriteStatus> submitCreate(Student student) {
+        return submit("CREATE", null, student);
+    }
+
+    /**
+     * Acepta la modificacion de un estudiante
+     * @param id ID del estudiante
+     * @param details nuevos datos (ya validados)
+     * @return estado PENDING con el identificador de seguimiento, o vacio si la cola esta llena
+     */
+    public Optional<StudentWriteStatus> submitUpdate(Long id, Student details) {
+        return submit("UPDATE", id, details);
+    }
+
+    /**
+     * @param trackingId identificador devuelto al aceptar la escritura
+     * @return estado actual, o vacio si no existe o ya vencio su retencion
+     */
+    public Optional<StudentWriteStatus> getStatus(String trackingId) {
+        return Optional.ofNullable(statuses.getIfPresent(trackingId));
+    }
+
+    private Optional<StudentWriteStatus> submit(String operation, Long id, Student student) {
+        if (!running) {
+            return Optional.empty();
+        }
+        StudentWriteStatus status = new StudentWriteStatus(UUID.randomUUID().toString(), operation,
+                StudentWriteStatus.Status.PENDING, id, null, Instant.now(), null);
+        statuses.put(status.getTrackingId(), status);
+        if (!queue.offer(new PendingWrite(status.getTrackingId(), id, student))) {
+            statuses.invalidate(status.getTrackingId());
+            logger.warn("Write-behind: Cola llena, escritura rechazada - DNI: {}", student.getDni());
+            return Optional.empty();
+        }
+        return Optional.of(status);
+    }
+
+    /**
+     * Bucle del hilo escritor: arma lotes por tamano o por tiempo y los guarda
+     */
+    private void runWriter() {
+        List<PendingWrite> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < batchSize) {
+                    if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    PendingWrite next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } catch (RuntimeException e) {
+                logger.error("Write-behind: Error inesperado en el hilo escritor", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Guarda un lote en una sola transaccion; si falla, cada escritura en su propia transaccion
+     */
+    private void write(List<PendingWrite> batch) {
+        long start = System.nanoTime();
+        Map<String, StudentWriteStatus> results = new HashMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> apply(batch, results));
+            results.forEach(statuses::put);
+        } catch (RuntimeException e) {
+            logger.warn("Write-behind: Fallo el lote de {} escrituras ({}), reintentando una por una",
+                batch.size(), e.getMessage());
+            entityManager.clear();
+            for (PendingWrite write : batch) {
+                writeSingle(write);
+            }
+        } finally {
+            entityManager.clear();
+        }
+        if (batchSizes != null) {
+            batchSizes.record(batch.size());
+        }
+        logger.info("Write-behind: Lote de {} escrituras guardado en {} ms", batch.size(),
+            (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void writeSingle(PendingWrite write) {
+        Map<String, StudentWriteStatus> results = new HashMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> apply(List.of(write), results));
+            results.forEach(statuses::put);
+        } catch (DataIntegrityViolationException e) {
+            if (DuplicateDniException.isDniViolation(e)) {
+                studentMetrics.duplicateDni("write_behind");
+                reject(write, "DNI ya registrado");
+            } else {
+                reject(write, "La escritura no cumple las restricciones de la base de datos");
+            }
+        } catch (RuntimeException e) {
+            reject(write, "Error al guardar: " + e.getMessage());
+        } finally {
+            entityManager.clear();
+        }
+    }
+
+    /**
+     * Aplica las escrituras dentro de la transaccion actual.
+     * Los resultados se registran en results y solo se publican si la transaccion se confirma.
+     */
+    private void apply(List<PendingWrite> batch, Map<String, StudentWriteStatus> results) {
+        List<Long> updateIds = batch.stream().filter(w -> w.id != null).map(w -> w.id).toList();
+        Map<Long, Student> existing = new HashMap<>();
+        if (!updateIds.isEmpty()) {
+            for (Student student : studentRepository.findAllById(updateIds)) {
+                existing.put(student.getId(), student);
+            }
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Set<String> batchDnis = new HashSet<>();
+        List<PendingWrite> created = new ArrayList<>();
+        for (PendingWrite write : batch) {
+            String dni = write.student.getDni();
+            Long owner = studentDniIndex.ownerOf(dni);
+            Student current = write.id == null ? null : existing.get(write.id);
+            if (write.id != null && current == null) {
+                studentMetrics.notFound("write_behind");
+                results.put(write.trackingId, completed(write, StudentWriteStatus.Status.REJECTED, write.id,
+                    "Estudiante no encontrado"));
+                continue;
+            }
+            boolean sameDni = current != null && dni.equals(current.getDni());
+            if (!sameDni && ((owner != null && !owner.equals(write.id)) || !batchDnis.add(dni))) {
+                studentMetrics.duplicateDni("write_behind");
+                results.put(write.trackingId, completed(write, StudentWriteStatus.Status.REJECTED, write.id,
+                    "DNI ya registrado"));
+                continue;
+            }
+            if (current == null) {
+                Student student = write.student;
+                student.setId(null);
+                student.setDate(now);
+                student.setActive(true);
+                entityManager.persist(student);
+                created.add(write);
+            } else {
+                String previousDni = current.getDni();
+                StudentChangeEvent.State previous = StudentChangeEvent.State.of(current);
+                current.setDni(dni);
+                current.setFirstName(write.student.getFirstName());
+                current.setLastName(write.student.getLastName());
+                current.setPromotion(write.student.getPromotion());
+                current.setDate(now);
+                eventPublisher.publishEvent(new StudentChangeEvent(StudentChangeEvent.Type.UPDATED, current.getId(),
+                    current, sameDni ? null : previousDni, previous));
+                results.put(write.trackingId, completed(write, StudentWriteStatus.Status.COMMITTED, current.getId(), null));
+            }
+        }
+        // Por el repositorio y no por el EntityManager: asi una violacion de restriccion llega traducida
+        // como DataIntegrityViolationException y writeSingle reconoce el DNI duplicado
+        studentRepository.flush();
+        for (PendingWrite write : created) {
+            eventPublisher.publishEvent(new StudentChangeEvent(StudentChangeEvent.Type.CREATED, write.student.getId(),
+                write.student, null));
+            results.put(write.trackingId, completed(write, StudentWriteStatus.Status.COMMITTED, write.student.getId(), null));
+        }
+    }
+
+    private StudentWriteStatus completed(PendingWrite write, StudentWriteStatus.Status status, Long studentId, String message) {
+        StudentWriteStatus current = statuses.getIfPresent(write.trackingId);
+        if (current == null) {
+            current = new StudentWriteStatus(write.trackingId, write.id == null ? "CREATE" : "UPDATE",
+                StudentWriteStatus.Status.PENDING, write.id, null, Instant.now(), null);
+        }
+        return current.complete(status, studentId, message);
+    }
+
+    private void reject(PendingWrite write, String message) {
+        logger.warn("Write-behind: Escritura {} rechazada - DNI: {} - {}", write.trackingId, write.student.getDni(), message);
+        statuses.put(write.trackingId, completed(write, StudentWriteStatus.Status.REJECTED, write.id, message));
+    }
+
+    /**
+     * Deja de aceptar escrituras y espera a que se guarden las que estan en la cola
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        if (!queue.isEmpty()) {
+            logger.error("Write-behind: Quedaron {} escrituras sin guardar al detener la aplicacion", queue.size());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("student.write_behind.queue", queue, BlockingQueue::size)
+                .description("Escrituras aceptadas pendientes de guardar")
+                .register(registry);
+        batchSizes = DistributionSummary.builder("student.write_behind.batch")
+                .description("Escrituras guardadas por transaccion")
+                .register(registry);
+    }
+
+    private static final class PendingWrite {
+        private final String trackingId;
+        private final Long id;
+        private final Student student;
+
+        private PendingWrite(String trackingId, Long id, Student student) {
+            this.trackingId = trackingId;
+            this.id = id;
+            this.student = student;
+        }
+    }
+}
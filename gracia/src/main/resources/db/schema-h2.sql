@@ -0,0 +1,44 @@
+-- Esquema de la tabla students para el perfil "file" (H2 en archivo)
+-- Debe coincidir con la entidad Student: Hibernate lo valida al arrancar (ddl-auto=validate)
+CREATE TABLE IF NOT EXISTS students (
+    id BIGINT NOT NULL,
+    active BOOLEAN NOT NULL,
+    date TIMESTAMP(6) NOT NULL,
+    dni VARCHAR(255) NOT NULL,
+    first_name VARCHAR(255) NOT NULL,
+    last_name VARCHAR(255) NOT NULL,
+    promotion INTEGER NOT NULL,
+    version BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_students_dni UNIQUE (dni)
+);
+
+CREATE INDEX IF NOT EXISTS idx_students_active_id ON students (active, id);
+CREATE INDEX IF NOT EXISTS idx_students_promotion_active ON students (promotion, active);
+CREATE INDEX IF NOT EXISTS idx_students_last_first ON students (last_name, first_name);
+CREATE INDEX IF NOT EXISTS idx_students_first_name ON students (first_name);
+CREATE INDEX IF NOT EXISTS idx_students_date ON students (date);
+
+-- Estudiantes archivados (StudentArchiveService): sin restriccion unique de DNI
+CREATE TABLE IF NOT EXISTS students_archive (
+    id BIGINT NOT NULL,
+    archived_at TIMESTAMP(6) NOT NULL,
+    date TIMESTAMP(6) NOT NULL,
+    dni VARCHAR(255) NOT NULL,
+    first_name VARCHAR(255) NOT NULL,
+    last_name VARCHAR(255) NOT NULL,
+    promotion INTEGER NOT NULL,
+    version BIGINT,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_students_archive_archived_at ON students_archive (archived_at);
+
+-- Contador de cambios de los listados (ETag), ver StudentListVersionTracker
+CREATE TABLE IF NOT EXISTS student_list_version (
+    shard INTEGER NOT NULL,
+    version BIGINT NOT NULL,
+    PRIMARY KEY (shard)
+);
+
+CREATE SEQUENCE IF NOT EXISTS students_seq START WITH 1 INCREMENT BY 50;
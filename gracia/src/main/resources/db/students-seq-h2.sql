@@ -0,0 +1,10 @@
+-- Adelanta students_seq por encima de los IDs de students y students_archive (nunca la retrocede)
+-- Cubre las bases creadas con IDENTITY y las filas insertadas por fuera de la secuencia.
+-- Con allocationSize = 50 (Student.ID_ALLOCATION_SIZE), el valor N reserva los IDs (N - 50, N]:
+-- el primer bloque despues de este script empieza por encima del mayor ID existente.
+-- Se ejecuta al arrancar con el perfil "file" y despues de restaurar un snapshot (StudentSnapshotService).
+ALTER SEQUENCE students_seq RESTART WITH (SELECT GREATEST(
+    (SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES
+        WHERE SEQUENCE_SCHEMA = CURRENT_SCHEMA AND SEQUENCE_NAME = 'STUDENTS_SEQ'),
+    (SELECT COALESCE(MAX(id), 0) FROM students) + 50,
+    (SELECT COALESCE(MAX(id), 0) FROM students_archive) + 50));
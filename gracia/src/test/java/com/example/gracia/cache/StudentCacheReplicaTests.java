@@ -0,0 +1,104 @@
+package com.example.gracia.cache;
+
+import com.example.gracia.config.ReadYourWrites;
+import com.example.gracia.config.ReplicaPoolDataSource;
+import com.example.gracia.model.Student;
+import com.example.gracia.service.StudentService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Dos H2: la base principal y una replica que no recibe los cambios (una replica atrasada)
+ */
+@SpringBootTest(properties = {
+		"student.datasource.replicas.enabled=true",
+		"student.datasource.replicas.urls=jdbc:h2:mem:cache-replica;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:db/schema-h2.sql'",
+		"student.datasource.replicas.read-your-writes-window=1m",
+		"student.batch-loader.enabled=false"
+})
+class StudentCacheReplicaTests {
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private StudentCache studentCache;
+
+	@Autowired
+	@Qualifier("replicaDataSource")
+	private ReplicaPoolDataSource replicaDataSource;
+
+	@Autowired
+	@Qualifier("primaryDataSource")
+	private HikariDataSource primaryDataSource;
+
+	private JdbcTemplate replica;
+
+	@BeforeEach
+	void setUp() {
+		replica = new JdbcTemplate(replicaDataSource.getReplicas().get(0));
+		ReadYourWrites.clear();
+	}
+
+	/**
+	 * El hilo del test tiene atributos de peticion: despues de cada escritura se limpia la marca
+	 * de read-your-writes para que las lecturas siguientes sean las de otra peticion
+	 */
+	@AfterEach
+	void nextRequest() {
+		ReadYourWrites.clear();
+	}
+
+	/**
+	 * Copia en la replica la fila de la base principal, como la dejaria la replicacion
+	 */
+	private void replicate(Long id) {
+		JdbcTemplate primary = new JdbcTemplate(primaryDataSource);
+		replica.update("DELETE FROM students WHERE id = ?", id);
+		primary.query("SELECT id, active, date, dni, first_name, last_name, promotion, version FROM students WHERE id = ?",
+				rs -> {
+					replica.update("INSERT INTO students (id, active, date, dni, first_name, last_name, promotion, version) "
+							+ "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", rs.getLong(1), rs.getBoolean(2), rs.getTimestamp(3),
+							rs.getString(4), rs.getString(5), rs.getString(6), rs.getInt(7), rs.getLong(8));
+				}, id);
+	}
+
+	@Test
+	void readsOfUnchangedStudentsGoToTheReplica() {
+		long id = 9_000_001L;
+		replica.update("INSERT INTO students (id, active, date, dni, first_name, last_name, promotion, version) "
+				+ "VALUES (?, TRUE, ?, 'replica-only-1', 'Solo', 'Replica', 2020, 0)", id, Timestamp.valueOf(LocalDateTime.now()));
+
+		assertThat(studentService.getStudentById(id)).get().extracting(Student::getDni).isEqualTo("replica-only-1");
+	}
+
+	@Test
+	void stateChangeIsNotCachedFromALaggingReplica() {
+		Student created = studentService.createStudent(new Student("replica-lag-1", "Lucia", "Prado", 2021, null));
+		replicate(created.getId());
+		studentCache.clear();
+
+		// La replica todavia tiene el estudiante activo
+		assertThat(studentService.deleteStudent(created.getId())).isTrue();
+		nextRequest();
+
+		assertThat(studentService.getStudentById(created.getId())).get().extracting(Student::getActive).isEqualTo(false);
+		assertThat(studentCache.peekById(created.getId()).getActive()).isFalse();
+		assertThat(studentService.getStudentByDni("replica-lag-1")).get().extracting(Student::getActive).isEqualTo(false);
+
+		assertThat(studentService.restoreStudent(created.getId())).isPresent();
+		nextRequest();
+		assertThat(studentService.getStudentById(created.getId())).get().extracting(Student::getActive).isEqualTo(true);
+	}
+}
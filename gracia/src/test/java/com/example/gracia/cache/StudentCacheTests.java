@@ -0,0 +1,147 @@
+package com.example.gracia.cache;
+
+import com.example.gracia.config.ReadYourWrites;
+import com.example.gracia.event.StudentChangeEvent;
+import com.example.gracia.model.Student;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StudentCacheTests {
+
+	private final StudentCache cache = new StudentCache(true, 100, Duration.ofMinutes(10), false, Duration.ZERO);
+
+	@Test
+	void dniLookupDoesNotResurrectAnEntryInvalidatedWhileLoading() throws Exception {
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Function<String, Student> slowLoader = dni -> {
+			loading.countDown();
+			await(release);
+			return student(1L, dni, true, 0L);
+		};
+
+		CompletableFuture<Student> lookup = CompletableFuture.supplyAsync(
+				() -> cache.getByDni("111", slowLoader, id -> student(id, "111", false, 1L)));
+		assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+		// Se confirma una eliminacion logica mientras la busqueda por DNI lee el estado anterior
+		cache.onStudentChange(new StudentChangeEvent(StudentChangeEvent.Type.SOFT_DELETED, 1L, LocalDateTime.now()));
+		release.countDown();
+
+		assertThat(lookup.get(5, TimeUnit.SECONDS).getActive()).isTrue();
+		assertThat(cache.peekById(1L)).isNull();
+		assertThat(cache.getById(1L, id -> student(id, "111", false, 1L)).getActive()).isFalse();
+	}
+
+	@Test
+	void updateCommittedWhileLoadingByIdWins() throws Exception {
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<Student> lookup = CompletableFuture.supplyAsync(() -> cache.getById(2L, id -> {
+			loading.countDown();
+			await(release);
+			return student(id, "222", true, 0L);
+		}));
+		assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+		CompletableFuture<Void> update = CompletableFuture.runAsync(() -> cache.onStudentChange(
+				new StudentChangeEvent(StudentChangeEvent.Type.UPDATED, 2L, student(2L, "222", true, 1L), null)));
+		release.countDown();
+		lookup.get(5, TimeUnit.SECONDS);
+		update.get(5, TimeUnit.SECONDS);
+
+		assertThat(cache.peekById(2L).getVersion()).isEqualTo(1L);
+	}
+
+	@Test
+	void dniLookupIsServedFromTheIdCacheAfterTheFirstLoad() {
+		AtomicInteger dniLoads = new AtomicInteger();
+		AtomicInteger idLoads = new AtomicInteger();
+		Function<String, Student> byDni = dni -> {
+			dniLoads.incrementAndGet();
+			return student(3L, dni, true, 0L);
+		};
+		Function<Long, Student> byId = id -> {
+			idLoads.incrementAndGet();
+			return student(id, "333", true, 0L);
+		};
+
+		cache.getByDni("333", byDni, byId);
+		cache.getByDni("333", byDni, byId);
+		cache.getByDni("333", byDni, byId);
+
+		assertThat(dniLoads).hasValue(1);
+		assertThat(idLoads).hasValue(1);
+		assertThat(cache.peekByDni("333").getId()).isEqualTo(3L);
+	}
+
+	@Test
+	void dniChangeEvictsThePreviousDni() {
+		cache.onStudentChange(new StudentChangeEvent(StudentChangeEvent.Type.CREATED, 4L, student(4L, "444", true, 0L), null));
+		cache.onStudentChange(new StudentChangeEvent(StudentChangeEvent.Type.UPDATED, 4L, student(4L, "445", true, 1L), "444"));
+
+		assertThat(cache.peekByDni("444")).isNull();
+		assertThat(cache.peekByDni("445").getVersion()).isEqualTo(1L);
+		assertThat(cache.getByDni("444", dni -> null, id -> null)).isNull();
+	}
+
+	@Test
+	void softDeleteEvictsTheStudentButKeepsTheDniMapping() {
+		cache.onStudentChange(new StudentChangeEvent(StudentChangeEvent.Type.CREATED, 5L, student(5L, "555", true, 0L), null));
+		cache.onStudentChange(new StudentChangeEvent(StudentChangeEvent.Type.SOFT_DELETED, 5L, LocalDateTime.now()));
+
+		assertThat(cache.peekByDni("555")).isNull();
+		Student reloaded = cache.getByDni("555", dni -> { throw new AssertionError("no debe leer por DNI"); },
+				id -> student(id, "555", false, 1L));
+		assertThat(reloaded.getActive()).isFalse();
+	}
+
+	@Test
+	void removalEvictsBothEntries() {
+		cache.onStudentChange(new StudentChangeEvent(StudentChangeEvent.Type.CREATED, 6L, student(6L, "666", true, 0L), null));
+		cache.onStudentChange(new StudentChangeEvent(StudentChangeEvent.Type.HARD_DELETED, 6L, null, "666"));
+
+		assertThat(cache.peekById(6L)).isNull();
+		assertThat(cache.peekByDni("666")).isNull();
+		assertThat(cache.getByDni("666", dni -> null, id -> null)).isNull();
+	}
+
+	@Test
+	void withReplicasRecentlyChangedKeysAreLoadedFromThePrimary() {
+		StudentCache replicated = new StudentCache(true, 100, Duration.ofMinutes(10), true, Duration.ofMinutes(1));
+		Function<Long, Student> byId = id -> student(id, "777", !ReadYourWrites.isPrimaryRequired(), 0L);
+		replicated.onStudentChange(new StudentChangeEvent(StudentChangeEvent.Type.SOFT_DELETED, 7L, LocalDateTime.now()));
+
+		// Inactivo = leido de la base principal; activo = leido de una replica
+		assertThat(replicated.getById(7L, byId).getActive()).isFalse();
+		assertThat(replicated.getById(8L, byId).getActive()).isTrue();
+		assertThat(ReadYourWrites.isPrimaryRequired()).isFalse();
+
+		replicated.onStudentChange(new StudentChangeEvent(StudentChangeEvent.Type.HARD_DELETED, 9L, null, "999"));
+		assertThat(replicated.getByDni("999", dni -> ReadYourWrites.isPrimaryRequired() ? null : student(9L, dni, true, 0L),
+				id -> null)).isNull();
+	}
+
+	private static Student student(Long id, String dni, boolean active, Long version) {
+		Student student = new Student(dni, "Nombre", "Apellido", 2020, LocalDateTime.now());
+		student.setId(id);
+		student.setActive(active);
+		student.setVersion(version);
+		return student;
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,43 @@
+package com.example.gracia.cache;
+
+import com.example.gracia.event.StudentChangeEvent;
+import com.example.gracia.model.Student;
+import com.example.gracia.service.StudentService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class StudentDniIndexTests {
+
+	@Autowired
+	private StudentDniIndex dniIndex;
+
+	@Autowired
+	private StudentService studentService;
+
+	@Test
+	void hardDeleteRemovesTheDniAndFreesIt() {
+		Student student = studentService.createStudent(new Student("dni-idx-hard-1", "Teodora", "Luna", 2015, null));
+		assertThat(dniIndex.ownerOf("dni-idx-hard-1")).isEqualTo(student.getId());
+
+		assertThat(studentService.hardDeleteStudent(student.getId())).isTrue();
+
+		assertThat(dniIndex.contains("dni-idx-hard-1")).isFalse();
+		Student again = studentService.createStudent(new Student("dni-idx-hard-1", "Teodora", "Luna", 2015, null));
+		assertThat(dniIndex.ownerOf("dni-idx-hard-1")).isEqualTo(again.getId());
+	}
+
+	@Test
+	void removalOnlyDropsTheDniWhileItStillBelongsToTheSameId() {
+		Student owner = studentService.createStudent(new Student("dni-idx-owner-1", "Teodora", "Luna", 2015, null));
+
+		// Evento tardio de otro ID con el mismo DNI: no debe quitar al duenio actual
+		dniIndex.onStudentChange(new StudentChangeEvent(StudentChangeEvent.Type.HARD_DELETED, owner.getId() + 1_000_000,
+				null, "dni-idx-owner-1"));
+
+		assertThat(dniIndex.ownerOf("dni-idx-owner-1")).isEqualTo(owner.getId());
+	}
+}
@@ -0,0 +1,120 @@
+package com.example.gracia.cache;
+
+import com.example.gracia.event.StudentChangeEvent;
+import com.example.gracia.model.Student;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StudentNameIndexTests {
+
+	private final StudentNameIndex index = new StudentNameIndex(true, 0.4);
+
+	private void saved(long id, String dni, String firstName, String lastName) {
+		Student student = new Student(dni, firstName, lastName, 2020, LocalDateTime.now());
+		student.setId(id);
+		student.setActive(true);
+		index.onStudentChange(new StudentChangeEvent(StudentChangeEvent.Type.CREATED, id, student, null));
+	}
+
+	private List<Long> search(String query, int limit, boolean includeInactive) {
+		return index.search(query, limit, includeInactive).stream().map(StudentNameIndex.Match::getId).toList();
+	}
+
+	@Test
+	void exactNameRanksAboveSimilarNamesAndUnrelatedOnesAreLeftOut() {
+		saved(1, "30111222", "Mariana", "Garcete");
+		saved(2, "30111333", "Maria", "Garcia");
+		saved(3, "30111444", "Pedro", "Gomez");
+
+		assertThat(search("maria garcia", 10, false)).containsExactly(2L, 1L);
+		assertThat(search("María García", 10, false)).containsExactly(2L, 1L);
+	}
+
+	@Test
+	void toleratesTyposAndTreatsTheLastWordAsAPrefix() {
+		saved(1, "28000001", "Maximiliano", "Rodriguez");
+		saved(2, "28000002", "Maxima", "Ruiz");
+
+		assertThat(search("maximilano rodrigues", 10, false)).first().isEqualTo(1L);
+		assertThat(search("maximiliano rodr", 10, false)).first().isEqualTo(1L);
+	}
+
+	@Test
+	void dniPrefixRanksItsOwnerFirst() {
+		saved(1, "40555111", "Lucia", "Sosa");
+		saved(2, "41555111", "Lucio", "Sosa");
+
+		assertThat(search("40555", 10, false)).first().isEqualTo(1L);
+	}
+
+	@Test
+	void limitKeepsTheBestScoresAndBreaksTiesByLowestId() {
+		saved(7, "11", "Ana", "Lopez");
+		saved(3, "12", "Ana", "Lopez");
+		saved(5, "13", "Ana", "Lopez");
+
+		List<StudentNameIndex.Match> matches = index.search("ana lopez", 2, false);
+
+		assertThat(matches).extracting(StudentNameIndex.Match::getId).containsExactlyInAnyOrder(3L, 5L);
+		assertThat(matches.get(0).getScore()).isGreaterThanOrEqualTo(matches.get(1).getScore());
+	}
+
+	@Test
+	void followsRenamesStateChangesAndRemovals() {
+		saved(1, "50000001", "Rosa", "Benitez");
+		saved(1, "50000001", "Rosalia", "Quintana");
+
+		assertThat(search("benitez", 10, false)).isEmpty();
+		assertThat(search("quintana", 10, false)).containsExactly(1L);
+
+		index.onStudentChange(new StudentChangeEvent(StudentChangeEvent.Type.SOFT_DELETED, 1L, LocalDateTime.now()));
+		assertThat(search("quintana", 10, false)).isEmpty();
+		assertThat(search("quintana", 10, true)).containsExactly(1L);
+
+		index.onStudentChange(new StudentChangeEvent(StudentChangeEvent.Type.RESTORED, 1L, LocalDateTime.now()));
+		assertThat(search("quintana", 10, false)).containsExactly(1L);
+
+		index.onStudentChange(new StudentChangeEvent(StudentChangeEvent.Type.HARD_DELETED, 1L, null, "50000001"));
+		assertThat(search("quintana", 10, true)).isEmpty();
+	}
+
+	@Test
+	void compactionKeepsSearchesCorrect() {
+		saved(1, "60000001", "Ignacio", "Ferrero");
+		saved(2, "60000002", "Olga", "Medina");
+		// Cada actualizacion deja un slot vacio; al superar el minimo se reconstruyen las listas
+		for (int i = 0; i < 10_050; i++) {
+			saved(2, "60000002", "Olga", i % 2 == 0 ? "Medina" : "Molina");
+		}
+
+		assertThat(search("ignacio ferrero", 10, false)).containsExactly(1L);
+		assertThat(search("olga molina", 10, false)).first().isEqualTo(2L);
+		assertThat(index.search("olga molina", 10, false)).hasSize(1);
+	}
+
+	@Test
+	void rareTrigramsFindTheMatchAmongManyStudentsSharingCommonOnes() {
+		for (int i = 1; i <= 500; i++) {
+			saved(i, "3" + (1_000_000 + i), "Maria", i % 2 == 0 ? "Gonzalez" : "Gomez");
+		}
+		saved(1_000, "39999999", "Maria", "Zubizarreta");
+
+		// Con errores de tipeo: los trigramas raros no coinciden todos, pero basta con la cobertura minima
+		assertThat(search("maria zubisarreta", 3, false)).first().isEqualTo(1_000L);
+		assertThat(search("zubizareta", 10, false)).containsExactly(1_000L);
+		assertThat(search("maria gonzalez", 600, false)).hasSize(501).first().isEqualTo(2L);
+	}
+
+	@Test
+	void queriesWithoutUsefulCharactersReturnNothing() {
+		saved(1, "70000001", "Ana", "Paz");
+
+		assertThat(search("", 10, true)).isEmpty();
+		assertThat(search("?!", 10, true)).isEmpty();
+		assertThat(search("ana", 0, true)).isEmpty();
+	}
+}
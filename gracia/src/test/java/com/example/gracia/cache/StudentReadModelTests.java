@@ -0,0 +1,173 @@
+package com.example.gracia.cache;
+
+import com.example.gracia.config.ReadYourWrites;
+import com.example.gracia.event.StudentChangeEvent;
+import com.example.gracia.model.Student;
+import com.example.gracia.repository.StudentRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StudentReadModelTests {
+
+	private static final LocalDateTime DATE = LocalDateTime.of(2024, 5, 6, 7, 8, 9);
+
+	private final StudentReadModel model = new StudentReadModel(true, Duration.ZERO);
+
+	private static Student student(long id, String dni, String firstName, long version, boolean active) {
+		Student student = new Student(dni, firstName, "Paz", 2020, DATE);
+		student.setId(id);
+		student.setVersion(version);
+		student.setActive(active);
+		return student;
+	}
+
+	private void saved(StudentChangeEvent.Type type, Student student) {
+		model.onStudentChange(new StudentChangeEvent(type, student.getId(), student, null));
+	}
+
+	private static List<Long> ids(List<Student> students) {
+		return students.stream().map(Student::getId).toList();
+	}
+
+	@Test
+	void mergeKeepsRowsSortedByIdAndAppliesEveryPendingChangeOnce() {
+		saved(StudentChangeEvent.Type.CREATED, student(30, "rm-30", "Carla", 0, true));
+		saved(StudentChangeEvent.Type.CREATED, student(10, "rm-10", "Ana", 0, true));
+		saved(StudentChangeEvent.Type.CREATED, student(20, "rm-20", "Beto", 0, true));
+
+		StudentReadModel.Snapshot first = model.current();
+
+		assertThat(ids(first.toStudents(true))).containsExactly(10L, 20L, 30L);
+		assertThat(model.current()).isSameAs(first);
+
+		saved(StudentChangeEvent.Type.UPDATED, student(20, "rm-20", "Bernardo", 1, true));
+		model.onStudentChange(new StudentChangeEvent(StudentChangeEvent.Type.HARD_DELETED, 30L, null, "rm-30"));
+		saved(StudentChangeEvent.Type.CREATED, student(5, "rm-5", "Dora", 0, true));
+		saved(StudentChangeEvent.Type.CREATED, student(25, "rm-25", "Eva", 0, true));
+
+		StudentReadModel.Snapshot second = model.current();
+
+		assertThat(second.getVersion()).isGreaterThan(first.getVersion());
+		assertThat(second.etag(true)).isNotEqualTo(first.etag(true));
+		List<Student> students = second.toStudents(true);
+		assertThat(ids(students)).containsExactly(5L, 10L, 20L, 25L);
+		assertThat(students.get(2).getFirstName()).isEqualTo("Bernardo");
+		assertThat(students.get(2).getVersion()).isEqualTo(1L);
+		// La version anterior no cambia (copy-on-write)
+		assertThat(ids(first.toStudents(true))).containsExactly(10L, 20L, 30L);
+	}
+
+	@Test
+	void stateChangesWithoutEntityUpdateActiveFlagDateAndVersion() {
+		saved(StudentChangeEvent.Type.CREATED, student(1, "rm-s-1", "Ana", 0, true));
+		saved(StudentChangeEvent.Type.CREATED, student(2, "rm-s-2", "Beto", 0, true));
+		model.current();
+		LocalDateTime deletedAt = LocalDateTime.of(2025, 1, 2, 3, 4, 5);
+
+		model.onStudentChange(new StudentChangeEvent(StudentChangeEvent.Type.SOFT_DELETED, 2L, deletedAt));
+
+		StudentReadModel.Snapshot snapshot = model.current();
+		assertThat(ids(snapshot.toStudents(false))).containsExactly(1L);
+		Student deleted = snapshot.toStudents(true).get(1);
+		assertThat(deleted.getActive()).isFalse();
+		assertThat(deleted.getVersion()).isEqualTo(1L);
+		assertThat(deleted.getDate()).isEqualTo(deletedAt);
+
+		model.onStudentChange(new StudentChangeEvent(StudentChangeEvent.Type.RESTORED, 2L, deletedAt.plusDays(1)));
+
+		assertThat(ids(model.current().toStudents(false))).containsExactly(1L, 2L);
+		assertThat(model.current().toStudents(true).get(1).getVersion()).isEqualTo(2L);
+	}
+
+	@Test
+	void stateChangeForAnUnknownIdDoesNotPublishANewVersion() {
+		saved(StudentChangeEvent.Type.CREATED, student(1, "rm-u-1", "Ana", 0, true));
+		StudentReadModel.Snapshot before = model.current();
+
+		model.onStudentChange(new StudentChangeEvent(StudentChangeEvent.Type.SOFT_DELETED, 99L, DATE));
+
+		assertThat(model.current()).isSameAs(before);
+	}
+
+	@Test
+	void jsonIsSerializedOncePerVersionAndFollowsWrites() {
+		ReflectionTestUtils.setField(model, "objectMapper", JsonMapper.builder().findAndAddModules().build());
+		saved(StudentChangeEvent.Type.CREATED, student(1, "rm-j-1", "Ana", 0, true));
+		saved(StudentChangeEvent.Type.CREATED, student(2, "rm-j-2", "Beto", 0, false));
+
+		byte[] active = model.json(false);
+
+		assertThat(model.json(false)).isSameAs(active);
+		assertThat(new String(active)).contains("rm-j-1").doesNotContain("rm-j-2");
+		assertThat(new String(model.json(true))).contains("rm-j-1").contains("rm-j-2");
+
+		saved(StudentChangeEvent.Type.UPDATED, student(1, "rm-j-1", "Anabel", 1, true));
+
+		assertThat(new String(model.json(false))).contains("Anabel");
+	}
+
+	@Test
+	void reloadReappliesChangesThatArriveWhileRowsAreStreamed() {
+		StudentRepository repository = mock(StudentRepository.class);
+		ReflectionTestUtils.setField(model, "studentRepository", repository);
+		ReflectionTestUtils.setField(model, "transactionManager", mock(PlatformTransactionManager.class));
+		ReflectionTestUtils.setField(model, "entityManager", mock(EntityManager.class));
+		saved(StudentChangeEvent.Type.CREATED, student(1, "rm-r-1", "Ana", 0, true));
+		// Anotado antes de la recarga: la lectura ya lo incluye y no debe volver a aplicarse
+		saved(StudentChangeEvent.Type.UPDATED, student(2, "rm-r-2", "Beto", 3, true));
+		when(repository.streamAll()).thenAnswer(invocation -> Stream.of(
+				student(1, "rm-r-1", "Ana", 0, true),
+				student(2, "rm-r-2", "Beto", 3, true),
+				student(3, "rm-r-3", "Carla", 0, true)).peek(student -> {
+			if (student.getId() == 2) {
+				// Confirmados mientras se leen las filas
+				saved(StudentChangeEvent.Type.UPDATED, student(1, "rm-r-1", "Anabel", 1, true));
+				saved(StudentChangeEvent.Type.CREATED, student(4, "rm-r-4", "Dora", 0, true));
+				model.onStudentChange(new StudentChangeEvent(StudentChangeEvent.Type.HARD_DELETED, 3L, null, "rm-r-3"));
+			}
+		}));
+
+		model.reload();
+
+		List<Student> students = model.current().toStudents(true);
+		assertThat(ids(students)).containsExactly(1L, 2L, 4L);
+		assertThat(students.get(0).getFirstName()).isEqualTo("Anabel");
+		assertThat(students.get(1).getVersion()).isEqualTo(3L);
+	}
+
+	@Test
+	void changesAreMergedInTheBackgroundUnlessTheReaderNeedsItsOwnWrites() throws Exception {
+		StudentReadModel batched = new StudentReadModel(true, Duration.ofMillis(200));
+		try {
+			batched.onStudentChange(new StudentChangeEvent(StudentChangeEvent.Type.CREATED, 1L, student(1, "rm-b-1", "Ana", 0, true), null));
+			StudentReadModel.Snapshot before = batched.current();
+			batched.onStudentChange(new StudentChangeEvent(StudentChangeEvent.Type.CREATED, 2L, student(2, "rm-b-2", "Beto", 0, true), null));
+
+			// Dentro del intervalo las lecturas comunes reciben la version publicada, sin combinar
+			assertThat(batched.current()).isSameAs(before);
+
+			ReadYourWrites.runOnPrimary(() -> assertThat(ids(batched.current().toStudents(true))).containsExactly(1L, 2L));
+
+			batched.onStudentChange(new StudentChangeEvent(StudentChangeEvent.Type.CREATED, 3L, student(3, "rm-b-3", "Carla", 0, true), null));
+			long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+			while (batched.current().size() < 3 && System.nanoTime() < deadline) {
+				Thread.sleep(10);
+			}
+			assertThat(ids(batched.current().toStudents(true))).containsExactly(1L, 2L, 3L);
+		} finally {
+			batched.shutdown();
+		}
+	}
+}
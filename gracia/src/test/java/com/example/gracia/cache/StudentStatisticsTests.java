@@ -0,0 +1,100 @@
+package com.example.gracia.cache;
+
+import com.example.gracia.dto.StudentStats;
+import com.example.gracia.model.Student;
+import com.example.gracia.service.StudentService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class StudentStatisticsTests {
+
+	@Autowired
+	private StudentStatistics statistics;
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	/**
+	 * Los conteos incrementales deben coincidir con un recuento completo (GROUP BY)
+	 */
+	private StudentStats assertMatchesRecount() {
+		StudentStats incremental = statistics.stats();
+		statistics.reload();
+		assertThat(statistics.stats()).usingRecursiveComparison().isEqualTo(incremental);
+		return incremental;
+	}
+
+	@Test
+	void eventsKeepTheCountsEqualToAFullRecount() {
+		StudentStats before = assertMatchesRecount();
+		LocalDate today = LocalDate.now();
+		long todayBefore = before.getByDay().getOrDefault(today, 0L);
+
+		Student created = studentService.createStudent(new Student("stats-1", "Ana", "Paz", 1901, null));
+		StudentStats afterCreate = assertMatchesRecount();
+		assertThat(afterCreate.getActive()).isEqualTo(before.getActive() + 1);
+		assertThat(afterCreate.getActiveByPromotion()).containsEntry(1901, 1L);
+		assertThat(afterCreate.getByDay()).containsEntry(today, todayBefore + 1);
+
+		studentService.updateStudent(created.getId(), new Student("stats-1", "Ana", "Paz", 1902, null));
+		StudentStats afterUpdate = assertMatchesRecount();
+		assertThat(afterUpdate.getActiveByPromotion()).doesNotContainKey(1901).containsEntry(1902, 1L);
+		assertThat(afterUpdate.getTotal()).isEqualTo(afterCreate.getTotal());
+
+		studentService.deleteStudent(created.getId());
+		StudentStats afterDelete = assertMatchesRecount();
+		assertThat(afterDelete.getActiveByPromotion()).doesNotContainKey(1902);
+		assertThat(afterDelete.getInactiveByPromotion()).containsEntry(1902, 1L);
+		assertThat(afterDelete.getInactive()).isEqualTo(before.getInactive() + 1);
+
+		studentService.restoreStudent(created.getId());
+		StudentStats afterRestore = assertMatchesRecount();
+		assertThat(afterRestore.getActiveByPromotion()).containsEntry(1902, 1L);
+		assertThat(afterRestore.getInactiveByPromotion()).doesNotContainKey(1902);
+
+		studentService.hardDeleteStudent(created.getId());
+		StudentStats afterHardDelete = assertMatchesRecount();
+		assertThat(afterHardDelete.getActiveByPromotion()).doesNotContainKey(1902);
+		assertThat(afterHardDelete.getTotal()).isEqualTo(before.getTotal());
+		assertThat(afterHardDelete.getByDay().getOrDefault(today, 0L)).isEqualTo(todayBefore);
+	}
+
+	@Test
+	void datesBefore1970AreCountedOnTheirOwnDay() {
+		LocalDate oldDay = LocalDate.of(1965, 3, 4);
+		Student created = studentService.createStudent(new Student("stats-old-1", "Eulalia", "Ferreyra", 1903, null));
+		jdbcTemplate.update("UPDATE students SET date = ? WHERE id = ?", Timestamp.valueOf(oldDay.atTime(10, 20)), created.getId());
+		statistics.reload();
+
+		assertThat(statistics.stats().getByDay()).containsEntry(oldDay, 1L).doesNotContainKey(LocalDate.ofEpochDay(0));
+
+		studentService.deleteStudent(created.getId());
+
+		assertThat(assertMatchesRecount().getByDay()).doesNotContainKey(oldDay);
+		studentService.hardDeleteStudent(created.getId());
+	}
+
+	@Test
+	void bulkStateChangesCarryThePreviousState() {
+		Student first = studentService.createStudent(new Student("stats-bulk-1", "Ana", "Paz", 1904, null));
+		Student second = studentService.createStudent(new Student("stats-bulk-2", "Beto", "Paz", 1904, null));
+
+		studentService.deleteStudents(List.of(first.getId(), second.getId()));
+		assertThat(assertMatchesRecount().getInactiveByPromotion()).containsEntry(1904, 2L);
+
+		studentService.restoreStudents(List.of(first.getId(), second.getId()));
+		assertThat(assertMatchesRecount().getActiveByPromotion()).containsEntry(1904, 2L);
+	}
+}
@@ -0,0 +1,58 @@
+package com.example.gracia.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdminTokenFilterTests {
+
+	private static final List<String> PATHS = List.of("POST /v1/api/student/snapshot");
+
+	private static MockHttpServletResponse send(AdminTokenFilter filter, String method, String token) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest(method, "/v1/api/student/snapshot");
+		if (token != null) {
+			request.addHeader("X-Admin-Token", token);
+		}
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, new MockFilterChain());
+		return response;
+	}
+
+	@Test
+	void protectedRoutesAreDisabledWithoutAConfiguredToken() throws Exception {
+		AdminTokenFilter filter = new AdminTokenFilter("X-Admin-Token", "", PATHS);
+
+		assertThat(send(filter, "POST", "anything").getStatus()).isEqualTo(403);
+		assertThat(send(filter, "GET", null).getStatus()).isEqualTo(200);
+	}
+
+	@Test
+	void protectedRoutesRequireTheConfiguredToken() throws Exception {
+		AdminTokenFilter filter = new AdminTokenFilter("X-Admin-Token", "s3creto", PATHS);
+
+		assertThat(send(filter, "POST", null).getStatus()).isEqualTo(401);
+		assertThat(send(filter, "POST", "otro").getStatus()).isEqualTo(401);
+		assertThat(send(filter, "POST", "s3creto").getStatus()).isEqualTo(200);
+	}
+
+	@Test
+	void traceRoutesMatchAnyStudentId() throws Exception {
+		AdminTokenFilter filter = new AdminTokenFilter("X-Admin-Token", "s3creto",
+				List.of("PUT /v1/api/student/{id}/trace", "DELETE /v1/api/student/{id}/trace"));
+
+		for (String method : List.of("PUT", "DELETE")) {
+			MockHttpServletRequest request = new MockHttpServletRequest(method, "/v1/api/student/42/trace");
+			MockHttpServletResponse response = new MockHttpServletResponse();
+			filter.doFilter(request, response, new MockFilterChain());
+			assertThat(response.getStatus()).isEqualTo(401);
+		}
+		MockHttpServletResponse read = new MockHttpServletResponse();
+		filter.doFilter(new MockHttpServletRequest("GET", "/v1/api/student/42"), read, new MockFilterChain());
+		assertThat(read.getStatus()).isEqualTo(200);
+	}
+}
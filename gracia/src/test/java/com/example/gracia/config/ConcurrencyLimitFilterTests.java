@@ -0,0 +1,66 @@
+package com.example.gracia.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitFilterTests {
+
+	private static MockHttpServletRequest request(String uri) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+		request.setAsyncSupported(true);
+		return request;
+	}
+
+	@Test
+	void asyncResponseHoldsItsPermitUntilCompletion() throws Exception {
+		ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1, Duration.ofMillis(10));
+		MockHttpServletRequest export = request("/v1/api/student/export/csv");
+
+		filter.doFilter(export, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+
+		assertThat(filter.availablePermits()).isZero();
+		MockHttpServletResponse rejected = new MockHttpServletResponse();
+		filter.doFilter(request("/v1/api/student/1"), rejected, new MockFilterChain());
+		assertThat(rejected.getStatus()).isEqualTo(503);
+
+		((MockAsyncContext) export.getAsyncContext()).complete();
+
+		assertThat(filter.availablePermits()).isEqualTo(1);
+	}
+
+	@Test
+	void asyncTimeoutAlsoReleasesThePermitOnce() throws Exception {
+		ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1, Duration.ofMillis(10));
+		MockHttpServletRequest stream = request("/v1/api/student/stream");
+
+		filter.doFilter(stream, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+		MockAsyncContext asyncContext = (MockAsyncContext) stream.getAsyncContext();
+		asyncContext.getListeners().forEach(listener -> {
+			try {
+				listener.onTimeout(null);
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		asyncContext.complete();
+
+		assertThat(filter.availablePermits()).isEqualTo(1);
+	}
+
+	@Test
+	void eventSubscriptionsDoNotTakeAPermit() throws Exception {
+		ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1, Duration.ofMillis(10));
+		MockHttpServletRequest events = request("/v1/api/student/events");
+
+		filter.doFilter(events, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+
+		assertThat(filter.availablePermits()).isEqualTo(1);
+	}
+}
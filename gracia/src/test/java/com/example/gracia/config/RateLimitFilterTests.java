@@ -0,0 +1,100 @@
+package com.example.gracia.config;
+
+import jakarta.servlet.AsyncContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTests {
+
+	private static final List<String> EXPENSIVE = List.of("GET /v1/api/student/all", "/v1/api/student/stream");
+
+	private static RateLimitFilter filter(List<String> apiKeys, int cheapBurst, int expensiveMaxConcurrent) {
+		return new RateLimitFilter("X-API-Key", apiKeys, 1, cheapBurst, 1, 10, expensiveMaxConcurrent,
+				EXPENSIVE, 1000, Duration.ofMinutes(10));
+	}
+
+	private static MockHttpServletRequest request(String uri, String ip, String apiKey) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+		request.setRequestURI(uri);
+		request.setRemoteAddr(ip);
+		if (apiKey != null) {
+			request.addHeader("X-API-Key", apiKey);
+		}
+		return request;
+	}
+
+	private static MockHttpServletResponse send(RateLimitFilter filter, MockHttpServletRequest request) throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, new MockFilterChain());
+		return response;
+	}
+
+	@Test
+	void burstIsAllowedThenClientGetsTooManyRequestsWithRetryAfter() throws Exception {
+		RateLimitFilter filter = filter(List.of(), 3, 4);
+
+		for (int i = 0; i < 3; i++) {
+			assertThat(send(filter, request("/v1/api/student/1", "10.0.0.1", null)).getStatus()).isEqualTo(200);
+		}
+		MockHttpServletResponse rejected = send(filter, request("/v1/api/student/1", "10.0.0.1", null));
+
+		assertThat(rejected.getStatus()).isEqualTo(429);
+		assertThat(Long.parseLong(rejected.getHeader(HttpHeaders.RETRY_AFTER))).isBetween(1L, 2L);
+		assertThat(send(filter, request("/v1/api/student/1", "10.0.0.2", null)).getStatus()).isEqualTo(200);
+	}
+
+	@Test
+	void unknownApiKeysFallBackToTheClientAddress() throws Exception {
+		RateLimitFilter filter = filter(List.of("partner-a"), 2, 4);
+
+		assertThat(filter.clientKey(request("/v1/api/student/1", "10.0.0.3", "invented-1"))).isEqualTo("ip:10.0.0.3");
+		assertThat(filter.clientKey(request("/v1/api/student/1", "10.0.0.3", " partner-a "))).isEqualTo("key:partner-a");
+
+		// Cambiar de clave inventada en cada peticion no da un presupuesto nuevo
+		assertThat(send(filter, request("/v1/api/student/1", "10.0.0.3", "invented-1")).getStatus()).isEqualTo(200);
+		assertThat(send(filter, request("/v1/api/student/1", "10.0.0.3", "invented-2")).getStatus()).isEqualTo(200);
+		assertThat(send(filter, request("/v1/api/student/1", "10.0.0.3", "invented-3")).getStatus()).isEqualTo(429);
+
+		// La clave configurada tiene su propio bucket aunque comparta IP
+		assertThat(send(filter, request("/v1/api/student/1", "10.0.0.3", "partner-a")).getStatus()).isEqualTo(200);
+	}
+
+	@Test
+	void asyncExpensiveRequestKeepsItsPermitUntilItCompletes() throws Exception {
+		RateLimitFilter filter = filter(List.of(), 10, 1);
+		MockHttpServletRequest streaming = request("/v1/api/student/stream", "10.0.0.4", null);
+		streaming.setAsyncSupported(true);
+		MockHttpServletResponse streamingResponse = new MockHttpServletResponse();
+
+		filter.doFilter(streaming, streamingResponse, (req, res) -> req.startAsync());
+
+		assertThat(streaming.isAsyncStarted()).isTrue();
+		assertThat(filter.availableExpensivePermits()).isZero();
+		assertThat(send(filter, request("/v1/api/student/all", "10.0.0.5", null)).getStatus()).isEqualTo(503);
+		// GET / (activos) usa el presupuesto barato y no necesita permiso
+		assertThat(send(filter, request("/v1/api/student", "10.0.0.5", null)).getStatus()).isEqualTo(200);
+
+		AsyncContext asyncContext = streaming.getAsyncContext();
+		((MockAsyncContext) asyncContext).complete();
+
+		assertThat(filter.availableExpensivePermits()).isEqualTo(1);
+		assertThat(send(filter, request("/v1/api/student/all", "10.0.0.5", null)).getStatus()).isEqualTo(200);
+	}
+
+	@Test
+	void synchronousExpensiveRequestReleasesItsPermitOnReturn() throws Exception {
+		RateLimitFilter filter = filter(List.of(), 10, 1);
+
+		assertThat(send(filter, request("/v1/api/student/all", "10.0.0.6", null)).getStatus()).isEqualTo(200);
+		assertThat(filter.availableExpensivePermits()).isEqualTo(1);
+	}
+}
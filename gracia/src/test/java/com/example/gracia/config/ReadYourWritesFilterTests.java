@@ -0,0 +1,46 @@
+package com.example.gracia.config;
+
+import com.example.gracia.event.StudentChangeEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadYourWritesFilterTests {
+
+	private final ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(5));
+
+	private final StudentChangeEvent event = new StudentChangeEvent(StudentChangeEvent.Type.ARCHIVED, 1L, LocalDateTime.now());
+
+	@AfterEach
+	void tearDown() {
+		RequestContextHolder.resetRequestAttributes();
+		ReadYourWrites.clear();
+	}
+
+	@Test
+	void changeInsideARequestSendsItsReadsToThePrimary() {
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+		filter.onStudentChange(event);
+
+		assertThat(ReadYourWrites.isPrimaryRequired()).isTrue();
+	}
+
+	@Test
+	void changeFromABackgroundThreadLeavesTheThreadUnmarked() {
+		filter.onStudentChange(event);
+		assertThat(ReadYourWrites.isPrimaryRequired()).isFalse();
+
+		ReadYourWrites.usePrimary();
+		filter.onStudentChange(event);
+
+		assertThat(ReadYourWrites.isPrimaryRequired()).isFalse();
+	}
+}
@@ -0,0 +1,99 @@
+package com.example.gracia.controller;
+
+import com.example.gracia.model.Student;
+import com.example.gracia.service.StudentArchiveService;
+import com.example.gracia.service.StudentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+class StudentArchiveTests {
+
+	@Autowired
+	private WebApplicationContext context;
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private StudentArchiveService archiveService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+	}
+
+	/**
+	 * Elimina logicamente al estudiante hace dos anios y ejecuta el archivado
+	 */
+	private void archive(Student student) {
+		studentService.deleteStudent(student.getId());
+		jdbcTemplate.update("UPDATE students SET date = ? WHERE id = ?",
+				Timestamp.valueOf(LocalDateTime.now().minusYears(2)), student.getId());
+		assertThat(archiveService.archive()).isPositive();
+		assertThat(count("students", student.getId())).isZero();
+		assertThat(count("students_archive", student.getId())).isEqualTo(1);
+	}
+
+	private long count(String table, Long id) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE id = ?", Long.class, id);
+	}
+
+	@Test
+	void archivedStudentsAreFoundByIdAndCanBeRestored() throws Exception {
+		Student student = studentService.createStudent(new Student("archive-trip-1", "Ana", "Paz", 2015, null));
+		archive(student);
+
+		mockMvc.perform(get("/v1/api/student/{id}", student.getId()))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.dni").value("archive-trip-1"))
+				.andExpect(jsonPath("$.active").value(false));
+
+		mockMvc.perform(patch("/v1/api/student/{id}/restore", student.getId()))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.id").value(student.getId()))
+				.andExpect(jsonPath("$.active").value(true));
+
+		assertThat(count("students", student.getId())).isEqualTo(1);
+		assertThat(count("students_archive", student.getId())).isZero();
+		mockMvc.perform(get("/v1/api/student/dni/{dni}", "archive-trip-1"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.id").value(student.getId()))
+				.andExpect(jsonPath("$.active").value(true));
+	}
+
+	@Test
+	void restoringAnArchivedStudentWhoseDniWasTakenIsAConflict() throws Exception {
+		Student archived = studentService.createStudent(new Student("archive-conflict-1", "Ana", "Paz", 2015, null));
+		archive(archived);
+		Student owner = studentService.createStudent(new Student("archive-conflict-1", "Beto", "Paz", 2024, null));
+
+		mockMvc.perform(patch("/v1/api/student/{id}/restore", archived.getId()))
+				.andExpect(status().isConflict());
+
+		assertThat(count("students_archive", archived.getId())).isEqualTo(1);
+		mockMvc.perform(get("/v1/api/student/dni/{dni}", "archive-conflict-1"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.id").value(owner.getId()));
+	}
+}
@@ -0,0 +1,55 @@
+package com.example.gracia.controller;
+
+import com.example.gracia.model.Student;
+import com.example.gracia.service.StudentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+class StudentBatchLookupTests {
+
+	@Autowired
+	private WebApplicationContext context;
+
+	@Autowired
+	private StudentService studentService;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+	}
+
+	@Test
+	void foundStudentsAreReturnedOnceAndMissingValuesAreListed() throws Exception {
+		Student first = studentService.createStudent(new Student("batch-lookup-1", "Ana", "Paz", 2020, null));
+		Student second = studentService.createStudent(new Student("batch-lookup-2", "Beto", "Paz", 2020, null));
+		long missingId = second.getId() + 1_000_000;
+
+		mockMvc.perform(get("/v1/api/student/batch")
+						.param("ids", first.getId() + "," + missingId + "," + first.getId())
+						.param("dnis", "batch-lookup-2,batch-lookup-1,batch-lookup-none"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.students[*].id").value(containsInAnyOrder(
+						first.getId().intValue(), second.getId().intValue())))
+				.andExpect(jsonPath("$.missingIds").value(contains((int) missingId)))
+				.andExpect(jsonPath("$.missingDnis").value(contains("batch-lookup-none")));
+	}
+
+	@Test
+	void lookupWithoutIdsOrDnisIsABadRequest() throws Exception {
+		mockMvc.perform(get("/v1/api/student/batch")).andExpect(status().isBadRequest());
+	}
+}
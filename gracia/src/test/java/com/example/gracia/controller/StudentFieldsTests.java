@@ -0,0 +1,92 @@
+package com.example.gracia.controller;
+
+import com.example.gracia.model.Student;
+import com.example.gracia.service.StudentService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+class StudentFieldsTests {
+
+	@Autowired
+	private WebApplicationContext context;
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+	}
+
+	private List<Map<String, Object>> list(String path, String fields) throws Exception {
+		String body = mockMvc.perform(get(path).param("fields", fields))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return jsonMapper.readValue(body, new TypeReference<>() {
+		});
+	}
+
+	private static Optional<Map<String, Object>> row(List<Map<String, Object>> rows, Object id) {
+		return rows.stream().filter(row -> ((Number) row.get("id")).longValue() == ((Number) id).longValue()).findFirst();
+	}
+
+	@Test
+	void onlyTheRequestedFieldsAreSelectedWithoutLoadingEntities() throws Exception {
+		Student active = studentService.createStudent(new Student("fields-1", "Ana", "Paz", 2020, null));
+		Student inactive = studentService.createStudent(new Student("fields-2", "Beto", "Paz", 2020, null));
+		studentService.deleteStudent(inactive.getId());
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		long loaded = statistics.getEntityLoadCount();
+
+		List<Map<String, Object>> rows = list("/v1/api/student", "dni,id,dni,lastName");
+
+		assertThat(statistics.getEntityLoadCount()).isEqualTo(loaded);
+		assertThat(row(rows, active.getId())).get()
+				.satisfies(row -> assertThat(row.keySet()).containsExactly("dni", "id", "lastName"))
+				.satisfies(row -> assertThat(row).containsEntry("dni", "fields-1").containsEntry("lastName", "Paz"));
+		assertThat(row(rows, inactive.getId())).isEmpty();
+		assertThat(row(list("/v1/api/student/all", "id,active"), inactive.getId())).get()
+				.satisfies(row -> assertThat(row).containsEntry("active", false));
+	}
+
+	@Test
+	void summaryHasIdDniAndFullName() throws Exception {
+		Student student = studentService.createStudent(new Student("fields-summary-1", "Carla", "Quiroga", 2020, null));
+
+		assertThat(row(list("/v1/api/student", "summary"), student.getId())).get()
+				.satisfies(row -> assertThat(row.keySet()).containsExactlyInAnyOrder("id", "dni", "fullName"))
+				.satisfies(row -> assertThat(row).containsEntry("dni", "fields-summary-1"));
+	}
+
+	@Test
+	void unknownOrEmptyFieldListsAreBadRequests() throws Exception {
+		mockMvc.perform(get("/v1/api/student").param("fields", "id,password")).andExpect(status().isBadRequest());
+		mockMvc.perform(get("/v1/api/student/all").param("fields", " , ")).andExpect(status().isBadRequest());
+	}
+}
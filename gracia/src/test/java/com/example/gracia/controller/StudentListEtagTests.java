@@ -0,0 +1,110 @@
+package com.example.gracia.controller;
+
+import com.example.gracia.model.Student;
+import com.example.gracia.repository.StudentRepository;
+import com.example.gracia.service.StudentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+class StudentListEtagTests {
+
+	@Autowired
+	private WebApplicationContext context;
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+	}
+
+	private String listEtag(String path) throws Exception {
+		String etag = mockMvc.perform(get(path))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(etag).isNotBlank();
+		return etag;
+	}
+
+	@Test
+	void unchangedListAnswersNotModified() throws Exception {
+		String etag = listEtag("/v1/api/student");
+
+		mockMvc.perform(get("/v1/api/student").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+	}
+
+	@Test
+	void everyWriteChangesTheListEtag() throws Exception {
+		String before = listEtag("/v1/api/student");
+		studentService.createStudent(new Student("etag-create-1", "Ramona", "Ibarra", 2010, null));
+		String afterCreate = listEtag("/v1/api/student");
+
+		assertThat(afterCreate).isNotEqualTo(before);
+		mockMvc.perform(get("/v1/api/student").header(HttpHeaders.IF_NONE_MATCH, before))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void deleteOneAndRestoreAnotherChangesTheListEtag() throws Exception {
+		// La lista activa cambia de contenido sin cambiar la cantidad de filas
+		Student a = studentService.createStudent(new Student("etag-swap-a", "Ramona", "Ibarra", 2010, null));
+		Student b = studentService.createStudent(new Student("etag-swap-b", "Ramona", "Ibarra", 2010, null));
+		studentService.deleteStudent(b.getId());
+		String before = listEtag("/v1/api/student");
+		String beforeAll = listEtag("/v1/api/student/all");
+
+		studentService.deleteStudent(a.getId());
+		studentService.restoreStudent(b.getId());
+
+		assertThat(listEtag("/v1/api/student")).isNotEqualTo(before);
+		assertThat(listEtag("/v1/api/student/all")).isNotEqualTo(beforeAll);
+		mockMvc.perform(get("/v1/api/student").header(HttpHeaders.IF_NONE_MATCH, before))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void studentEtagFollowsItsVersion() throws Exception {
+		Student student = studentService.createStudent(new Student("etag-item-1", "Ramona", "Ibarra", 2010, null));
+		String etag = mockMvc.perform(get("/v1/api/student/" + student.getId()))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		mockMvc.perform(get("/v1/api/student/" + student.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+
+		String body = "{\"dni\":\"etag-item-1\",\"firstName\":\"Ramona\",\"lastName\":\"Ibarra\",\"promotion\":2011}";
+		String updated = mockMvc.perform(put("/v1/api/student/" + student.getId())
+						.contentType(MediaType.APPLICATION_JSON).content(body).header(HttpHeaders.IF_MATCH, etag))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(updated).isNotEqualTo(etag);
+
+		mockMvc.perform(put("/v1/api/student/" + student.getId())
+						.contentType(MediaType.APPLICATION_JSON).content(body).header(HttpHeaders.IF_MATCH, etag))
+				.andExpect(status().isPreconditionFailed())
+				.andExpect(header().string(HttpHeaders.ETAG, updated));
+		assertThat(studentRepository.findById(student.getId())).get()
+				.extracting(Student::getPromotion).isEqualTo(2011);
+	}
+}
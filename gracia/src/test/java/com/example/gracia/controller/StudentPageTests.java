@@ -0,0 +1,105 @@
+package com.example.gracia.controller;
+
+import com.example.gracia.model.Student;
+import com.example.gracia.service.StudentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+class StudentPageTests {
+
+	@Autowired
+	private WebApplicationContext context;
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+	}
+
+	private ResultActions page(long after, int size, boolean includeInactive) throws Exception {
+		return mockMvc.perform(get("/v1/api/student/page")
+						.param("after", String.valueOf(after))
+						.param("size", String.valueOf(size))
+						.param("includeInactive", String.valueOf(includeInactive)))
+				.andExpect(status().isOk());
+	}
+
+	private long maxId() {
+		return jdbcTemplate.queryForObject("SELECT MAX(id) FROM students", Long.class);
+	}
+
+	private Student create(String dni) {
+		return studentService.createStudent(new Student(dni, "Ana", "Paz", 2020, null));
+	}
+
+	@Test
+	void cursorAfterTheLastRowReturnsAnEmptyPageWithoutCursor() throws Exception {
+		create("page-empty-1");
+
+		page(maxId(), 10, true)
+				.andExpect(jsonPath("$.content").value(empty()))
+				.andExpect(jsonPath("$.size").value(0))
+				.andExpect(jsonPath("$.nextCursor").value(nullValue()));
+	}
+
+	@Test
+	void lastPageHasNoCursorAndAFullPageAlwaysHasOne() throws Exception {
+		create("page-last-1");
+		create("page-last-2");
+		long last = maxId();
+		long previous = jdbcTemplate.queryForObject("SELECT MAX(id) FROM students WHERE id < ?", Long.class, last);
+
+		page(previous, 5, true)
+				.andExpect(jsonPath("$.content[*].id").value(contains((int) last)))
+				.andExpect(jsonPath("$.nextCursor").value(nullValue()));
+		// Pagina completa: el cursor se envia aunque no queden filas, y la siguiente llega vacia
+		page(previous, 1, true)
+				.andExpect(jsonPath("$.content[*].id").value(contains((int) last)))
+				.andExpect(jsonPath("$.nextCursor").value((int) last));
+		page(last, 1, true)
+				.andExpect(jsonPath("$.content").value(empty()))
+				.andExpect(jsonPath("$.nextCursor").value(nullValue()));
+	}
+
+	@Test
+	void cursorStillWorksWhenItsRowWasDeleted() throws Exception {
+		Student first = create("page-deleted-1");
+		Student second = create("page-deleted-2");
+		Student third = create("page-deleted-3");
+		Student fourth = create("page-deleted-4");
+		studentService.hardDeleteStudent(second.getId());
+		studentService.deleteStudent(third.getId());
+
+		// El cursor es un valor de ID, no una fila: la pagina sigue con el siguiente ID que exista
+		page(second.getId(), 2, true)
+				.andExpect(jsonPath("$.content[*].id").value(contains(third.getId().intValue(), fourth.getId().intValue())));
+		// Sin inactivos se saltea el eliminado logicamente, tambien cuando es la fila del cursor
+		page(first.getId(), 1, false)
+				.andExpect(jsonPath("$.content[*].id").value(contains(fourth.getId().intValue())))
+				.andExpect(jsonPath("$.nextCursor").value(fourth.getId().intValue()));
+		page(third.getId(), 1, false)
+				.andExpect(jsonPath("$.content[*].id").value(contains(fourth.getId().intValue())));
+	}
+}
@@ -0,0 +1,96 @@
+package com.example.gracia.controller;
+
+import com.example.gracia.model.Student;
+import com.example.gracia.service.StudentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+class StudentSearchTests {
+
+	@Autowired
+	private WebApplicationContext context;
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+	}
+
+	private Student create(String dni, String firstName, String lastName, int promotion, LocalDateTime date) {
+		Student student = studentService.createStudent(new Student(dni, firstName, lastName, promotion, null));
+		jdbcTemplate.update("UPDATE students SET date = ? WHERE id = ?", Timestamp.valueOf(date), student.getId());
+		return student;
+	}
+
+	@Test
+	void filtersAreCombinedAndPagedInTheRequestedOrder() throws Exception {
+		LocalDateTime march = LocalDateTime.of(2024, 3, 1, 0, 0);
+		create("search-1", "Carla", "Quiroga", 1801, march.plusDays(1));
+		create("search-2", "Ana", "Quintana", 1801, march.plusDays(2));
+		create("search-3", "Beto", "Quiroz", 1801, march.plusDays(3));
+		// Cada uno incumple un solo filtro
+		create("search-4", "Dora", "Quiroga", 1802, march.plusDays(1));
+		create("search-5", "Eva", "Perez", 1801, march.plusDays(1));
+		create("search-6", "Fabio", "Quiroga", 1801, march.plusMonths(1));
+		Student inactive = create("search-7", "Gina", "Quiroga", 1801, march.plusDays(1));
+		studentService.deleteStudent(inactive.getId());
+
+		mockMvc.perform(get("/v1/api/student/search")
+						.param("promotion", "1801").param("active", "true").param("lastName", "Qui")
+						.param("from", "2024-03-01T00:00:00").param("to", "2024-04-01T00:00:00")
+						.param("sort", "firstName").param("size", "2"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.totalElements").value(3))
+				.andExpect(jsonPath("$.totalPages").value(2))
+				.andExpect(jsonPath("$.content[*].firstName").value(contains("Ana", "Beto")));
+		mockMvc.perform(get("/v1/api/student/search")
+						.param("promotion", "1801").param("active", "true").param("lastName", "Qui")
+						.param("from", "2024-03-01T00:00:00").param("to", "2024-04-01T00:00:00")
+						.param("sort", "firstName").param("direction", "desc").param("size", "2").param("page", "1"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.page").value(1))
+				.andExpect(jsonPath("$.content[*].firstName").value(contains("Ana")));
+	}
+
+	@Test
+	void likeWildcardsInPrefixesAreMatchedLiterally() throws Exception {
+		create("search-like-1", "Ana", "Ro_jas", 1803, LocalDateTime.of(2024, 1, 1, 0, 0));
+		create("search-like-2", "Ana", "Rojas", 1803, LocalDateTime.of(2024, 1, 1, 0, 0));
+		create("search-like-3", "Ana", "Ro%s", 1803, LocalDateTime.of(2024, 1, 1, 0, 0));
+
+		mockMvc.perform(get("/v1/api/student/search").param("promotion", "1803").param("lastName", "Ro_"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.content[*].lastName").value(contains("Ro_jas")));
+		mockMvc.perform(get("/v1/api/student/search").param("promotion", "1803").param("lastName", "Ro%"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.content[*].lastName").value(contains("Ro%s")));
+	}
+
+	@Test
+	void unknownSortFieldIsABadRequest() throws Exception {
+		mockMvc.perform(get("/v1/api/student/search").param("sort", "active"))
+				.andExpect(status().isBadRequest());
+	}
+}
@@ -0,0 +1,71 @@
+package com.example.gracia.event;
+
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StudentChangeLogTests {
+
+	private static StudentChangeLog log(int bufferSize, int changes) {
+		StudentChangeLog log = new StudentChangeLog(bufferSize, JsonMapper.builder().build());
+		for (long id = 1; id <= changes; id++) {
+			log.onStudentChange(new StudentChangeEvent(StudentChangeEvent.Type.HARD_DELETED, id, null, null));
+		}
+		return log;
+	}
+
+	private static List<Long> sequences(StudentChangeLog.Batch batch) {
+		return batch.getEntries().stream().map(StudentChangeLog.Entry::getSequence).toList();
+	}
+
+	@Test
+	void resumeReturnsOnlyLaterChanges() {
+		StudentChangeLog log = log(10, 5);
+
+		StudentChangeLog.Batch batch = log.readAfter(3, 100);
+
+		assertThat(batch.isTruncated()).isFalse();
+		assertThat(sequences(batch)).containsExactly(4L, 5L);
+		assertThat(sequences(log.readAfter(5, 100))).isEmpty();
+	}
+
+	@Test
+	void cursorPastTheLatestSequenceIsTruncated() {
+		// Cursor de antes de un reinicio: el contador nuevo todavia no lo alcanzo
+		StudentChangeLog log = log(10, 3);
+
+		StudentChangeLog.Batch batch = log.readAfter(50, 100);
+
+		assertThat(batch.isTruncated()).isTrue();
+		assertThat(batch.getOldestSequence()).isEqualTo(1);
+		assertThat(sequences(batch)).containsExactly(1L, 2L, 3L);
+		assertThat(log.readAfter(StudentChangeLog.UNKNOWN_CURSOR, 100).isTruncated()).isTrue();
+	}
+
+	@Test
+	void overwrittenChangesAreReportedAsTruncated() {
+		StudentChangeLog log = log(4, 10);
+
+		StudentChangeLog.Batch batch = log.readAfter(2, 100);
+
+		assertThat(batch.isTruncated()).isTrue();
+		assertThat(batch.getOldestSequence()).isEqualTo(7);
+		assertThat(sequences(batch)).containsExactly(7L, 8L, 9L, 10L);
+		assertThat(log.readAfter(6, 100).isTruncated()).isFalse();
+	}
+
+	@Test
+	void cursorsFromAnotherProcessAreRejected() {
+		StudentChangeLog previous = log(10, 3);
+		StudentChangeLog current = log(10, 3);
+
+		assertThat(current.parseCursor(current.cursorOf(2))).isEqualTo(2L);
+		assertThat(current.parseCursor(previous.cursorOf(2))).isEqualTo(StudentChangeLog.UNKNOWN_CURSOR);
+		assertThat(current.parseCursor("0")).isZero();
+		assertThat(current.parseCursor("abc")).isEqualTo(StudentChangeLog.UNKNOWN_CURSOR);
+		assertThat(current.parseCursor(null)).isNull();
+	}
+}
@@ -0,0 +1,63 @@
+package com.example.gracia.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TracedStudentTurboFilterTests {
+
+	private final LoggerContext context = new LoggerContext();
+
+	@AfterEach
+	void tearDown() {
+		MDC.remove(TracedStudentTurboFilter.MDC_KEY);
+	}
+
+	private static TracedStudentTurboFilter filter(int maxIds, String ttl) {
+		TracedStudentTurboFilter filter = new TracedStudentTurboFilter();
+		filter.setMaxIds(maxIds);
+		filter.setTtl(ttl);
+		filter.start();
+		return filter;
+	}
+
+	private FilterReply decide(TracedStudentTurboFilter filter, String loggerName, String studentId) {
+		MDC.put(TracedStudentTurboFilter.MDC_KEY, studentId);
+		return filter.decide(null, context.getLogger(loggerName), Level.DEBUG, "mensaje", null, null);
+	}
+
+	@Test
+	void onlyTracedStudentsAndRelevantLoggersAreAccepted() {
+		TracedStudentTurboFilter filter = filter(10, "1h");
+		filter.trace(15L);
+
+		assertThat(decide(filter, "com.example.gracia.service.StudentService", "15")).isEqualTo(FilterReply.ACCEPT);
+		assertThat(decide(filter, "org.hibernate.SQL", "15")).isEqualTo(FilterReply.ACCEPT);
+		assertThat(decide(filter, "org.apache.catalina", "15")).isEqualTo(FilterReply.NEUTRAL);
+		assertThat(decide(filter, "com.example.gracia.service.StudentService", "16")).isEqualTo(FilterReply.NEUTRAL);
+
+		filter.untrace(15L);
+		assertThat(decide(filter, "com.example.gracia.service.StudentService", "15")).isEqualTo(FilterReply.NEUTRAL);
+	}
+
+	@Test
+	void tracedIdsAreCappedAndExpire() throws Exception {
+		TracedStudentTurboFilter capped = filter(2, "1h");
+		for (long id = 1; id <= 20; id++) {
+			capped.trace(id);
+		}
+		assertThat(capped.tracedIds()).hasSizeLessThanOrEqualTo(2);
+
+		TracedStudentTurboFilter expiring = filter(10, "50ms");
+		expiring.trace(7L);
+		assertThat(expiring.isTraced(7L)).isTrue();
+		Thread.sleep(150);
+		assertThat(expiring.isTraced(7L)).isFalse();
+		assertThat(expiring.tracedIds()).isEmpty();
+	}
+}
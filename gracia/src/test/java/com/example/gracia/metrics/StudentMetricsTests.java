@@ -0,0 +1,78 @@
+package com.example.gracia.metrics;
+
+import com.example.gracia.exception.DuplicateDniException;
+import com.example.gracia.model.Student;
+import com.example.gracia.service.StudentService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+class StudentMetricsTests {
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private WebApplicationContext context;
+
+	/**
+	 * Llamadas medidas de la operacion, con y sin excepcion (cada resultado es una serie con su tag "exception")
+	 */
+	private long timed(String operation) {
+		return meterRegistry.find(StudentMetrics.SERVICE_TIMER).tag("operation", operation).timers().stream()
+				.mapToLong(Timer::count).sum();
+	}
+
+	private double outcome(String operation, String outcome) {
+		Counter counter = meterRegistry.find("student.outcome").tag("operation", operation).tag("outcome", outcome).counter();
+		return counter == null ? 0 : counter.count();
+	}
+
+	@Test
+	void operationsAreTimedAndFailedOutcomesCounted() {
+		long creates = timed("create");
+		long gets = timed("get");
+		double notFound = outcome("get", "not_found");
+		double duplicates = outcome("create", "duplicate_dni");
+
+		studentService.createStudent(new Student("metrics-1", "Ana", "Paz", 2020, null));
+		assertThat(studentService.getStudentById(Long.MAX_VALUE)).isEmpty();
+		assertThatThrownBy(() -> studentService.createStudent(new Student("metrics-1", "Otra", "Paz", 2020, null)))
+				.isInstanceOf(DuplicateDniException.class);
+
+		assertThat(timed("create")).isEqualTo(creates + 2);
+		assertThat(timed("get")).isEqualTo(gets + 1);
+		assertThat(outcome("get", "not_found")).isEqualTo(notFound + 1);
+		assertThat(outcome("create", "duplicate_dni")).isEqualTo(duplicates + 1);
+	}
+
+	@Test
+	void prometheusExposesServiceHistogramsPoolAndHibernateStatistics() throws Exception {
+		studentService.getStudentById(Long.MAX_VALUE);
+		MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+
+		String scrape = mockMvc.perform(get("/actuator/prometheus"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+
+		assertThat(scrape).contains("student_service_seconds_bucket{")
+				.contains("student_outcome_total{")
+				.contains("hikaricp_connections")
+				.contains("hibernate_");
+	}
+}
@@ -0,0 +1,72 @@
+package com.example.gracia.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * db/schema-h2.sql y db/students-seq-h2.sql sobre una base H2 propia, como al arrancar con el perfil "file"
+ */
+class StudentIdSequenceTests {
+
+	private static final int ALLOCATION_SIZE = 50;
+
+	private final SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+			"jdbc:h2:mem:id-sequence;DB_CLOSE_DELAY=-1", "sa", "", true);
+
+	private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+	@AfterEach
+	void tearDown() {
+		jdbcTemplate.execute("DROP ALL OBJECTS");
+		dataSource.destroy();
+	}
+
+	private void startUp() {
+		new ResourceDatabasePopulator(new ClassPathResource("db/schema-h2.sql"),
+				new ClassPathResource("db/students-seq-h2.sql")).execute(dataSource);
+	}
+
+	/**
+	 * @return primer ID del bloque que reservaria Hibernate con el proximo valor de la secuencia
+	 */
+	private long nextBlockStart() {
+		return jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR students_seq", Long.class) - ALLOCATION_SIZE + 1;
+	}
+
+	@Test
+	void advancesPastRowsInsertedOutsideTheSequence() {
+		startUp();
+		// Filas heredadas de IDENTITY: IDs que la secuencia todavia no entrego
+		jdbcTemplate.update("INSERT INTO students (id, version, dni, first_name, last_name, promotion, date, active) "
+				+ "VALUES (120, 0, 'seq-legacy-1', 'Legado', 'Identity', 1999, ?, TRUE)", Timestamp.valueOf(LocalDateTime.now()));
+		jdbcTemplate.update("INSERT INTO students_archive (id, version, dni, first_name, last_name, promotion, date, archived_at) "
+				+ "VALUES (310, 0, 'seq-legacy-2', 'Legado', 'Archivado', 1999, ?, ?)",
+				Timestamp.valueOf(LocalDateTime.now()), Timestamp.valueOf(LocalDateTime.now()));
+
+		startUp();
+
+		assertThat(nextBlockStart()).isGreaterThan(310);
+	}
+
+	@Test
+	void neverMovesTheSequenceBackwards() {
+		startUp();
+		for (int i = 0; i < 5; i++) {
+			nextBlockStart();
+		}
+		long previous = nextBlockStart();
+
+		startUp();
+
+		assertThat(nextBlockStart()).isGreaterThan(previous);
+	}
+}
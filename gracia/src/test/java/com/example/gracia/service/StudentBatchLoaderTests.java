@@ -0,0 +1,129 @@
+package com.example.gracia.service;
+
+import com.example.gracia.config.ReadYourWrites;
+import com.example.gracia.model.Student;
+import com.example.gracia.repository.StudentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StudentBatchLoaderTests {
+
+	private final StudentRepository repository = mock(StudentRepository.class);
+
+	/** Hilo en el que se ejecuto cada consulta por IDs */
+	private final List<String> queryThreads = new CopyOnWriteArrayList<>();
+
+	private final StudentBatchLoader loader = new StudentBatchLoader(mock(PlatformTransactionManager.class), true,
+			Duration.ofMillis(100), 3, 2, Duration.ofSeconds(5));
+
+	StudentBatchLoaderTests() {
+		ReflectionTestUtils.setField(loader, "studentRepository", repository);
+		// En el repositorio simulado existen los IDs pares
+		when(repository.findAllById(any())).thenAnswer(invocation -> {
+			queryThreads.add(Thread.currentThread().getName());
+			Collection<Long> ids = invocation.getArgument(0);
+			return ids.stream().filter(id -> id % 2 == 0).map(StudentBatchLoaderTests::student).toList();
+		});
+	}
+
+	@AfterEach
+	void tearDown() {
+		loader.shutdown();
+		ReadYourWrites.clear();
+	}
+
+	private static Student student(long id) {
+		Student student = new Student("bl-" + id, "Ana", "Paz", 2020, null);
+		student.setId(id);
+		return student;
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<Collection<Long>> queries() {
+		ArgumentCaptor<Collection<Long>> captor = ArgumentCaptor.forClass(Collection.class);
+		verify(repository, atLeastOnce()).findAllById(captor.capture());
+		return captor.getAllValues();
+	}
+
+	@Test
+	void concurrentLookupsOfTheSameIdShareOneQuery() throws Exception {
+		ExecutorService threads = Executors.newFixedThreadPool(8);
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<Student>> results = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				results.add(threads.submit(() -> {
+					start.await();
+					return loader.load(4L);
+				}));
+			}
+			start.countDown();
+
+			for (Future<Student> result : results) {
+				assertThat(result.get().getId()).isEqualTo(4L);
+			}
+			verify(repository, times(1)).findAllById(any());
+			assertThat(queries().get(0)).containsExactly(4L);
+		} finally {
+			threads.shutdownNow();
+		}
+	}
+
+	@Test
+	void lookupsLargerThanMaxBatchAreSplitIntoSeveralQueries() {
+		List<Long> ids = LongStream.rangeClosed(1, 8).boxed().toList();
+
+		Map<Long, Student> found = loader.loadAll(ids);
+
+		assertThat(found).containsOnlyKeys(2L, 4L, 6L, 8L);
+		List<Collection<Long>> queries = queries();
+		assertThat(queries).hasSize(3).allSatisfy(query -> assertThat(query).hasSizeLessThanOrEqualTo(3));
+		assertThat(queries.stream().flatMap(Collection::stream)).containsExactlyInAnyOrderElementsOf(ids);
+	}
+
+	@Test
+	void missingIdsAreLeftOut() {
+		assertThat(loader.loadAll(List.of(1L, 2L, 3L, 2L))).containsOnlyKeys(2L);
+		assertThat(loader.load(5L)).isNull();
+	}
+
+	@Test
+	void readsThatNeedThePrimaryAreNotBatched() {
+		when(repository.findById(6L)).thenReturn(Optional.of(student(6)));
+		List<Student> loaded = new ArrayList<>();
+
+		ReadYourWrites.runOnPrimary(() -> {
+			loaded.add(loader.load(6L));
+			loaded.addAll(loader.loadAll(List.of(2L, 3L)).values());
+		});
+
+		assertThat(loaded).extracting(Student::getId).containsExactly(6L, 2L);
+		verify(repository).findById(6L);
+		// Consultas directas en el hilo de la peticion, sin pasar por los hilos del lote
+		assertThat(queryThreads).containsExactly(Thread.currentThread().getName());
+	}
+}
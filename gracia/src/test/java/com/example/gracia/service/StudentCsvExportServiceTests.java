@@ -0,0 +1,57 @@
+package com.example.gracia.service;
+
+import com.example.gracia.model.Student;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class StudentCsvExportServiceTests {
+
+	@Autowired
+	private StudentCsvExportService exportService;
+
+	@Autowired
+	private StudentImportService importService;
+
+	@Autowired
+	private StudentService studentService;
+
+	@Test
+	void valuesWithCommasQuotesAndLineBreaksAreQuotedAndCanBeImportedBack() throws Exception {
+		List<Student> created = List.of(
+				studentService.createStudent(new Student("csv-comma-1", "Ana, Maria", "Paz", 2020, null)),
+				studentService.createStudent(new Student("csv-quote-1", "Juan \"Toto\"", "Paz", 2020, null)),
+				studentService.createStudent(new Student("csv-newline-1", "Linea", "Uno\nDos", 2020, null)),
+				studentService.createStudent(new Student("csv-plain-1", "Ana", "Paz", 2020, null)));
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		exportService.export(output, false);
+		String csv = output.toString(StandardCharsets.UTF_8);
+
+		assertThat(csv).startsWith("id,dni,firstName,lastName,promotion,date,active\n")
+				.contains(created.get(0).getId() + ",csv-comma-1,\"Ana, Maria\",Paz,2020,")
+				.contains(created.get(1).getId() + ",csv-quote-1,\"Juan \"\"Toto\"\"\",Paz,2020,")
+				.contains(created.get(2).getId() + ",csv-newline-1,Linea,\"Uno\nDos\",2020,")
+				.contains(created.get(3).getId() + ",csv-plain-1,Ana,Paz,2020,");
+
+		// Los demas estudiantes siguen registrados y se rechazan por DNI duplicado
+		for (Student student : created) {
+			studentService.hardDeleteStudent(student.getId());
+		}
+		importService.importCsv(new ByteArrayInputStream(output.toByteArray()), false);
+
+		for (Student student : created) {
+			assertThat(studentService.getStudentByDni(student.getDni())).get()
+					.extracting(Student::getFirstName, Student::getLastName)
+					.containsExactly(student.getFirstName(), student.getLastName());
+		}
+	}
+}
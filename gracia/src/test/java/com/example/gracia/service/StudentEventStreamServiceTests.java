@@ -0,0 +1,158 @@
+package com.example.gracia.service;
+
+import com.example.gracia.event.StudentChangeEvent;
+import com.example.gracia.event.StudentChangeLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StudentEventStreamServiceTests {
+
+	private final StudentChangeLog changeLog = new StudentChangeLog(4, JsonMapper.builder().build());
+
+	private final List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+
+	private volatile CountDownLatch blockNextEmitter;
+
+	private final StudentEventStreamService service = new StudentEventStreamService(changeLog, 10, 100,
+			Duration.ofMinutes(1), Duration.ofMillis(50), 2, Duration.ofMillis(200)) {
+		@Override
+		SseEmitter createEmitter(long timeout) {
+			RecordingEmitter emitter = new RecordingEmitter(blockNextEmitter);
+			blockNextEmitter = null;
+			emitters.add(emitter);
+			return emitter;
+		}
+	};
+
+	@AfterEach
+	void tearDown() {
+		service.shutdown();
+	}
+
+	private void record(int changes) {
+		for (int i = 0; i < changes; i++) {
+			changeLog.onStudentChange(new StudentChangeEvent(StudentChangeEvent.Type.HARD_DELETED, (long) i, null, null));
+		}
+	}
+
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condition.getAsBoolean()) {
+			assertThat(System.nanoTime()).as("condicion no cumplida a tiempo").isLessThan(deadline);
+			Thread.sleep(10);
+		}
+	}
+
+	@Test
+	void resumeSendsOnlyLaterChangesWithEpochIds() throws Exception {
+		record(3);
+
+		service.subscribe(changeLog.cursorOf(1));
+		RecordingEmitter emitter = emitters.get(0);
+
+		await(() -> emitter.events().size() >= 2);
+		assertThat(emitter.events()).containsExactly("id:" + changeLog.cursorOf(2), "id:" + changeLog.cursorOf(3));
+	}
+
+	@Test
+	void resumePastTheEndAfterARestartSendsResetFirst() throws Exception {
+		record(2);
+		StudentChangeLog previousProcess = new StudentChangeLog(4, JsonMapper.builder().build());
+
+		service.subscribe(previousProcess.cursorOf(40));
+		service.subscribe("40");
+
+		for (RecordingEmitter emitter : emitters) {
+			await(() -> emitter.events().size() >= 3);
+			assertThat(emitter.events()).containsExactly("reset", "id:" + changeLog.cursorOf(1), "id:" + changeLog.cursorOf(2));
+		}
+		// Los cambios nuevos siguen llegando despues del reset
+		record(1);
+		for (RecordingEmitter emitter : emitters) {
+			await(() -> emitter.events().size() >= 4);
+			assertThat(emitter.events().get(3)).isEqualTo("id:" + changeLog.cursorOf(3));
+		}
+	}
+
+	@Test
+	void overwrittenChangesSendResetAndContinueFromTheOldest() throws Exception {
+		record(10);
+
+		service.subscribe(changeLog.cursorOf(2));
+		RecordingEmitter emitter = emitters.get(0);
+
+		await(() -> emitter.events().size() >= 5);
+		assertThat(emitter.events()).containsExactly("reset", "id:" + changeLog.cursorOf(7), "id:" + changeLog.cursorOf(8),
+				"id:" + changeLog.cursorOf(9), "id:" + changeLog.cursorOf(10));
+	}
+
+	@Test
+	void subscriberThatStopsReadingIsDroppedWithoutStallingTheOthers() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		blockNextEmitter = release;
+		service.subscribe(null);
+		service.subscribe(null);
+		RecordingEmitter fast = emitters.get(1);
+
+		record(1);
+		await(() -> service.subscriberCount() == 1);
+		record(1);
+
+		await(() -> fast.events().size() >= 2);
+		assertThat(fast.events()).containsExactly("id:" + changeLog.cursorOf(1), "id:" + changeLog.cursorOf(2));
+		release.countDown();
+	}
+
+	/**
+	 * Emisor que guarda lo enviado (id del evento, o nombre si no tiene id) y, opcionalmente, se bloquea al escribir
+	 */
+	private static final class RecordingEmitter extends SseEmitter {
+
+		private final List<String> sent = new CopyOnWriteArrayList<>();
+		private final CountDownLatch block;
+
+		RecordingEmitter(CountDownLatch block) {
+			this.block = block;
+		}
+
+		@Override
+		public void send(SseEventBuilder builder) throws IOException {
+			if (block != null) {
+				try {
+					block.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				throw new IOException("conexion cerrada");
+			}
+			String text = builder.build().stream().map(data -> data.getData().toString()).collect(Collectors.joining());
+			for (String line : text.split("\n")) {
+				if (line.startsWith("id:")) {
+					sent.add(line);
+					return;
+				}
+				if (line.startsWith("event:")) {
+					sent.add(line.substring("event:".length()));
+					return;
+				}
+			}
+		}
+
+		List<String> events() {
+			return sent;
+		}
+	}
+}
@@ -0,0 +1,77 @@
+package com.example.gracia.service;
+
+import com.example.gracia.cache.StudentDniIndex;
+import com.example.gracia.cache.StudentNameIndex;
+import com.example.gracia.cache.StudentStatistics;
+import com.example.gracia.dto.StudentImportReport;
+import com.example.gracia.dto.StudentImportRow;
+import com.example.gracia.model.Student;
+import com.example.gracia.repository.StudentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class StudentImportServiceTests {
+
+	@Autowired
+	private StudentImportService importService;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private StudentDniIndex dniIndex;
+
+	@Autowired
+	private StudentNameIndex nameIndex;
+
+	@Autowired
+	private StudentStatistics statistics;
+
+	@Test
+	void rowByRowFallbackReportsSavedIdsAndKeepsIndexesInSync() {
+		long totalBefore = statistics.stats().getTotal();
+		List<Student> rows = List.of(
+				new Student("imp-fallback-1", "Zoraida", "Quiroga", 2001, null),
+				new Student("imp-fallback-2", "x".repeat(300), "Quiroga", 2001, null),
+				new Student("imp-fallback-3", "Zoraida", "Villafane", 2001, null));
+
+		StudentImportReport report = importService.importStudents(rows, false);
+
+		assertThat(report.getCreated()).isEqualTo(2);
+		assertThat(report.getRejected()).isEqualTo(1);
+		StudentImportRow rejected = report.getRows().get(1);
+		assertThat(rejected.getStatus()).isEqualTo(StudentImportRow.Status.REJECTED);
+		assertThat(rejected.getMessage()).doesNotContain("SQL").doesNotContain("VARCHAR");
+		for (StudentImportRow row : List.of(report.getRows().get(0), report.getRows().get(2))) {
+			assertThat(row.getStatus()).isEqualTo(StudentImportRow.Status.CREATED);
+			assertThat(row.getId()).isNotNull();
+			assertThat(studentRepository.findById(row.getId())).get()
+					.extracting(Student::getDni).isEqualTo(row.getDni());
+			assertThat(dniIndex.ownerOf(row.getDni())).isEqualTo(row.getId());
+		}
+		assertThat(dniIndex.contains("imp-fallback-2")).isFalse();
+		assertThat(statistics.stats().getTotal()).isEqualTo(totalBefore + 2);
+		assertThat(nameIndex.search("zoraida quiroga", 5, false))
+				.extracting(StudentNameIndex.Match::getId)
+				.contains(report.getRows().get(0).getId());
+	}
+
+	@Test
+	void batchPathReportsSavedIds() {
+		StudentImportReport report = importService.importStudents(List.of(
+				new Student("imp-batch-1", "Ana", "Paz", 2010, null),
+				new Student("imp-batch-2", "Luis", "Paz", 2010, null)), false);
+
+		assertThat(report.getCreated()).isEqualTo(2);
+		for (StudentImportRow row : report.getRows()) {
+			assertThat(row.getId()).isNotNull();
+			assertThat(dniIndex.ownerOf(row.getDni())).isEqualTo(row.getId());
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package com.example.gracia.service;
+
+import com.example.gracia.exception.DuplicateDniException;
+import com.example.gracia.model.Student;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class StudentServiceTests {
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void dniUniqueViolationFromTheDatabaseIsADuplicateDni() {
+		// Fila insertada sin pasar por el servicio: el indice en memoria no conoce el DNI
+		Long id = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR students_seq", Long.class);
+		jdbcTemplate.update("INSERT INTO students (id, active, date, dni, first_name, last_name, promotion, version) "
+				+ "VALUES (?, TRUE, ?, 'svc-dup-1', 'Ana', 'Paz', 2020, 0)", id, Timestamp.valueOf(LocalDateTime.now()));
+
+		assertThatThrownBy(() -> studentService.createStudent(new Student("svc-dup-1", "Otra", "Persona", 2021, null)))
+				.isInstanceOf(DuplicateDniException.class);
+	}
+
+	@Test
+	void otherIntegrityViolationsAreNotReportedAsDuplicateDni() {
+		String tooLong = "x".repeat(300);
+
+		assertThatThrownBy(() -> studentService.createStudent(new Student("svc-long-1", tooLong, "Paz", 2020, null)))
+				.isInstanceOf(DataIntegrityViolationException.class)
+				.isNotInstanceOf(DuplicateDniException.class);
+		Student created = studentService.createStudent(new Student("svc-long-2", "Ana", "Paz", 2020, null));
+		assertThatThrownBy(() -> studentService.updateStudent(created.getId(), new Student("svc-long-2", "Ana", tooLong, 2020, null)))
+				.isInstanceOf(DataIntegrityViolationException.class);
+		assertThat(studentService.getStudentById(created.getId())).get().extracting(Student::getLastName).isEqualTo("Paz");
+	}
+
+	@Test
+	void softDeleteBumpsTheVersionOnceAndLeavesInactiveStudentsUntouched() {
+		Student created = studentService.createStudent(new Student("svc-soft-1", "Ana", "Paz", 2020, null));
+		long version = created.getVersion();
+
+		assertThat(studentService.deleteStudent(created.getId())).isTrue();
+
+		assertThat(jdbcTemplate.queryForObject("SELECT version FROM students WHERE id = ?", Long.class, created.getId()))
+				.isEqualTo(version + 1);
+		assertThat(jdbcTemplate.queryForObject("SELECT active FROM students WHERE id = ?", Boolean.class, created.getId()))
+				.isFalse();
+		assertThat(studentService.getStudentById(created.getId())).get()
+				.extracting(Student::getVersion, Student::getActive).containsExactly(version + 1, false);
+		Timestamp deletedAt = jdbcTemplate.queryForObject("SELECT date FROM students WHERE id = ?", Timestamp.class, created.getId());
+
+		// Ya inactivo: responde como eliminado sin volver a escribir la fila
+		assertThat(studentService.deleteStudent(created.getId())).isTrue();
+		assertThat(jdbcTemplate.queryForObject("SELECT version FROM students WHERE id = ?", Long.class, created.getId()))
+				.isEqualTo(version + 1);
+		assertThat(jdbcTemplate.queryForObject("SELECT date FROM students WHERE id = ?", Timestamp.class, created.getId()))
+				.isEqualTo(deletedAt);
+	}
+
+	@Test
+	void softDeleteOfArchivedStudentsSucceedsAndOfMissingOnesFails() {
+		Long archivedId = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR students_seq", Long.class);
+		jdbcTemplate.update("INSERT INTO students_archive (id, version, dni, first_name, last_name, promotion, date, archived_at) "
+				+ "VALUES (?, 0, 'svc-soft-archived-1', 'Ana', 'Paz', 2020, ?, ?)",
+				archivedId, Timestamp.valueOf(LocalDateTime.now()), Timestamp.valueOf(LocalDateTime.now()));
+
+		assertThat(studentService.deleteStudent(archivedId)).isTrue();
+		assertThat(studentService.deleteStudent(Long.MAX_VALUE)).isFalse();
+	}
+}
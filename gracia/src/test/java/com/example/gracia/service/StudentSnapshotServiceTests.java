@@ -0,0 +1,68 @@
+package com.example.gracia.service;
+
+import com.example.gracia.model.Student;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class StudentSnapshotServiceTests {
+
+	@Autowired
+	private StudentSnapshotService snapshotService;
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void roundTripKeepsArchivedRowsAndDatesBefore1970() throws Exception {
+		LocalDateTime oldDate = LocalDateTime.of(1965, 3, 4, 10, 20, 30, 123_456_000);
+		Student student = studentService.createStudent(new Student("snap-old-1", "Eulalia", "Ferreyra", 1983, null));
+		jdbcTemplate.update("UPDATE students SET date = ? WHERE id = ?", Timestamp.valueOf(oldDate), student.getId());
+		// Un ID por encima de todo lo que entrego la secuencia: la restauracion debe adelantarla
+		long archivedId = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR students_seq", Long.class) + 1_000;
+		LocalDateTime archivedAt = LocalDateTime.of(2020, 1, 2, 3, 4, 5);
+		jdbcTemplate.update("INSERT INTO students_archive (id, version, dni, first_name, last_name, promotion, date, archived_at) "
+				+ "VALUES (?, NULL, 'snap-archived-1', 'Anibal', 'Ocampo', 1960, ?, ?)",
+				archivedId, Timestamp.valueOf(LocalDateTime.of(1969, 12, 31, 23, 59, 59, 500_000_000)), Timestamp.valueOf(archivedAt));
+		int fetchSize = jdbcTemplate.getFetchSize();
+
+		ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+		long exported = snapshotService.export(snapshot);
+
+		assertThat(jdbcTemplate.getFetchSize()).isEqualTo(fetchSize);
+		jdbcTemplate.update("DELETE FROM students_archive WHERE id = ?", archivedId);
+		jdbcTemplate.update("UPDATE students SET first_name = 'Cambiado' WHERE id = ?", student.getId());
+
+		long restored = snapshotService.restore(new ByteArrayInputStream(snapshot.toByteArray()));
+
+		assertThat(restored).isEqualTo(exported);
+		assertThat(jdbcTemplate.queryForObject("SELECT date FROM students WHERE id = ?", Timestamp.class, student.getId())
+				.toLocalDateTime()).isEqualTo(oldDate);
+		assertThat(jdbcTemplate.queryForObject("SELECT first_name FROM students WHERE id = ?", String.class, student.getId()))
+				.isEqualTo("Eulalia");
+		assertThat(jdbcTemplate.queryForObject("SELECT date FROM students_archive WHERE id = ?", Timestamp.class, archivedId)
+				.toLocalDateTime()).isEqualTo(LocalDateTime.of(1969, 12, 31, 23, 59, 59, 500_000_000));
+		assertThat(jdbcTemplate.queryForObject("SELECT archived_at FROM students_archive WHERE id = ?", Timestamp.class, archivedId)
+				.toLocalDateTime()).isEqualTo(archivedAt);
+		assertThat(jdbcTemplate.queryForObject("SELECT version FROM students_archive WHERE id = ?", Long.class, archivedId))
+				.isNull();
+
+		Student created = studentService.createStudent(new Student("snap-after-1", "Nuevo", "Alumno", 2024, null));
+		assertThat(created.getId()).isNotIn(student.getId(), archivedId);
+		// El proximo bloque de IDs (valor - 50, valor] queda por encima de los restaurados
+		assertThat(jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR students_seq", Long.class) - Student.ID_ALLOCATION_SIZE)
+				.isGreaterThanOrEqualTo(archivedId);
+	}
+}
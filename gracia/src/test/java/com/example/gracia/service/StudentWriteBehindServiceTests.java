@@ -0,0 +1,135 @@
+package com.example.gracia.service;
+
+import com.example.gracia.dto.StudentWriteStatus;
+import com.example.gracia.model.Student;
+import com.example.gracia.repository.StudentRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+		"student.write-behind.enabled=true",
+		// Intervalo amplio para que las escrituras enviadas juntas formen un solo lote
+		"student.write-behind.max-delay=500ms"
+})
+class StudentWriteBehindServiceTests {
+
+	@Autowired
+	private StudentWriteBehindService writeBehindService;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private ApplicationContext context;
+
+	private static StudentWriteStatus awaitCompletion(StudentWriteBehindService service, String trackingId) throws InterruptedException {
+		long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+		StudentWriteStatus status = service.getStatus(trackingId).orElseThrow();
+		while (status.getStatus() == StudentWriteStatus.Status.PENDING && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+			status = service.getStatus(trackingId).orElseThrow();
+		}
+		return status;
+	}
+
+	@Test
+	void writesSubmittedTogetherAreCommittedInOneBatch() throws Exception {
+		DistributionSummary batches = meterRegistry.get("student.write_behind.batch").summary();
+		long batchesBefore = batches.count();
+		double writesBefore = batches.totalAmount();
+		List<StudentWriteStatus> accepted = new ArrayList<>();
+		for (int i = 1; i <= 5; i++) {
+			accepted.add(writeBehindService.submitCreate(new Student("wb-group-" + i, "Ana", "Paz", 2020, null)).orElseThrow());
+		}
+
+		assertThat(accepted).extracting(StudentWriteStatus::getStatus).containsOnly(StudentWriteStatus.Status.PENDING);
+		for (int i = 0; i < accepted.size(); i++) {
+			StudentWriteStatus completed = awaitCompletion(writeBehindService, accepted.get(i).getTrackingId());
+			assertThat(completed.getStatus()).isEqualTo(StudentWriteStatus.Status.COMMITTED);
+			assertThat(completed.getCompletedAt()).isNotNull();
+			assertThat(studentRepository.findById(completed.getStudentId())).get()
+					.extracting(Student::getDni).isEqualTo("wb-group-" + (i + 1));
+		}
+		assertThat(batches.count()).isEqualTo(batchesBefore + 1);
+		assertThat(batches.totalAmount() - writesBefore).isEqualTo(5);
+	}
+
+	@Test
+	void aRowRejectedByTheDatabaseIsIsolatedByTheRowByRowFallback() throws Exception {
+		// Fila insertada sin pasar por el servicio: el indice en memoria no conoce el DNI y el lote falla al confirmarse
+		Long id = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR students_seq", Long.class);
+		jdbcTemplate.update("INSERT INTO students (id, active, date, dni, first_name, last_name, promotion, version) "
+				+ "VALUES (?, TRUE, ?, 'wb-dup-1', 'Ana', 'Paz', 2020, 0)", id, Timestamp.valueOf(LocalDateTime.now()));
+
+		String first = writeBehindService.submitCreate(new Student("wb-fallback-1", "Beto", "Paz", 2020, null)).orElseThrow().getTrackingId();
+		String duplicate = writeBehindService.submitCreate(new Student("wb-dup-1", "Otra", "Persona", 2021, null)).orElseThrow().getTrackingId();
+		String last = writeBehindService.submitCreate(new Student("wb-fallback-2", "Carla", "Paz", 2020, null)).orElseThrow().getTrackingId();
+
+		StudentWriteStatus rejected = awaitCompletion(writeBehindService, duplicate);
+		assertThat(rejected.getStatus()).isEqualTo(StudentWriteStatus.Status.REJECTED);
+		assertThat(rejected.getMessage()).isEqualTo("DNI ya registrado");
+		for (String trackingId : List.of(first, last)) {
+			StudentWriteStatus committed = awaitCompletion(writeBehindService, trackingId);
+			assertThat(committed.getStatus()).isEqualTo(StudentWriteStatus.Status.COMMITTED);
+			assertThat(studentRepository.findById(committed.getStudentId())).isPresent();
+		}
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM students WHERE dni = 'wb-dup-1'", Long.class)).isEqualTo(1);
+	}
+
+	@Test
+	void updatesOfMissingStudentsAndDuplicatesWithinTheBatchAreRejected() throws Exception {
+		String missing = writeBehindService.submitUpdate(Long.MAX_VALUE, new Student("wb-missing-1", "Ana", "Paz", 2020, null))
+				.orElseThrow().getTrackingId();
+		String first = writeBehindService.submitCreate(new Student("wb-same-1", "Ana", "Paz", 2020, null)).orElseThrow().getTrackingId();
+		String second = writeBehindService.submitCreate(new Student("wb-same-1", "Beto", "Paz", 2020, null)).orElseThrow().getTrackingId();
+
+		assertThat(awaitCompletion(writeBehindService, missing))
+				.extracting(StudentWriteStatus::getStatus, StudentWriteStatus::getMessage)
+				.containsExactly(StudentWriteStatus.Status.REJECTED, "Estudiante no encontrado");
+		assertThat(awaitCompletion(writeBehindService, first).getStatus()).isEqualTo(StudentWriteStatus.Status.COMMITTED);
+		assertThat(awaitCompletion(writeBehindService, second).getStatus()).isEqualTo(StudentWriteStatus.Status.REJECTED);
+	}
+
+	@Test
+	void shutdownSavesTheQueuedWritesAndRejectsNewOnes() throws Exception {
+		// Instancia propia con un intervalo largo: las escrituras siguen en la cola al detenerla
+		StudentWriteBehindService service = new StudentWriteBehindService(transactionManager, 100, 100,
+				Duration.ofSeconds(2), Duration.ofMinutes(1));
+		context.getAutowireCapableBeanFactory().autowireBean(service);
+		List<String> trackingIds = new ArrayList<>();
+		for (int i = 1; i <= 3; i++) {
+			trackingIds.add(service.submitCreate(new Student("wb-drain-" + i, "Ana", "Paz", 2020, null)).orElseThrow().getTrackingId());
+		}
+
+		service.shutdown();
+
+		for (String trackingId : trackingIds) {
+			assertThat(service.getStatus(trackingId)).get()
+					.extracting(StudentWriteStatus::getStatus).isEqualTo(StudentWriteStatus.Status.COMMITTED);
+		}
+		assertThat(service.submitCreate(new Student("wb-drain-late", "Ana", "Paz", 2020, null))).isEmpty();
+	}
+}